@@ -0,0 +1,145 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.annotation.CreatedBy;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedBy;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.auditing.AuditingHandler;
+import org.springframework.data.mapping.Association;
+import org.springframework.data.mapping.PersistentEntity;
+import org.springframework.data.mapping.context.AbstractMappingContext;
+import org.springframework.data.mapping.context.PersistentEntities;
+import org.springframework.data.mapping.model.AnnotationBasedPersistentProperty;
+import org.springframework.data.mapping.model.BasicPersistentEntity;
+import org.springframework.data.mapping.model.Property;
+import org.springframework.data.mapping.model.SimpleTypeHolder;
+import org.springframework.data.util.TypeInformation;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.datajpa.auditing.CachedAuditorAware;
+import study.datajpa.auditing.CoarseClock;
+import study.datajpa.entity.AuditListener;
+import study.datajpa.entity.Member;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 엔티티 저장 1건당 auditing 비용 비교 (DB 없이 리스너만 호출)
+ * - springDataListener : 이전 방식 (AuditingEntityListener 가 쓰는 AuditingHandler + 리플렉션, UUID.randomUUID(), LocalDateTime.now())
+ *                        AuditingHandler 는 매핑 컨텍스트에 등록된 타입만 채우므로 AnnotatedEntity 를 등록한 컨텍스트로 만든다.
+ * - auditListener      : AuditListener + CoarseClock + 트랜잭션 동안 캐시한 등록자 (배치 저장 한 트랜잭션)
+ * - auditListenerNoTx  : 트랜잭션 밖이라 등록자를 매번 새로 만드는 경우 (ThreadLocalRandom UUID)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuditingBenchmark {
+
+    private AuditingHandler auditingHandler;
+    private AuditListener auditListener;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        AnnotatedMappingContext mappingContext = new AnnotatedMappingContext();
+        mappingContext.setInitialEntitySet(Collections.singleton(AnnotatedEntity.class));
+        mappingContext.setSimpleTypeHolder(new SimpleTypeHolder(Collections.singleton(LocalDateTime.class), true));
+        mappingContext.initialize();
+
+        auditingHandler = new AuditingHandler(PersistentEntities.of(mappingContext));
+        auditingHandler.setAuditorAware(() -> Optional.of(UUID.randomUUID().toString()));
+        auditListener = new AuditListener(new CoarseClock(Duration.ofMillis(10)), CachedAuditorAware.randomUuid());
+
+        // 빈 호출을 재지 않도록 두 방식 모두 실제로 값을 채우는지 확인
+        AnnotatedEntity annotated = auditingHandler.markCreated(new AnnotatedEntity());
+        if (annotated.createdDate == null || annotated.createdBy == null) {
+            throw new IllegalStateException("AuditingHandler 가 AnnotatedEntity 를 채우지 않음");
+        }
+        Member member = new Member("bench");
+        auditListener.prePersist(member);
+        if (member.getCreatedDate() == null || member.getCreatedBy() == null) {
+            throw new IllegalStateException("AuditListener 가 Member 를 채우지 않음");
+        }
+    }
+
+    @Benchmark
+    public Object springDataListener() {
+        return auditingHandler.markCreated(new AnnotatedEntity());
+    }
+
+    @Benchmark
+    public Object auditListener(InTransaction transaction) {
+        Member member = new Member("bench");
+        auditListener.prePersist(member);
+        return member;
+    }
+
+    @Benchmark
+    public Object auditListenerNoTx() {
+        Member member = new Member("bench");
+        auditListener.prePersist(member);
+        return member;
+    }
+
+    // 등록자를 트랜잭션 동안 캐시하는 경로를 타도록 스레드마다 트랜잭션 동기화를 열어둠
+    @State(Scope.Thread)
+    public static class InTransaction {
+
+        @Setup(Level.Trial)
+        public void begin() {
+            TransactionSynchronizationManager.initSynchronization();
+        }
+
+        @TearDown(Level.Trial)
+        public void end() {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    // 이전 BaseEntity 와 같은 어노테이션 구성
+    static class AnnotatedEntity {
+        @CreatedDate
+        private LocalDateTime createdDate;
+        @LastModifiedDate
+        private LocalDateTime lastModifiedDate;
+        @CreatedBy
+        private String createdBy;
+        @LastModifiedBy
+        private String lastModifiedBy;
+    }
+
+    // AnnotatedEntity 의 @CreatedDate 등을 읽을 수 있는 최소한의 매핑 컨텍스트 (JPA 메타모델 없이)
+    static class AnnotatedMappingContext
+            extends AbstractMappingContext<BasicPersistentEntity<?, AnnotatedProperty>, AnnotatedProperty> {
+
+        @Override
+        protected <T> BasicPersistentEntity<?, AnnotatedProperty> createPersistentEntity(TypeInformation<T> typeInformation) {
+            return new BasicPersistentEntity<>(typeInformation);
+        }
+
+        @Override
+        protected AnnotatedProperty createPersistentProperty(Property property, BasicPersistentEntity<?, AnnotatedProperty> owner,
+                                                             SimpleTypeHolder simpleTypeHolder) {
+            return new AnnotatedProperty(property, owner, simpleTypeHolder);
+        }
+    }
+
+    static class AnnotatedProperty extends AnnotationBasedPersistentProperty<AnnotatedProperty> {
+
+        AnnotatedProperty(Property property, PersistentEntity<?, AnnotatedProperty> owner, SimpleTypeHolder simpleTypeHolder) {
+            super(property, owner, simpleTypeHolder);
+        }
+
+        @Override
+        protected Association<AnnotatedProperty> createAssociation() {
+            return null;
+        }
+    }
+}
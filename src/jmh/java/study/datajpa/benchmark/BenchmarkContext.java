@@ -0,0 +1,66 @@
+package study.datajpa.benchmark;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.DataJpaApplication;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * 벤치마크용 스프링 컨텍스트 (웹 X, 인메모리 H2, SQL 로그 X)
+ * TEAM_COUNT 개 팀에 MEMBER_COUNT 명을 나눠서 넣고, 나이는 0 ~ AGE_COUNT-1 로 고르게 분포
+ */
+final class BenchmarkContext {
+
+    static final int TEAM_COUNT = 100;
+    static final int MEMBER_COUNT = 20_000;
+    static final int AGE_COUNT = 20;
+
+    private BenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext start(String databaseName, String... extraArgs) {
+        // application.yml 보다 우선하도록 커맨드라인 인자로 넘김
+        List<String> args = new ArrayList<>(Arrays.asList(
+                "--spring.datasource.url=jdbc:h2:mem:" + databaseName + ";DB_CLOSE_DELAY=-1",
+                "--spring.jpa.properties.hibernate.format_sql=false",
+                "--decorator.datasource.enabled=false",
+                "--logging.level.root=warn",
+                "--logging.level.org.hibernate.SQL=warn"));
+        args.addAll(Arrays.asList(extraArgs));
+
+        return new SpringApplicationBuilder(DataJpaApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(args.toArray(new String[0]));
+    }
+
+    static void seed(ConfigurableApplicationContext context) {
+        TeamRepository teamRepository = context.getBean(TeamRepository.class);
+        MemberRepository memberRepository = context.getBean(MemberRepository.class);
+
+        List<Team> teams = new ArrayList<>();
+        for (int i = 0; i < TEAM_COUNT; i++) {
+            teams.add(new Team("team" + i));
+        }
+        teamRepository.saveAll(teams);
+
+        transactionTemplate(context).execute(status -> memberRepository.saveAllBatched(
+                IntStream.range(0, MEMBER_COUNT)
+                        .mapToObj(i -> new Member("member" + i, i % AGE_COUNT, teams.get(i % TEAM_COUNT))),
+                500));
+    }
+
+    static TransactionTemplate transactionTemplate(ConfigurableApplicationContext context) {
+        return new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+    }
+}
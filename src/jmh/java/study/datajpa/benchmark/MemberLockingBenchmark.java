@@ -0,0 +1,65 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.LockingMode;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.service.MemberUpdateService;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 동시 수정 처리량: 낙관적 락(+재시도) vs 비관적 락(select ... for update)
+ * - hot    : 모든 스레드가 같은 회원 한 명을 수정 (경합 최대)
+ * - spread : 회원 1000 명 중 랜덤으로 수정 (경합 거의 없음)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class MemberLockingBenchmark {
+
+    @Param({"OPTIMISTIC", "PESSIMISTIC_WRITE"})
+    LockingMode mode;
+
+    @Param({"hot", "spread"})
+    String contention;
+
+    private ConfigurableApplicationContext context;
+    private MemberUpdateService memberUpdateService;
+    private List<Long> memberIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // hot 시나리오는 8 스레드가 한 행을 두고 다투므로 재시도 횟수를 넉넉하게
+        context = BenchmarkContext.start("locking", "--member.locking.max-attempts=100");
+        BenchmarkContext.seed(context);
+        memberUpdateService = context.getBean(MemberUpdateService.class);
+        memberIds = context.getBean(MemberRepository.class)
+                .findAll(PageRequest.of(0, 1000, Sort.by("id")))
+                .map(Member::getId)
+                .getContent();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Member update() {
+        Long memberId = "hot".equals(contention)
+                ? memberIds.get(0)
+                : memberIds.get(ThreadLocalRandom.current().nextInt(memberIds.size()));
+        return memberUpdateService.update(memberId, mode, member -> member.setAge(member.getAge() + 1));
+    }
+}
@@ -0,0 +1,65 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.KeysetSlice;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * findByAge 페이징 깊이별 비교: offset 페이징(count 포함) vs keyset 페이징
+ * 나이별로 MEMBER_COUNT / AGE_COUNT (1000)명, 페이지 크기 10
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MemberPagingBenchmark {
+
+    private static final int AGE = 7;
+    private static final int PAGE_SIZE = 10;
+
+    @Param({"0", "10", "90"})
+    private int page;
+
+    private ConfigurableApplicationContext context;
+    private MemberRepository memberRepository;
+    private PageRequest pageRequest;
+    private String keysetCursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("paging");
+        BenchmarkContext.seed(context);
+        memberRepository = context.getBean(MemberRepository.class);
+        pageRequest = PageRequest.of(page, PAGE_SIZE, Sort.by(Sort.Direction.DESC, "username"));
+
+        // keyset 은 같은 위치의 페이지를 보도록 앞 페이지들을 넘겨서 커서를 구해둠
+        PageRequest keysetRequest = PageRequest.of(0, PAGE_SIZE, Sort.by(Sort.Direction.DESC, "username"));
+        for (int i = 0; i < page; i++) {
+            keysetCursor = memberRepository.findByAgeByKeyset(AGE, keysetCursor, keysetRequest).getNextCursor();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<Member> offsetPaging() {
+        return memberRepository.findByAge(AGE, pageRequest);
+    }
+
+    @Benchmark
+    public KeysetSlice<Member> keysetPaging() {
+        return memberRepository.findByAgeByKeyset(AGE, keysetCursor, pageRequest);
+    }
+}
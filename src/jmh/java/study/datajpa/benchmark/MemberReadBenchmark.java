@@ -0,0 +1,83 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 조회 경로 비교
+ * - findById (2차 캐시 적용 후)
+ * - 패치조인(findMemberFetchJoin) vs @EntityGraph(findAll)
+ * - DTO 생성자 프로젝션(findMemberDto) vs 엔티티 조회 후 DTO 변환
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MemberReadBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private MemberRepository memberRepository;
+    private TransactionTemplate readOnlyTransaction;
+    private List<Long> ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("read");
+        BenchmarkContext.seed(context);
+        memberRepository = context.getBean(MemberRepository.class);
+        readOnlyTransaction = BenchmarkContext.transactionTemplate(context);
+        readOnlyTransaction.setReadOnly(true);
+        ids = memberRepository.findAll().stream()
+                .map(Member::getId)
+                .collect(Collectors.toList());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Member findById() {
+        Long id = ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+        return memberRepository.findById(id).orElse(null);
+    }
+
+    // team.getName() 까지 접근해서 연관 엔티티 로딩 비용을 포함
+    @Benchmark
+    public long findMemberFetchJoin() {
+        return readOnlyTransaction.execute(status -> memberRepository.findMemberFetchJoin().stream()
+                .filter(m -> m.getTeam().getName() != null)
+                .count());
+    }
+
+    @Benchmark
+    public long findAllEntityGraph() {
+        return readOnlyTransaction.execute(status -> memberRepository.findAll().stream()
+                .filter(m -> m.getTeam().getName() != null)
+                .count());
+    }
+
+    @Benchmark
+    public List<MemberDto> findMemberDtoProjection() {
+        return memberRepository.findMemberDto();
+    }
+
+    @Benchmark
+    public List<MemberDto> findEntityThenMapToDto() {
+        return readOnlyTransaction.execute(status -> memberRepository.findMemberFetchJoin().stream()
+                .map(m -> new MemberDto(m.getId(), m.getUsername(), m.getTeam().getName()))
+                .collect(Collectors.toList()));
+    }
+}
@@ -0,0 +1,84 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * 쓰기 경로 비교 (모두 롤백하므로 테이블 크기는 그대로 유지)
+ * - save 루프 vs saveAllBatched (배치 크기별)
+ * - bulkAgePlus
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MemberWriteBenchmark {
+
+    private static final int ROWS = 1000;
+
+    private ConfigurableApplicationContext context;
+    private MemberRepository memberRepository;
+    private TransactionTemplate transaction;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("write");
+        BenchmarkContext.seed(context);
+        memberRepository = context.getBean(MemberRepository.class);
+        transaction = BenchmarkContext.transactionTemplate(context);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // 배치 크기와 상관없는 기준값 (한 트랜잭션 안에서 save 반복)
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void saveLoop() {
+        transaction.execute(status -> {
+            for (int i = 0; i < ROWS; i++) {
+                memberRepository.save(new Member("bench" + i, i));
+            }
+            memberRepository.flush();
+            status.setRollbackOnly();
+            return null;
+        });
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long saveAllBatched(BatchSize batch) {
+        return transaction.execute(status -> {
+            long saved = memberRepository.saveAllBatched(IntStream.range(0, ROWS)
+                    .mapToObj(i -> new Member("bench" + i, i)), batch.size);
+            status.setRollbackOnly();
+            return saved;
+        });
+    }
+
+    @Benchmark
+    public int bulkAgePlus() {
+        return transaction.execute(status -> {
+            int updated = memberRepository.bulkAgePlus(BenchmarkContext.AGE_COUNT / 2);
+            status.setRollbackOnly();
+            return updated;
+        });
+    }
+
+    // saveAllBatched 만 배치 크기별로 돌도록 파라미터를 별도 State 로 분리
+    @State(Scope.Benchmark)
+    public static class BatchSize {
+        @Param({"1", "50", "500"})
+        int size;
+    }
+}
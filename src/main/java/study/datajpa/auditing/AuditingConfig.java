@@ -0,0 +1,27 @@
+package study.datajpa.auditing;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+
+import java.time.Duration;
+
+/**
+ * BaseTimeEntity/BaseEntity 는 AuditListener 가 아래 두 빈으로 바로 채움 (리플렉션 X)
+ * AuditingEntityListener 를 직접 붙인 엔티티가 있어도 같은 시계/등록자를 쓰도록 @EnableJpaAuditing 에도 연결
+ */
+@Configuration
+@EnableJpaAuditing(auditorAwareRef = "auditorProvider", dateTimeProviderRef = "auditingClock")
+public class AuditingConfig {
+
+    @Bean
+    public CoarseClock auditingClock(@Value("${auditing.clock-resolution:10ms}") Duration resolution) {
+        return new CoarseClock(resolution);
+    }
+
+    @Bean
+    public CachedAuditorAware auditorProvider() {
+        return CachedAuditorAware.randomUuid();
+    }
+}
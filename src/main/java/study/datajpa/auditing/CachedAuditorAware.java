@@ -0,0 +1,75 @@
+package study.datajpa.auditing;
+
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * 등록자/수정자를 엔티티마다 새로 만들지 않고 한 번 만든 값을 재사용
+ * - HTTP 요청 안: 요청 속성에 캐시 (요청 하나 = 사용자 한 명)
+ * - 요청 밖(배치, 테스트): 트랜잭션 동안 캐시
+ * - 둘 다 없으면 매번 새로 만듦
+ * 실제 서비스라면 resolver 가 SecurityContext 등에서 로그인 사용자를 꺼내오면 된다.
+ */
+public class CachedAuditorAware implements AuditorAware<String> {
+
+    private static final String ATTRIBUTE = CachedAuditorAware.class.getName() + ".AUDITOR";
+
+    private final Supplier<String> resolver;
+
+    public CachedAuditorAware(Supplier<String> resolver) {
+        this.resolver = resolver;
+    }
+
+    // 예제용 등록자: UUID.randomUUID() 는 SecureRandom 을 쓰므로 ThreadLocalRandom 으로 version 4 형식만 맞춤
+    public static CachedAuditorAware randomUuid() {
+        return new CachedAuditorAware(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long msb = (random.nextLong() & 0xffffffffffff0fffL) | 0x0000000000004000L;
+            long lsb = (random.nextLong() & 0x3fffffffffffffffL) | 0x8000000000000000L;
+            return new UUID(msb, lsb).toString();
+        });
+    }
+
+    @Override
+    public Optional<String> getCurrentAuditor() {
+        return Optional.ofNullable(currentAuditor());
+    }
+
+    // Optional 없이 바로 꺼내는 용도 (AuditListener)
+    public String currentAuditor() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null) {
+            String auditor = (String) request.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            if (auditor == null) {
+                auditor = resolver.get();
+                request.setAttribute(ATTRIBUTE, auditor, RequestAttributes.SCOPE_REQUEST);
+            }
+            return auditor;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            String auditor = (String) TransactionSynchronizationManager.getResource(ATTRIBUTE);
+            if (auditor == null) {
+                auditor = resolver.get();
+                TransactionSynchronizationManager.bindResource(ATTRIBUTE, auditor);
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        TransactionSynchronizationManager.unbindResourceIfPossible(ATTRIBUTE);
+                    }
+                });
+            }
+            return auditor;
+        }
+
+        return resolver.get();
+    }
+}
@@ -0,0 +1,59 @@
+package study.datajpa.auditing;
+
+import org.springframework.data.auditing.DateTimeProvider;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.TemporalAccessor;
+import java.util.Optional;
+
+/**
+ * resolution 단위로 잘라서 캐시하는 시계
+ * LocalDateTime.now() 는 호출마다 Instant → 시간대 오프셋 계산 → LocalDateTime 생성을 하는데,
+ * 배치 저장처럼 같은 시각에 수천 건을 감사(auditing) 할 때는 resolution 안에서 같은 인스턴스를 재사용한다.
+ * 대신 기록되는 시각의 정밀도가 resolution 으로 떨어진다. (기본 10ms)
+ */
+public class CoarseClock implements DateTimeProvider {
+
+    private final ZoneId zone;
+    private final long resolutionMillis;
+    private volatile Tick tick = new Tick(Long.MIN_VALUE, null);
+
+    public CoarseClock(Duration resolution) {
+        this(resolution, ZoneId.systemDefault());
+    }
+
+    public CoarseClock(Duration resolution, ZoneId zone) {
+        this.resolutionMillis = Math.max(1, resolution.toMillis());
+        this.zone = zone;
+    }
+
+    public LocalDateTime now() {
+        long slot = System.currentTimeMillis() / resolutionMillis;
+        Tick current = tick;
+        if (current.slot != slot) {
+            // 여러 스레드가 동시에 갱신해도 같은 값이므로 락 없이 덮어씀
+            current = new Tick(slot, LocalDateTime.ofInstant(Instant.ofEpochMilli(slot * resolutionMillis), zone));
+            tick = current;
+        }
+        return current.time;
+    }
+
+    // Spring Data AuditingEntityListener 를 쓰는 엔티티도 같은 시계를 쓰도록 (@EnableJpaAuditing dateTimeProviderRef)
+    @Override
+    public Optional<TemporalAccessor> getNow() {
+        return Optional.of(now());
+    }
+
+    private static final class Tick {
+        private final long slot;
+        private final LocalDateTime time;
+
+        private Tick(long slot, LocalDateTime time) {
+            this.slot = slot;
+            this.time = time;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package study.datajpa.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import study.datajpa.monitoring.RequestProfileTaskDecorator;
+
+/**
+ * @Async("repositoryExecutor") 레포지토리 메서드 실행용 스레드 풀
+ * - 스레드 수 = 커넥션 풀 크기 (스레드마다 커넥션을 하나씩 잡으므로 더 많아봐야 커넥션 대기만 늘어남)
+ * - 큐가 차면 TaskRejectedException → 503 (ApiExceptionHandler), 요청이 무한정 쌓이지 않도록
+ * 자바 8 기준이라 가상 스레드 대신 일반 스레드 풀 (스레드 수는 어차피 커넥션 수로 제한됨)
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    public static final String REPOSITORY_EXECUTOR = "repositoryExecutor";
+
+    @Bean(REPOSITORY_EXECUTOR)
+    public ThreadPoolTaskExecutor repositoryExecutor(
+            @Value("${repository.async.pool-size:${spring.datasource.hikari.maximum-pool-size:10}}") int poolSize,
+            @Value("${repository.async.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("repository-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        executor.setTaskDecorator(new RequestProfileTaskDecorator());  // 비동기 조회의 SQL 도 요청별 프로파일에 집계
+        return executor;
+    }
+}
@@ -0,0 +1,50 @@
+package study.datajpa.config;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+import study.datajpa.repository.support.BatchingLoader;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * findById 앞단의 배치 로더 (동시에 들어온 단건 조회를 in 쿼리 하나로)
+ */
+@Configuration
+public class BatchingLoaderConfig {
+
+    @Value("${repository.batching.window:2ms}")
+    private Duration window;
+    @Value("${repository.batching.max-batch-size:100}")
+    private int maxBatchSize;
+
+    @Bean
+    public BatchingLoader<Long, Member> memberLoader(MemberRepository memberRepository,
+                                                     @Qualifier(AsyncConfig.REPOSITORY_EXECUTOR) Executor executor) {
+        return new BatchingLoader<>("member", ids -> byId(memberRepository.findAllById(ids), Member::getId),
+                executor, window, maxBatchSize);
+    }
+
+    // /team/{id} (TeamController)
+    @Bean
+    public BatchingLoader<Long, Team> teamLoader(TeamRepository teamRepository,
+                                                 @Qualifier(AsyncConfig.REPOSITORY_EXECUTOR) Executor executor) {
+        return new BatchingLoader<>("team", ids -> byId(teamRepository.findAllById(ids), Team::getId),
+                executor, window, maxBatchSize);
+    }
+
+    private static <T> Map<Long, T> byId(List<T> entities, Function<T, Long> id) {
+        return entities.stream()
+                .collect(Collectors.toMap(id, Function.identity()));
+    }
+}
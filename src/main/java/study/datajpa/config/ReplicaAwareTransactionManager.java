@@ -0,0 +1,28 @@
+package study.datajpa.config;
+
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * 트랜잭션의 readOnly 여부는 doBegin 이 끝난 뒤에야 TransactionSynchronizationManager 에 반영되는데,
+ * 하이버네이트는 doBegin 안에서 커넥션을 가져오므로 그 전에 ReplicaRouter 에 readOnly 여부를 넘겨준다.
+ * (LazyConnectionDataSourceProxy 로 미루는 방법은 p6spy 가 커넥션을 감쌀 때 getMetaData() 를 호출해서 동작하지 않음)
+ */
+class ReplicaAwareTransactionManager extends JpaTransactionManager {
+
+    ReplicaAwareTransactionManager(EntityManagerFactory entityManagerFactory) {
+        super(entityManagerFactory);
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        Boolean previous = ReplicaRouter.beginReadOnly(definition.isReadOnly());
+        try {
+            super.doBegin(transaction, definition);
+        } finally {
+            ReplicaRouter.endReadOnly(previous);
+        }
+    }
+}
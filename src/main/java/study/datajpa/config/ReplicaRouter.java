@@ -0,0 +1,221 @@
+package study.datajpa.config;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 커넥션을 어느 DB 에서 가져올지 결정
+ * - 읽기 전용 트랜잭션(@Transactional(readOnly = true), @ReadOnlyQuery, SimpleJpaRepository 의 조회 메서드) → 정상인 레플리카 중 라운드로빈
+ * - 그 외, 또는 정상인 레플리카가 없으면 → 프라이머리
+ * 레플리카 상태는 healthCheckInterval 마다 연결 + 복제 지연(lagQuery)을 확인해서 갱신하고,
+ * 요청 중 커넥션 획득에 실패하면 바로 DOWN 처리 후 다음 체크까지 제외한다.
+ */
+@Slf4j
+public class ReplicaRouter implements DisposableBean {
+
+    public static final String PRIMARY = "primary";
+
+    public enum Status {
+        UP, LAGGING, DOWN
+    }
+
+    private final Map<String, DataSource> replicas;
+    private final Map<String, ReplicaState> states = new LinkedHashMap<>();
+    private final ReplicaRoutingProperties properties;
+    private final ScheduledExecutorService scheduler;
+
+    // 트랜잭션 시작 중(커넥션 획득 시점)의 readOnly 여부, ReplicaAwareTransactionManager 가 설정
+    private static final ThreadLocal<Boolean> BEGINNING_READ_ONLY = new ThreadLocal<>();
+
+    private volatile List<String> available = Collections.emptyList();
+    private final AtomicInteger next = new AtomicInteger();
+    private final AtomicLong fallbacks = new AtomicLong();
+
+    public ReplicaRouter(Map<String, DataSource> replicas, ReplicaRoutingProperties properties) {
+        this.replicas = replicas;
+        this.properties = properties;
+        for (String name : replicas.keySet()) {
+            states.put(name, new ReplicaState(name));
+        }
+
+        checkReplicas();  // 첫 요청부터 상태가 반영되도록 시작할 때 한번
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.getHealthCheckInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::checkReplicas, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    static Boolean beginReadOnly(boolean readOnly) {
+        Boolean previous = BEGINNING_READ_ONLY.get();
+        BEGINNING_READ_ONLY.set(readOnly);
+        return previous;
+    }
+
+    static void endReadOnly(Boolean previous) {
+        if (previous == null) {
+            BEGINNING_READ_ONLY.remove();
+        } else {
+            BEGINNING_READ_ONLY.set(previous);
+        }
+    }
+
+    public String route() {
+        Boolean beginning = BEGINNING_READ_ONLY.get();
+        boolean readOnly = beginning != null ? beginning : TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        if (!readOnly) {
+            return PRIMARY;
+        }
+
+        List<String> candidates = available;
+        if (candidates.isEmpty()) {
+            fallbacks.incrementAndGet();
+            return PRIMARY;
+        }
+        return candidates.get(Math.floorMod(next.getAndIncrement(), candidates.size()));
+    }
+
+    DataSource replica(String name) {
+        return replicas.get(name);
+    }
+
+    void markDown(String name, Exception e) {
+        log.warn("replica {} 커넥션 실패, 프라이머리로 전환: {}", name, e.getMessage());
+        fallbacks.incrementAndGet();
+        update(states.get(name), Status.DOWN, -1, e.getMessage());
+    }
+
+    public synchronized void checkReplicas() {
+        for (Map.Entry<String, DataSource> entry : replicas.entrySet()) {
+            ReplicaState state = states.get(entry.getKey());
+            try (Connection connection = entry.getValue().getConnection()) {
+                long lagSeconds = lagSeconds(connection);
+                Status status = lagSeconds > properties.getMaxLag().getSeconds() ? Status.LAGGING : Status.UP;
+                update(state, status, lagSeconds, null);
+            } catch (SQLException | RuntimeException e) {
+                update(state, Status.DOWN, -1, e.getMessage());
+            }
+        }
+    }
+
+    private long lagSeconds(Connection connection) throws SQLException {
+        int timeoutSeconds = (int) Math.max(1, properties.getConnectionTimeout().getSeconds());
+        if (properties.getLagQuery() == null) {
+            if (!connection.isValid(timeoutSeconds)) {
+                throw new SQLException("connection is not valid");
+            }
+            return 0;
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(timeoutSeconds);
+            try (ResultSet rs = statement.executeQuery(properties.getLagQuery())) {
+                if (!rs.next()) {
+                    throw new SQLException("복제 상태를 알 수 없음 (lag query 결과 없음)");
+                }
+                int column = hasColumn(rs, "Seconds_Behind_Master") ? rs.findColumn("Seconds_Behind_Master") : 1;
+                long lag = rs.getLong(column);
+                if (rs.wasNull()) {
+                    throw new SQLException("복제가 멈춘 상태 (지연 값이 null)");
+                }
+                return lag;
+            }
+        }
+    }
+
+    private static boolean hasColumn(ResultSet rs, String column) throws SQLException {
+        for (int i = 1; i <= rs.getMetaData().getColumnCount(); i++) {
+            if (column.equalsIgnoreCase(rs.getMetaData().getColumnLabel(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private synchronized void update(ReplicaState state, Status status, long lagSeconds, String error) {
+        if (state.status != status) {
+            log.info("replica {} : {} -> {} (lag={}s {})", state.name, state.status, status, lagSeconds,
+                    error == null ? "" : error);
+        }
+        state.status = status;
+        state.lagSeconds = lagSeconds;
+        state.lastError = error;
+        state.lastCheckedAt = System.currentTimeMillis();
+
+        List<String> up = new ArrayList<>();
+        for (ReplicaState each : states.values()) {
+            if (each.status == Status.UP) {
+                up.add(each.name);
+            }
+        }
+        available = Collections.unmodifiableList(up);
+    }
+
+    public synchronized List<ReplicaState> getStates() {
+        List<ReplicaState> result = new ArrayList<>();
+        for (ReplicaState state : states.values()) {
+            result.add(state.copy());
+        }
+        return result;
+    }
+
+    // 읽기 전용인데 레플리카를 못 쓰고 프라이머리로 보낸 횟수
+    public long getFallbackCount() {
+        return fallbacks.get();
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        scheduler.shutdownNow();
+        for (DataSource dataSource : replicas.values()) {
+            if (dataSource instanceof Closeable) {
+                ((Closeable) dataSource).close();
+            }
+        }
+    }
+
+    @Getter
+    public static class ReplicaState {
+        private final String name;
+        private Status status = Status.DOWN;
+        private long lagSeconds = -1;
+        private String lastError;
+        private long lastCheckedAt;
+
+        ReplicaState(String name) {
+            this.name = name;
+        }
+
+        ReplicaState copy() {
+            ReplicaState copy = new ReplicaState(name);
+            copy.status = status;
+            copy.lagSeconds = lagSeconds;
+            copy.lastError = lastError;
+            copy.lastCheckedAt = lastCheckedAt;
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package study.datajpa.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.transaction.PlatformTransactionManager;
+import study.datajpa.monitoring.ConnectionPoolMetrics;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * datasource.routing.enabled=true 일 때 DataSource 를 프라이머리/레플리카 라우팅으로 교체
+ * (로컬에서 두 개의 H2 로 확인: --spring.profiles.active=replica)
+ */
+@Configuration
+@EnableConfigurationProperties(ReplicaRoutingProperties.class)
+@ConditionalOnProperty(name = "datasource.routing.enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    public ReplicaRouter replicaRouter(ReplicaRoutingProperties properties, DataSourceProperties dataSourceProperties,
+                                       ConnectionPoolMetrics connectionPoolMetrics) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        int index = 0;
+        for (ReplicaRoutingProperties.Replica replica : properties.getReplicas()) {
+            String name = replica.getName() != null ? replica.getName() : "replica" + (++index);
+            HikariDataSource dataSource = replicaDataSource(name, replica, properties, dataSourceProperties);
+            connectionPoolMetrics.register(dataSource);
+            replicas.put(name, dataSource);
+        }
+        return new ReplicaRouter(replicas, properties);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties dataSourceProperties, ReplicaRouter replicaRouter,
+                                 ConnectionPoolMetrics connectionPoolMetrics) {
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        connectionPoolMetrics.register(primary);
+        // 반환 타입은 DataSource 지만 스프링이 실제 객체의 close 를 찾아서 종료할 때 호출함 (풀 누수 방지)
+        return new ReplicaRoutingDataSource(primary, replicaRouter);
+    }
+
+    // 기본 JpaTransactionManager 대신 등록 (스프링 부트 기본 트랜잭션 매니저는 이 빈이 있으면 생성되지 않음)
+    @Bean
+    public PlatformTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+        return new ReplicaAwareTransactionManager(entityManagerFactory);
+    }
+
+    private HikariDataSource replicaDataSource(String name, ReplicaRoutingProperties.Replica replica,
+                                         ReplicaRoutingProperties properties,
+                                         DataSourceProperties dataSourceProperties) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica-" + name);
+        dataSource.setJdbcUrl(replica.getUrl());
+        dataSource.setUsername(replica.getUsername() != null ? replica.getUsername() : dataSourceProperties.getUsername());
+        dataSource.setPassword(replica.getPassword() != null ? replica.getPassword() : dataSourceProperties.getPassword());
+        dataSource.setDriverClassName(replica.getDriverClassName() != null
+                ? replica.getDriverClassName() : dataSourceProperties.determineDriverClassName());
+        dataSource.setReadOnly(true);
+        dataSource.setMaximumPoolSize(properties.getMaximumPoolSize());
+        dataSource.setConnectionTimeout(properties.getConnectionTimeout().toMillis());
+        dataSource.setInitializationFailTimeout(-1);  // 레플리카가 죽어있어도 애플리케이션은 뜨도록 (헬스체크에서 DOWN)
+        return dataSource;
+    }
+}
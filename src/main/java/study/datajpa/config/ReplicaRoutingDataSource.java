@@ -0,0 +1,65 @@
+package study.datajpa.config;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * ReplicaRouter 가 고른 DB 의 커넥션을 반환, 레플리카 커넥션 획득에 실패하면 프라이머리로 대체
+ * 하이버네이트는 트랜잭션 시작(doBegin) 시점에 커넥션을 가져오므로 readOnly 여부는 ReplicaAwareTransactionManager 가 미리 알려준다.
+ * 스프링이 종료할 때 close 로 프라이머리/레플리카 커넥션 풀을 모두 닫는다. (ReplicaRouter.destroy 는 두 번 불려도 괜찮음)
+ */
+class ReplicaRoutingDataSource extends AbstractDataSource implements Closeable {
+
+    private final DataSource primary;
+    private final ReplicaRouter router;
+
+    ReplicaRoutingDataSource(DataSource primary, ReplicaRouter router) {
+        this.primary = primary;
+        this.router = router;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    private Connection route(ConnectionSupplier supplier) throws SQLException {
+        String target = router.route();
+        if (ReplicaRouter.PRIMARY.equals(target)) {
+            return supplier.get(primary);
+        }
+
+        try {
+            return supplier.get(router.replica(target));
+        } catch (SQLException e) {
+            router.markDown(target, e);
+            return supplier.get(primary);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (primary instanceof Closeable) {
+                ((Closeable) primary).close();
+            }
+        } finally {
+            router.destroy();
+        }
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSupplier {
+        Connection get(DataSource dataSource) throws SQLException;
+    }
+}
@@ -0,0 +1,36 @@
+package study.datajpa.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 읽기 전용 트랜잭션을 레플리카로 보내는 라우팅 설정 (datasource.routing.*)
+ * 프라이머리는 기존 spring.datasource.* 를 그대로 사용
+ */
+@Getter @Setter
+@ConfigurationProperties("datasource.routing")
+public class ReplicaRoutingProperties {
+
+    private boolean enabled;
+    private List<Replica> replicas = new ArrayList<>();
+
+    private Duration healthCheckInterval = Duration.ofSeconds(5);
+    private Duration maxLag = Duration.ofSeconds(5);   // 이보다 뒤처진 레플리카는 쓰지 않음
+    private String lagQuery;                          // 지연(초)을 조회하는 쿼리, 없으면 연결 체크만 (MySQL: SHOW SLAVE STATUS)
+    private Duration connectionTimeout = Duration.ofSeconds(1);
+    private int maximumPoolSize = 10;
+
+    @Getter @Setter
+    public static class Replica {
+        private String name;
+        private String url;
+        private String username;
+        private String password;
+        private String driverClassName;  // 없으면 프라이머리와 같은 드라이버
+    }
+}
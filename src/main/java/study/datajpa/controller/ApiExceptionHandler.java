@@ -0,0 +1,23 @@
+package study.datajpa.controller;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+@Slf4j
+@RestControllerAdvice
+public class ApiExceptionHandler {
+
+    // repositoryExecutor 큐가 가득 참 (커넥션 풀이 다 쓰이는 중) → 잠시 후 다시 요청하도록
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<String> busy(TaskRejectedException e) {
+        log.warn("repository executor saturated: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body("busy");
+    }
+}
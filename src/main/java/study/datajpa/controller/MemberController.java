@@ -1,28 +1,58 @@
 package study.datajpa.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 import study.datajpa.dto.MemberDto;
 import study.datajpa.entity.Member;
+import study.datajpa.repository.CachedCountPage;
+import study.datajpa.repository.KeysetSlice;
 import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.support.BatchingLoader;
+import study.datajpa.service.MemberExportService;
+import study.datajpa.service.MemberFileFormat;
+import study.datajpa.service.MemberImportResult;
+import study.datajpa.service.MemberImportService;
 
 import javax.annotation.PostConstruct;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequiredArgsConstructor
 public class MemberController {
 
     private final MemberRepository memberRepository;
+    private final BatchingLoader<Long, Member> memberLoader;
+    private final MemberExportService memberExportService;
+    private final MemberImportService memberImportService;
 
+    // 비동기: 조회는 repositoryExecutor 에서 하고 서블릿 스레드는 바로 반납 (풀이 가득 차면 503, ApiExceptionHandler)
+    // 동시에 들어온 요청들의 id 는 memberLoader 가 모아서 in 쿼리 한번으로 조회
     @GetMapping("/member/{id}")
-    public String findMember(@PathVariable("id") Long id) {
-        Member member = memberRepository.findById(id).get();
-        return member.getUsername();
+    public CompletableFuture<String> findMember(@PathVariable("id") Long id) {
+        return memberLoader.load(id)
+                .thenApply(member -> member.get().getUsername());
     }
 
     // 도메인 클래스 컨버터 방식   (조회용일때만 사용할 것..)
@@ -33,19 +63,148 @@ public class MemberController {
 
     // Web 확장: Paging과 정렬
     @GetMapping("/members")  // localhost:8080/members?page=0&size=3&sort=id,desc&sort=username,desc
-    public Page<MemberDto> list(@PageableDefault(size = 5) Pageable pageable) {
-        Page<Member> page = memberRepository.findAll(pageable);
+    // 전체 갯수는 CountCache 에 캐시된 값을 사용 (요청마다 count 쿼리 X)
+    // 쓰기 이후 캐시가 stale 이면 추정한 갯수를 주고 approximate=true 로 표시 (응답은 기존과 같은 Page 형태)
+    // 엔티티를 조회해서 MemberDto 로 변환하지 않고 필요한 컬럼만 바로 DTO 로 조회 (읽기 전용)
+    public CompletableFuture<CachedCountPage<MemberDto>> list(@PageableDefault(size = 5) Pageable pageable) {
+        //Slice<Member> page = memberRepository.findAllWithCachedCount(pageable);
+        //Slice<MemberDto> map = page.map(member -> new MemberDto(member));  // Member 엔티티를 MemberDto로 변환
+        return memberRepository.findMemberDtoWithCachedCountAsync(pageable);
+    }
+
+    // 전체 갯수가 항상 정확해야 할 때 (매 요청 count 쿼리)
+    @GetMapping("/members/page")
+    public CompletableFuture<Page<MemberDto>> page(@PageableDefault(size = 5) Pageable pageable) {
+        return memberRepository.findMemberDtoPageAsync(pageable);
+    }
+
+    // Keyset 페이징: localhost:8080/members?after=&size=3&sort=username,desc
+    // 다음 페이지는 응답의 nextCursor 값을 after 로 넘김 (page 번호는 무시, count 쿼리 X)
+    // 지원하지 않는 정렬 속성이나 잘못된 커서는 400 (레포지토리의 IllegalArgumentException 은 스프링 데이터 예외로 변환되어 옴)
+    @GetMapping(value = "/members", params = "after")
+    public KeysetSlice<MemberDto> listAfter(@RequestParam("after") String after,
+                                            @PageableDefault(size = 5) Pageable pageable) {
+        try {
+            return memberRepository.findAllByKeyset(after, pageable)
+                    .map(MemberDto::new);
+        } catch (InvalidDataAccessApiUsageException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMostSpecificCause().getMessage(), e);
+        }
+    }
+
+    // username 검색: localhost:8080/members/search?q=mem&mode=prefix (prefix / contains / fuzzy, 관련도 순)
+    // LIKE '%q%' 대신 메모리 인덱스(UsernameSearchIndex)로 찾고 해당 회원만 조회
+    // limit 은 1 이상 (UsernameSearchIndex.MAX_LIMIT 보다 크면 줄임), 잘못된 mode/limit 은 400
+    @GetMapping("/members/search")
+    public List<MemberDto> search(@RequestParam("q") String query,
+                                  @RequestParam(defaultValue = "contains") String mode,
+                                  @RequestParam(defaultValue = "10") int limit) {
+        if (limit < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit 은 1 이상이어야 합니다: " + limit);
+        }
+        List<Member> members;
+        switch (mode) {
+            case "prefix":
+                members = memberRepository.searchByUsernamePrefix(query, limit);
+                break;
+            case "contains":
+                members = memberRepository.searchByUsernameContaining(query, limit);
+                break;
+            case "fuzzy":
+                members = memberRepository.searchByUsernameFuzzy(query, limit);
+                break;
+            default:
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "지원하지 않는 검색 방식입니다: " + mode);
+        }
+        return members.stream()
+                .map(MemberDto::new)
+                .collect(Collectors.toList());
+    }
 
-        //Page<MemberDto> map = page.map(member -> new MemberDto(member.getId(), member.getUsername(), null));
-        Page<MemberDto> map = page.map(member -> new MemberDto(member));  // Member 엔티티를 MemberDto로 변환
+    // 전체 회원 내보내기: localhost:8080/members/export?format=csv (csv / ndjson)
+    // 크기를 모르므로 chunked 로 보내고, Accept-Encoding 이 gzip 을 허용하면(q=0 은 거부) 압축해서 보냄
+    // 지원하지 않는 format 은 400
+    // StreamingResponseBody(비동기)는 spring.mvc.async.request-timeout(10s)에 끊기므로 요청 스레드에서 바로 씀
+    @GetMapping("/members/export")
+    public void export(@RequestParam(defaultValue = "csv") String format,
+                       @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                       HttpServletResponse response) throws IOException {
+        MemberFileFormat exportFormat = fileFormat(format);
+        boolean gzip = acceptsGzip(acceptEncoding);
 
-        return map;
+        response.setContentType(exportFormat.getContentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"members." + exportFormat.getExtension() + "\"");
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            GZIPOutputStream out = new GZIPOutputStream(response.getOutputStream(), 8192);
+            memberExportService.export(exportFormat, out);
+            out.finish();
+        } else {
+            memberExportService.export(exportFormat, response.getOutputStream());
+        }
+    }
+
+    // 파트너 파일 가져오기: POST localhost:8080/members/import?format=csv (본문에 파일 그대로, Content-Encoding: gzip 가능)
+    // 결과로 처리 건수, 초당 건수, 실패한 줄 번호와 이유를 돌려줌
+    // 지원하지 않는 format, 헤더가 없거나 username 컬럼이 없는 CSV 는 400 (행 단위 오류는 결과의 errors 로)
+    @PostMapping("/members/import")
+    public MemberImportResult importMembers(@RequestParam(defaultValue = "csv") String format,
+                                            HttpServletRequest request) throws IOException {
+        MemberFileFormat fileFormat = fileFormat(format);
+        InputStream in = request.getInputStream();
+        if ("gzip".equalsIgnoreCase(request.getHeader(HttpHeaders.CONTENT_ENCODING))) {
+            in = new GZIPInputStream(in, 8192);
+        }
+        try {
+            return memberImportService.importMembers(fileFormat, in);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
     }
 
  //   @PostConstruct
     public void init() {
-        for (int i = 0; i < 100; i++) {
-            memberRepository.save(new Member("user" + i, i));  // Member(username, age)
+        // 한건씩 save 하지 않고 JDBC 배치 insert 로 저장
+        memberRepository.saveAllBatched(IntStream.range(0, 100)
+                .mapToObj(i -> new Member("user" + i, i)), 100);  // Member(username, age)
+    }
+
+    private static MemberFileFormat fileFormat(String format) {
+        try {
+            return MemberFileFormat.of(format);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
+    // Accept-Encoding: gzip;q=0.5, *;q=0 (gzip 이 직접 있으면 그 q, 없으면 * 의 q, q 가 0 이거나 잘못되면 거부)
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzip = null;
+        Double any = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim().toLowerCase(Locale.ROOT);
+            double q = 1;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.startsWith("q=") || param.startsWith("Q=")) {
+                    try {
+                        q = Double.parseDouble(param.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        q = 0;
+                    }
+                }
+            }
+            if (name.equals("gzip") || name.equals("x-gzip")) {
+                gzip = gzip == null ? q : Math.max(gzip, q);
+            } else if (name.equals("*")) {
+                any = q;
+            }
         }
+        return gzip != null ? gzip > 0 : any != null && any > 0;
     }
 }
@@ -0,0 +1,158 @@
+package study.datajpa.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import study.datajpa.config.ReplicaRouter;
+import study.datajpa.dto.CacheRegionStatsDto;
+import study.datajpa.dto.ConnectionPoolStatsDto;
+import study.datajpa.dto.LockingStatsDto;
+import study.datajpa.dto.OutboxStatsDto;
+import study.datajpa.dto.QueryPlanStatsDto;
+import study.datajpa.dto.RepositoryMethodStatsDto;
+import study.datajpa.dto.RouteProfileStatsDto;
+import study.datajpa.dto.WarmupStepDto;
+import study.datajpa.monitoring.ConnectionPoolMetrics;
+import study.datajpa.monitoring.RepositoryMetrics;
+import study.datajpa.monitoring.RequestProfiles;
+import study.datajpa.monitoring.SlowRequest;
+import study.datajpa.outbox.OutboxRelay;
+import study.datajpa.repository.support.QueryRegistry;
+import study.datajpa.repository.support.RepositoryWarmup;
+import study.datajpa.repository.support.RetryingTransactionExecutor;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@RestController
+@RequiredArgsConstructor
+public class MetricsController {
+
+    private final EntityManagerFactory emf;
+    private final RepositoryMetrics repositoryMetrics;
+    private final RetryingTransactionExecutor retryingTransactionExecutor;
+    private final ConnectionPoolMetrics connectionPoolMetrics;
+    private final ObjectProvider<ReplicaRouter> replicaRouter;  // datasource.routing.enabled=true 일 때만 있음
+    private final QueryRegistry queryRegistry;
+    private final OutboxRelay outboxRelay;
+    private final ObjectProvider<RepositoryWarmup> repositoryWarmup;  // repository.warmup.enabled=false 면 없음
+    private final ObjectProvider<RequestProfiles> requestProfiles;    // request.profiling.enabled=false 면 없음
+
+    // 2차 캐시 리전별 hit/miss (hibernate.generate_statistics 가 켜져 있어야 집계됨)
+    @GetMapping("/metrics/cache")
+    public List<CacheRegionStatsDto> cacheStats() {
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+
+        List<CacheRegionStatsDto> result = new ArrayList<>();
+        for (String regionName : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(regionName);
+            if (regionStatistics != null) {
+                result.add(new CacheRegionStatsDto(regionStatistics));
+            }
+        }
+
+        // 쿼리 캐시 리전은 위 목록에 안 나오므로 따로 추가
+        CacheRegionStatistics queryRegionStatistics =
+                statistics.getQueryRegionStatistics(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME);
+        if (queryRegionStatistics != null) {
+            result.add(new CacheRegionStatsDto(queryRegionStatistics));
+        }
+        return result;
+    }
+
+    // 레포지토리 메서드별 응답시간/SQL 수/row 수/N+1 (누적 응답시간 큰 순서, nPlusOne=true 면 N+1 의심 메서드만)
+    @GetMapping("/metrics/repositories")
+    public List<RepositoryMethodStatsDto> repositoryStats(@RequestParam(defaultValue = "false") boolean nPlusOne) {
+        return repositoryMetrics.snapshot().stream()
+                .filter(stats -> !nPlusOne || stats.getNPlusOneCalls() > 0)
+                .map(RepositoryMethodStatsDto::new)
+                .collect(Collectors.toList());
+    }
+
+    @DeleteMapping("/metrics/repositories")
+    public void resetRepositoryStats() {
+        repositoryMetrics.reset();
+    }
+
+    // 레플리카별 상태 (UP / LAGGING / DOWN, 복제 지연)
+    @GetMapping("/metrics/replicas")
+    public List<ReplicaRouter.ReplicaState> replicaStates() {
+        ReplicaRouter router = replicaRouter.getIfAvailable();
+        return router == null ? Collections.emptyList() : router.getStates();
+    }
+
+    // 낙관적 락 충돌/재시도 (작업별)
+    @GetMapping("/metrics/locking")
+    public List<LockingStatsDto> lockingStats() {
+        return retryingTransactionExecutor.getStats().stream()
+                .map(LockingStatsDto::new)
+                .collect(Collectors.toList());
+    }
+
+    // 커넥션 풀별 사용량/획득 대기시간 (풀 크기 조정용)
+    @GetMapping("/metrics/pool")
+    public List<ConnectionPoolStatsDto> poolStats() {
+        return connectionPoolMetrics.snapshot().stream()
+                .map(ConnectionPoolStatsDto::new)
+                .collect(Collectors.toList());
+    }
+
+    @DeleteMapping("/metrics/pool")
+    public void resetPoolStats() {
+        connectionPoolMetrics.reset();
+    }
+
+    // 이름 붙인 쿼리별 플랜 생성 시간 (기동할 때 측정, 긴 순서)
+    @GetMapping("/metrics/queries")
+    public List<QueryPlanStatsDto> queryStats() {
+        return queryRegistry.getPlans().stream()
+                .map(QueryPlanStatsDto::new)
+                .collect(Collectors.toList());
+    }
+
+    // 기동 워밍업 호출별 첫 호출/마지막 호출 시간
+    @GetMapping("/metrics/queries/warmup")
+    public List<WarmupStepDto> warmupStats() {
+        RepositoryWarmup warmup = repositoryWarmup.getIfAvailable();
+        return warmup == null ? Collections.emptyList() : warmup.getSteps().stream()
+                .map(WarmupStepDto::new)
+                .collect(Collectors.toList());
+    }
+
+    // outbox 릴레이 상태 (pending 이 계속 늘거나 oldestPendingAt 이 오래됐으면 싱크 장애/처리량 부족)
+    @GetMapping("/metrics/outbox")
+    public OutboxStatsDto outboxStats() {
+        return new OutboxStatsDto(outboxRelay);
+    }
+
+    // 라우트별 SQL 수, 로딩한 엔티티/컬렉션 수, flush/dirty check 시간, 2차 캐시 hit (누적 응답시간 큰 순서)
+    @GetMapping("/metrics/requests")
+    public List<RouteProfileStatsDto> requestStats() {
+        RequestProfiles profiles = requestProfiles.getIfAvailable();
+        return profiles == null ? Collections.emptyList() : profiles.snapshot().stream()
+                .map(RouteProfileStatsDto::new)
+                .collect(Collectors.toList());
+    }
+
+    // 느린 요청 샘플 (실행한 SQL 목록 포함, 최근 것부터)
+    @GetMapping("/metrics/requests/slow")
+    public List<SlowRequest> slowRequests() {
+        RequestProfiles profiles = requestProfiles.getIfAvailable();
+        return profiles == null ? Collections.emptyList() : profiles.getSlowRequests();
+    }
+
+    @DeleteMapping("/metrics/requests")
+    public void resetRequestStats() {
+        requestProfiles.ifAvailable(RequestProfiles::reset);
+    }
+}
@@ -0,0 +1,28 @@
+package study.datajpa.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.support.BatchingLoader;
+
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+@RequiredArgsConstructor
+public class TeamController {
+
+    private final BatchingLoader<Long, Team> teamLoader;
+
+    // MemberController.findMember 와 같이 동시에 들어온 요청들의 id 는 teamLoader 가 모아서 in 쿼리 한번으로 조회
+    @GetMapping("/team/{id}")
+    public CompletableFuture<String> findTeam(@PathVariable("id") Long id) {
+        return teamLoader.load(id)
+                .thenApply(team -> team
+                        .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "team " + id))
+                        .getName());
+    }
+}
@@ -0,0 +1,25 @@
+package study.datajpa.dto;
+
+import lombok.Data;
+import org.hibernate.stat.CacheRegionStatistics;
+
+@Data
+public class CacheRegionStatsDto {
+
+    private String region;
+    private long hitCount;
+    private long missCount;
+    private long putCount;
+
+    public CacheRegionStatsDto(CacheRegionStatistics statistics) {
+        this.region = statistics.getRegionName();
+        this.hitCount = statistics.getHitCount();
+        this.missCount = statistics.getMissCount();
+        this.putCount = statistics.getPutCount();
+    }
+
+    public double getHitRatio() {
+        long total = hitCount + missCount;
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+}
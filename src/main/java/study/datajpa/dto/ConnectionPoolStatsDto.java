@@ -0,0 +1,46 @@
+package study.datajpa.dto;
+
+import lombok.Data;
+import study.datajpa.monitoring.ConnectionPoolStats;
+
+@Data
+public class ConnectionPoolStatsDto {
+
+    private String pool;
+    // 현재 상태 (HikariCP 가 1초 단위로 갱신)
+    private int active;
+    private int idle;
+    private int pending;        // 커넥션을 기다리는 스레드 수
+    private int total;
+    private int max;
+    // 누적 (DELETE /metrics/pool 로 초기화)
+    private long acquired;
+    private double avgAcquireMillis;
+    private long p99AcquireMillis;
+    private double maxAcquireMillis;
+    private double avgUsageMillis;
+    private long maxUsageMillis;
+    private long timeouts;      // connection-timeout 안에 커넥션을 못 받은 횟수
+    private long created;
+    private long peakActive;    // 풀 크기를 정할 때 기준 (peakActive 가 max 에 붙어 있고 pending/대기시간이 크면 부족)
+    private long peakPending;
+
+    public ConnectionPoolStatsDto(ConnectionPoolStats stats) {
+        this.pool = stats.getPool();
+        this.active = stats.getActive();
+        this.idle = stats.getIdle();
+        this.pending = stats.getPending();
+        this.total = stats.getTotal();
+        this.max = stats.getMax();
+        this.acquired = stats.getAcquired();
+        this.avgAcquireMillis = stats.getAvgAcquireMillis();
+        this.p99AcquireMillis = stats.acquirePercentileMillis(0.99);
+        this.maxAcquireMillis = stats.getMaxAcquireMillis();
+        this.avgUsageMillis = stats.getAvgUsageMillis();
+        this.maxUsageMillis = stats.getMaxUsageMillis();
+        this.timeouts = stats.getTimeouts();
+        this.created = stats.getCreated();
+        this.peakActive = stats.getPeakActive();
+        this.peakPending = stats.getPeakPending();
+    }
+}
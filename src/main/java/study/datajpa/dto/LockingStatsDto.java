@@ -0,0 +1,32 @@
+package study.datajpa.dto;
+
+import lombok.Data;
+import study.datajpa.repository.support.LockingStats;
+
+@Data
+public class LockingStatsDto {
+
+    private String operation;
+    private long attempts;
+    private long successes;
+    private long conflicts;
+    private long staleStates;
+    private long exhausted;
+    private long backoffMillis;
+    private long maxAttemptsPerCall;
+
+    public LockingStatsDto(LockingStats stats) {
+        this.operation = stats.getOperation();
+        this.attempts = stats.getAttempts();
+        this.successes = stats.getSuccesses();
+        this.conflicts = stats.getConflicts();
+        this.staleStates = stats.getStaleStates();
+        this.exhausted = stats.getExhausted();
+        this.backoffMillis = stats.getBackoffMillis();
+        this.maxAttemptsPerCall = stats.getMaxAttemptsPerCall();
+    }
+
+    public double getConflictRatio() {
+        return attempts == 0 ? 0 : (double) conflicts / attempts;
+    }
+}
@@ -0,0 +1,24 @@
+package study.datajpa.dto;
+
+import lombok.Data;
+import study.datajpa.outbox.OutboxRelay;
+
+import java.time.LocalDateTime;
+
+@Data
+public class OutboxStatsDto {
+
+    private long pending;              // 아직 내보내지 않은 메시지 수
+    private long parked;               // 재시도를 다 써서 더 이상 보내지 않는 메시지 수 (0 이 아니면 확인 필요)
+    private LocalDateTime oldestPendingAt;
+    private long delivered;            // 기동 후 누적
+    private long failures;             // 싱크 전달 실패 (파티션/메시지 단위, 다음 폴링에서 재시도)
+
+    public OutboxStatsDto(OutboxRelay relay) {
+        this.pending = relay.getPending();
+        this.parked = relay.getParked();
+        this.oldestPendingAt = relay.getOldestPendingAt();
+        this.delivered = relay.getDelivered();
+        this.failures = relay.getFailures();
+    }
+}
@@ -0,0 +1,18 @@
+package study.datajpa.dto;
+
+import lombok.Data;
+import study.datajpa.repository.support.QueryRegistry;
+
+@Data
+public class QueryPlanStatsDto {
+
+    private String name;
+    private String query;
+    private double planMillis;  // JPQL 파싱 + SQL 변환 시간 (기동할 때 한번, 이후에는 플랜 캐시에서 꺼내 씀)
+
+    public QueryPlanStatsDto(QueryRegistry.QueryPlan plan) {
+        this.name = plan.getName();
+        this.query = plan.getQuery();
+        this.planMillis = plan.getPlanMillis();
+    }
+}
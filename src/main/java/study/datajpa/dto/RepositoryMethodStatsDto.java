@@ -0,0 +1,50 @@
+package study.datajpa.dto;
+
+import lombok.Data;
+import study.datajpa.monitoring.MethodStats;
+
+import java.util.concurrent.TimeUnit;
+
+@Data
+public class RepositoryMethodStatsDto {
+
+    private String method;
+    private long calls;
+    private long errors;
+    private double avgMillis;
+    private long p50Millis;
+    private long p95Millis;
+    private long p99Millis;
+    private double maxMillis;
+    private long[] histogram;           // 버킷별 호출 수 (상한 1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000ms, 그 이상)
+    private long statements;
+    private long statementsAfterReturn; // 호출이 끝난 뒤 실행된 SQL (지연 로딩)
+    private double avgStatementsPerCall;
+    private long maxStatementsPerCall;
+    private long rows;
+    private long nPlusOneCalls;         // 같은 select 가 반복된 호출 수
+    private String nPlusOneSample;
+
+    public RepositoryMethodStatsDto(MethodStats stats) {
+        this.method = stats.getMethod();
+        this.calls = stats.getCalls();
+        this.errors = stats.getErrors();
+        this.avgMillis = calls == 0 ? 0 : toMillis(stats.getTotalNanos()) / calls;
+        this.p50Millis = stats.percentileMillis(0.50);
+        this.p95Millis = stats.percentileMillis(0.95);
+        this.p99Millis = stats.percentileMillis(0.99);
+        this.maxMillis = toMillis(stats.getMaxNanos());
+        this.histogram = stats.getBuckets();
+        this.statements = stats.getStatements();
+        this.statementsAfterReturn = stats.getStatementsAfterReturn();
+        this.avgStatementsPerCall = calls == 0 ? 0 : (double) statements / calls;
+        this.maxStatementsPerCall = stats.getMaxStatementsPerCall();
+        this.rows = stats.getRows();
+        this.nPlusOneCalls = stats.getNPlusOneCalls();
+        this.nPlusOneSample = stats.getNPlusOneSample();
+    }
+
+    private static double toMillis(long nanos) {
+        return (double) nanos / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,56 @@
+package study.datajpa.dto;
+
+import lombok.Data;
+import study.datajpa.monitoring.RouteStats;
+
+import java.util.concurrent.TimeUnit;
+
+@Data
+public class RouteProfileStatsDto {
+
+    private String route;                   // HTTP 메서드 + 매핑 패턴
+    private long requests;
+    private long errors;                    // 5xx
+    private long slowRequests;              // 샘플은 /metrics/requests/slow
+    private double avgMillis;
+    private long p95Millis;
+    private double maxMillis;
+    private double avgStatements;
+    private long maxStatements;
+    private double sqlMillis;               // JDBC 실행 시간 합
+    private double avgEntitiesLoaded;       // 2차 캐시에서 가져온 것 포함
+    private long collectionsFetched;        // 지연 로딩으로 초기화한 컬렉션
+    private long flushes;                   // 커밋 + 쿼리 전 자동 flush
+    private double flushMillis;
+    private long dirtyChecks;
+    private double dirtyCheckMillis;
+    private long cacheHits;                 // 2차 캐시 (엔티티 + 쿼리 캐시)
+    private long cacheMisses;
+    private long cachePuts;
+
+    public RouteProfileStatsDto(RouteStats stats) {
+        this.route = stats.getRoute();
+        this.requests = stats.getRequests();
+        this.errors = stats.getErrors();
+        this.slowRequests = stats.getSlowRequests();
+        this.avgMillis = requests == 0 ? 0 : toMillis(stats.getTotalNanos()) / requests;
+        this.p95Millis = stats.percentileMillis(0.95);
+        this.maxMillis = toMillis(stats.getMaxNanos());
+        this.avgStatements = requests == 0 ? 0 : (double) stats.getStatements() / requests;
+        this.maxStatements = stats.getMaxStatementsPerRequest();
+        this.sqlMillis = toMillis(stats.getStatementNanos());
+        this.avgEntitiesLoaded = requests == 0 ? 0 : (double) stats.getEntitiesLoaded() / requests;
+        this.collectionsFetched = stats.getCollectionsFetched();
+        this.flushes = stats.getFlushes();
+        this.flushMillis = toMillis(stats.getFlushNanos());
+        this.dirtyChecks = stats.getDirtyChecks();
+        this.dirtyCheckMillis = toMillis(stats.getDirtyCheckNanos());
+        this.cacheHits = stats.getCacheHits();
+        this.cacheMisses = stats.getCacheMisses();
+        this.cachePuts = stats.getCachePuts();
+    }
+
+    private static double toMillis(long nanos) {
+        return (double) nanos / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,19 @@
+package study.datajpa.dto;
+
+import lombok.Data;
+
+@Data
+public class TeamSummaryDto {
+
+    private Long id;
+    private String name;
+    private int memberCount;
+    private double averageAge;
+
+    public TeamSummaryDto(Long id, String name, int memberCount, long ageSum) {
+        this.id = id;
+        this.name = name;
+        this.memberCount = memberCount;
+        this.averageAge = memberCount == 0 ? 0 : (double) ageSum / memberCount;
+    }
+}
@@ -0,0 +1,22 @@
+package study.datajpa.dto;
+
+import lombok.Data;
+import study.datajpa.repository.support.RepositoryWarmup;
+
+@Data
+public class WarmupStepDto {
+
+    private String name;
+    private int calls;
+    private double firstMillis;   // 콜드 상태 첫 호출
+    private double lastMillis;    // 워밍업 마지막 호출 (둘 차이가 워밍업으로 줄인 첫 요청 지연)
+    private String failure;
+
+    public WarmupStepDto(RepositoryWarmup.WarmupStep step) {
+        this.name = step.getName();
+        this.calls = step.getCalls();
+        this.firstMillis = step.getFirstNanos() / 1_000_000.0;
+        this.lastMillis = step.getLastNanos() / 1_000_000.0;
+        this.failure = step.getFailure();
+    }
+}
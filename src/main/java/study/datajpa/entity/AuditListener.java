@@ -0,0 +1,50 @@
+package study.datajpa.entity;
+
+import study.datajpa.auditing.CachedAuditorAware;
+import study.datajpa.auditing.CoarseClock;
+
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
+
+/**
+ * BaseTimeEntity/BaseEntity/JpaBaseEntity 의 등록일/수정일/등록자/수정자를 채우는 JPA 엔티티 리스너
+ * Spring Data AuditingEntityListener 는 엔티티마다 @CreatedDate 등이 붙은 필드를 찾아 리플렉션으로 값을 넣는데,
+ * 여기서는 필드가 정해진 베이스 클래스만 다루므로 타입 검사 후 바로 대입한다.
+ * 스프링 부트가 하이버네이트에 SpringBeanContainer 를 설정해주므로 생성자 주입이 가능하다. (@Component 붙이지 말 것)
+ */
+public class AuditListener {
+
+    private final CoarseClock clock;
+    private final CachedAuditorAware auditorAware;
+
+    public AuditListener(CoarseClock clock, CachedAuditorAware auditorAware) {
+        this.clock = clock;
+        this.auditorAware = auditorAware;
+    }
+
+    @PrePersist
+    public void prePersist(Object entity) {
+        if (entity instanceof BaseTimeEntity) {
+            ((BaseTimeEntity) entity).markCreated(clock.now());
+        }
+        if (entity instanceof BaseEntity) {
+            ((BaseEntity) entity).markCreatedBy(auditorAware.currentAuditor());
+        }
+        if (entity instanceof JpaBaseEntity) {
+            ((JpaBaseEntity) entity).markCreated(clock.now());
+        }
+    }
+
+    @PreUpdate
+    public void preUpdate(Object entity) {
+        if (entity instanceof BaseTimeEntity) {
+            ((BaseTimeEntity) entity).markModified(clock.now());
+        }
+        if (entity instanceof BaseEntity) {
+            ((BaseEntity) entity).markModifiedBy(auditorAware.currentAuditor());
+        }
+        if (entity instanceof JpaBaseEntity) {
+            ((JpaBaseEntity) entity).markUpdated(clock.now());
+        }
+    }
+}
@@ -1,26 +1,34 @@
 package study.datajpa.entity;
 
 import lombok.Getter;
-import org.springframework.data.annotation.CreatedBy;
-import org.springframework.data.annotation.CreatedDate;
-import org.springframework.data.annotation.LastModifiedBy;
-import org.springframework.data.annotation.LastModifiedDate;
-import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+import study.datajpa.entity.event.EntityChangeListener;
 
 import javax.persistence.Column;
 import javax.persistence.EntityListeners;
 import javax.persistence.MappedSuperclass;
-import java.time.LocalDateTime;
+import javax.persistence.Version;
 
-@EntityListeners(AuditingEntityListener.class)
+// 등록자/수정자는 AuditListener 가 채움 (BaseTimeEntity 에 붙은 리스너가 상속됨)
+@EntityListeners(EntityChangeListener.class)
 @MappedSuperclass
 @Getter
 public class BaseEntity extends BaseTimeEntity{
 
-    @CreatedBy
     @Column(updatable = false)
     private String createdBy;
 
-    @LastModifiedBy
     private String lastModifiedBy;
+
+    // 낙관적 락: update 시 where version = ? 로 확인하고 1 증가 (다른 트랜잭션이 먼저 바꿨으면 OptimisticLockException)
+    @Version
+    private Long version;
+
+    void markCreatedBy(String auditor) {
+        createdBy = auditor;
+        lastModifiedBy = auditor;
+    }
+
+    void markModifiedBy(String auditor) {
+        lastModifiedBy = auditor;
+    }
 }
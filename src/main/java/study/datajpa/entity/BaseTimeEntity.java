@@ -1,25 +1,38 @@
 package study.datajpa.entity;
 
 import lombok.Getter;
-import org.springframework.data.annotation.CreatedDate;
-import org.springframework.data.annotation.LastModifiedDate;
-import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import javax.persistence.Column;
 import javax.persistence.EntityListeners;
 import javax.persistence.MappedSuperclass;
 import java.time.LocalDateTime;
 
-@EntityListeners(AuditingEntityListener.class)
+// 등록일/수정일은 AuditListener 가 채움 (AuditingEntityListener + @CreatedDate/@LastModifiedDate 와 같은 동작)
+@EntityListeners(AuditListener.class)
 @MappedSuperclass
 @Getter
 public class BaseTimeEntity {
 
-    @CreatedDate
     @Column(updatable = false)
     private LocalDateTime createdDate;
 
-    @LastModifiedDate
     private LocalDateTime lastModifiedDate;
 
+    /**
+     * Persistable.isNew 용: 등록일은 persist 할 때 AuditListener 가 채우므로 없으면 아직 저장 안 된 엔티티
+     * (id 유무로 판단하지 않으므로 id 를 직접 할당해도 save 가 merge 하지 않음)
+     * DB 에 직접 insert 한 행은 created_date 를 반드시 채울 것 (null 이면 새 엔티티로 보고 다시 insert 함)
+     */
+    public boolean isNew() {
+        return createdDate == null;
+    }
+
+    void markCreated(LocalDateTime now) {
+        createdDate = now;
+        lastModifiedDate = now;
+    }
+
+    void markModified(LocalDateTime now) {
+        lastModifiedDate = now;
+    }
 }
@@ -1,15 +1,27 @@
 package study.datajpa.entity;
 
+import lombok.AccessLevel;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
 
 import javax.persistence.Entity;
-import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
 
+/**
+ * id 를 직접 할당하는 엔티티 (UUID, 외부 시스템 키 등)
+ * id 가 처음부터 있으므로 SimpleJpaRepository.save 가 새 엔티티인지 id 로 판단하지 못하고 merge(select + insert) 한다.
+ * Persistable.isNew 를 등록일(createdDate)로 판단하게 해서 persist(insert 한번)로 저장되게 한다.
+ */
 @Entity
 @Getter
-public class Item {
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class Item extends BaseTimeEntity implements Persistable<String> {
 
-    @Id @GeneratedValue
-    private Long id;
+    @Id
+    private String id;
+
+    public Item(String id) {
+        this.id = id;
+    }
 }
@@ -1,11 +1,12 @@
 package study.datajpa.entity;
 
 import javax.persistence.Column;
+import javax.persistence.EntityListeners;
 import javax.persistence.MappedSuperclass;
-import javax.persistence.PrePersist;
-import javax.persistence.PreUpdate;
 import java.time.LocalDateTime;
 
+// 순수 JPA 버전: 예전에는 @PrePersist/@PreUpdate 에서 LocalDateTime.now() 를 직접 호출했는데, 지금은 AuditListener 의 공용 시계를 씀
+@EntityListeners(AuditListener.class)
 @MappedSuperclass
 public class JpaBaseEntity {
 
@@ -13,15 +14,12 @@ public class JpaBaseEntity {
     private LocalDateTime createdDate;
     private LocalDateTime updatedDate;
 
-    @PrePersist
-    public void prePersist() {
-        LocalDateTime now = LocalDateTime.now();
+    void markCreated(LocalDateTime now) {
         createdDate = now;
         updatedDate = now;
     }
 
-    @PreUpdate
-    public void preUpdate() {
-        updatedDate = LocalDateTime.now();
+    void markUpdated(LocalDateTime now) {
+        updatedDate = now;
     }
 }
@@ -1,16 +1,44 @@
 package study.datajpa.entity;
 
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.springframework.data.domain.Persistable;
 
 import javax.persistence.*;
 
 @Entity
+@EntityListeners(TeamAggregateListener.class)  // Team.memberCount/ageSum 유지
+// MemberJpaRepository 등에서 쓰는 JPQL (기동할 때 하이버네이트가 검증/컴파일, QueryRegistry 참고)
+// 이름을 "Member.메서드명" 으로 지으면 스프링 데이터가 MemberRepository 의 같은 이름 메서드에 가져다 쓰므로 피할 것
+@NamedQueries({
+        @NamedQuery(name = "Member.all", query = "select m from Member m"),
+        @NamedQuery(name = "Member.countAll", query = "select count(m) from Member m"),
+        @NamedQuery(name = "Member.byUsernameAndAgeGreaterThan",
+                query = "select m from Member m where m.username = :username and m.age > :age"),
+        @NamedQuery(name = "Member.byAgeOrderByUsernameDesc",
+                query = "select m from Member m where m.age = :age order by m.username desc"),
+        @NamedQuery(name = "Member.byAgeSeekFirst",
+                query = "select m from Member m where m.age = :age order by m.username desc, m.id desc"),
+        @NamedQuery(name = "Member.byAgeSeekAfter",
+                query = "select m from Member m where m.age = :age" +
+                        " and (m.username < :username or (m.username = :username and m.id < :id))" +
+                        " order by m.username desc, m.id desc"),
+        @NamedQuery(name = "Member.countByAge", query = "select count(m) from Member m where m.age = :age"),
+        @NamedQuery(name = "Member.agePlusOneFrom", query = "update Member m set m.age = m.age + 1 where m.age >= :age")
+})
+@NamedEntityGraph(name = "Member.team", attributeNodes = @NamedAttributeNode("team"))
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "member")  // 2차 캐시
+@Table(indexes = @Index(name = "idx_member_age_username", columnList = "age, username"))  // findByAge + username 정렬 keyset 페이징용
 @Getter @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @ToString(of = {"id", "username", "age"})   // Team과같은 연관관계 field는 toString() X!!!
-public class Member extends BaseEntity{
+public class Member extends BaseEntity implements Persistable<Long> {
 
-    @Id @GeneratedValue
+    // 시퀀스를 50개씩 미리 할당(pooled)해서 insert 마다 시퀀스 조회 X, JDBC 배치 insert 가능
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "member_seq_generator")
+    @SequenceGenerator(name = "member_seq_generator", sequenceName = "member_seq", allocationSize = 50)
     @Column(name = "member_id")
     private Long id;
     private String username;
@@ -20,6 +48,14 @@ public class Member extends BaseEntity{
     @JoinColumn(name = "team_id")  // 1:N 관계에서는 N쪽에 외래키 걸어줌
     private Team team;
 
+    // 마지막으로 DB 에 반영된(조회/flush) 소속 팀과 나이 (TeamAggregateListener 가 변경분 계산에 사용)
+    @Transient
+    @Getter(AccessLevel.PACKAGE) @Setter(AccessLevel.NONE)
+    private Long flushedTeamId;
+    @Transient
+    @Getter(AccessLevel.PACKAGE) @Setter(AccessLevel.NONE)
+    private int flushedAge;
+
     // 생성자
     public Member(String username) {
         this.username = username;
@@ -45,4 +81,14 @@ public class Member extends BaseEntity{
         this.team = team;
         team.getMembers().add(this); // 내 것만 바꾸는 것이 아니라, Team에 가서도 add 해줘야함
     }
+
+    void markFlushedTeamState() {
+        flushedTeamId = currentTeamId();
+        flushedAge = age;
+    }
+
+    // team 이 지연 로딩 프록시여도 id 는 초기화 없이 꺼낼 수 있음
+    Long currentTeamId() {
+        return team == null ? null : team.getId();
+    }
 }
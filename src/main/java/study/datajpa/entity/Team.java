@@ -1,26 +1,56 @@
 package study.datajpa.entity;
 
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.OptimisticLock;
+import org.springframework.data.domain.Persistable;
 
 import javax.persistence.*;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@BatchSize(size = 100)  // 지연로딩된 Team 프록시들을 초기화할 때 in 쿼리로 100개씩 한번에
+@NamedQueries({
+        @NamedQuery(name = "Team.all", query = "select t from Team t"),
+        @NamedQuery(name = "Team.countAll", query = "select count(t) from Team t")
+})
+@NamedEntityGraph(name = "Team.members", attributeNodes = @NamedAttributeNode("members"))
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "team")  // 2차 캐시
 @Getter @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @ToString(of = {"id", "name"})
-public class Team extends BaseEntity{
+public class Team extends BaseEntity implements Persistable<Long> {
 
-    @Id @GeneratedValue
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "team_seq_generator")
+    @SequenceGenerator(name = "team_seq_generator", sequenceName = "team_seq", allocationSize = 50)
     @Column(name = "team_id")
     private Long id;
     private String name;
 
     @OneToMany(mappedBy = "team")  // foreign 키 없는쪽에 mapped by 걸어줌
+    @BatchSize(size = 100)  // 여러 Team 의 members 를 건드릴 때 team 마다 쿼리 X, in 쿼리로 100개씩
+    @OptimisticLock(excluded = true)  // 멤버가 들어오고 나갈 때마다 Team version 이 올라가서 충돌나지 않도록
     private List<Member> members = new ArrayList<>();
 
+    // 소속 회원 수/나이 합: members 를 로딩하거나 count 하지 않고 바로 읽기 위한 집계 (TeamAggregates 가 DB 에서 직접 증감)
+    // 엔티티로는 insert/update 하지 않음 → 같은 트랜잭션에서 회원을 바꿨다면 이 값은 갱신 전 값
+    @Column(insertable = false, updatable = false, columnDefinition = "integer default 0 not null")
+    @Setter(AccessLevel.NONE)
+    private int memberCount;
+
+    @Column(insertable = false, updatable = false, columnDefinition = "bigint default 0 not null")
+    @Setter(AccessLevel.NONE)
+    private long ageSum;
+
     public Team(String name) {
         this.name = name;
     }
+
+    public double getAverageAge() {
+        return memberCount == 0 ? 0 : (double) ageSum / memberCount;
+    }
 }
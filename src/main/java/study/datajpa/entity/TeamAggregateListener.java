@@ -0,0 +1,53 @@
+package study.datajpa.entity;
+
+import org.springframework.beans.factory.ObjectProvider;
+import study.datajpa.repository.support.TeamAggregates;
+
+import javax.persistence.PostLoad;
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+import java.util.Objects;
+
+/**
+ * Member 의 소속 팀/나이 변경을 TeamAggregates 에 전달하는 JPA 엔티티 리스너
+ * DB 에 반영된 (teamId, age) 를 Member 에 기록해두고 flush 때마다 차이만 넘긴다.
+ * TeamAggregates 는 EntityManagerFactory 를 쓰므로 순환 참조가 되지 않게 ObjectProvider 로 받음 (@Component 붙이지 말 것)
+ */
+public class TeamAggregateListener {
+
+    private final ObjectProvider<TeamAggregates> teamAggregates;
+
+    public TeamAggregateListener(ObjectProvider<TeamAggregates> teamAggregates) {
+        this.teamAggregates = teamAggregates;
+    }
+
+    @PostLoad
+    public void postLoad(Member member) {
+        member.markFlushedTeamState();
+    }
+
+    @PostPersist
+    public void postPersist(Member member) {
+        teamAggregates.getObject().memberJoined(member.currentTeamId(), member.getAge());
+        member.markFlushedTeamState();
+    }
+
+    @PostUpdate
+    public void postUpdate(Member member) {
+        TeamAggregates aggregates = teamAggregates.getObject();
+        Long teamId = member.currentTeamId();
+        if (!Objects.equals(member.getFlushedTeamId(), teamId)) {
+            aggregates.memberLeft(member.getFlushedTeamId(), member.getFlushedAge());
+            aggregates.memberJoined(teamId, member.getAge());
+        } else {
+            aggregates.ageChanged(teamId, member.getAge() - member.getFlushedAge());
+        }
+        member.markFlushedTeamState();
+    }
+
+    @PostRemove
+    public void postRemove(Member member) {
+        teamAggregates.getObject().memberLeft(member.getFlushedTeamId(), member.getFlushedAge());
+    }
+}
@@ -0,0 +1,20 @@
+package study.datajpa.entity.event;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 벌크성 쿼리(update, delete) 실행 이벤트
+ * 벌크 연산은 영속성 컨텍스트와 JPA 콜백을 거치지 않으므로 어떤 엔티티가 바뀌었는지 모른다.
+ * 그래서 엔티티 타입 단위로만 알려준다.
+ */
+@Getter
+@ToString
+public class BulkUpdatedEvent {
+
+    private final Class<?> entityType;
+
+    public BulkUpdatedEvent(Class<?> entityType) {
+        this.entityType = entityType;
+    }
+}
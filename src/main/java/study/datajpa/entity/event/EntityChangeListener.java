@@ -0,0 +1,37 @@
+package study.datajpa.entity.event;
+
+import org.springframework.context.ApplicationEventPublisher;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+import static study.datajpa.entity.event.EntityChangedEvent.ChangeType.*;
+
+/**
+ * 엔티티 변경을 스프링 이벤트(EntityChangedEvent)로 전달하는 JPA 엔티티 리스너
+ * 스프링 부트가 하이버네이트에 SpringBeanContainer 를 설정해주므로 생성자 주입이 가능하다. (@Component 붙이지 말 것)
+ */
+public class EntityChangeListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public EntityChangeListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    public void postPersist(Object entity) {
+        eventPublisher.publishEvent(new EntityChangedEvent(entity, CREATED));
+    }
+
+    @PostUpdate
+    public void postUpdate(Object entity) {
+        eventPublisher.publishEvent(new EntityChangedEvent(entity, UPDATED));
+    }
+
+    @PostRemove
+    public void postRemove(Object entity) {
+        eventPublisher.publishEvent(new EntityChangedEvent(entity, DELETED));
+    }
+}
@@ -0,0 +1,30 @@
+package study.datajpa.entity.event;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 엔티티 단건 변경(persist, update, remove) 이벤트
+ * EntityChangeListener 가 JPA 콜백 시점에 발행한다. (트랜잭션 커밋 전이므로 커밋 여부는 보장 X)
+ */
+@Getter
+@ToString(of = {"entityType", "changeType"})
+public class EntityChangedEvent {
+
+    public enum ChangeType {
+        CREATED, UPDATED, DELETED,
+        BULK_UPDATED  // 벌크 연산 표시 (BulkUpdatedEvent, outbox 에서만 사용하고 aggregateId 가 없음)
+    }
+
+    private final Object entity;
+    private final ChangeType changeType;
+
+    public EntityChangedEvent(Object entity, ChangeType changeType) {
+        this.entity = entity;
+        this.changeType = changeType;
+    }
+
+    public Class<?> getEntityType() {
+        return entity.getClass();
+    }
+}
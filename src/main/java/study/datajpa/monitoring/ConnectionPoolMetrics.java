@@ -0,0 +1,53 @@
+package study.datajpa.monitoring;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * HikariCP 풀별 지표 수집 (/metrics/pool)
+ * HikariDataSource 빈은 풀이 시작되기 전에(빈 초기화 시점) 자동으로 등록하고,
+ * 빈이 아닌 풀(레플리카 라우팅의 프라이머리/레플리카)은 register 로 직접 등록한다.
+ */
+@Component
+public class ConnectionPoolMetrics implements MetricsTrackerFactory, BeanPostProcessor {
+
+    private final ConcurrentMap<String, ConnectionPoolStats> pools = new ConcurrentHashMap<>();
+
+    public void register(HikariDataSource dataSource) {
+        if (dataSource.getMetricsTrackerFactory() == null && dataSource.getMetricRegistry() == null) {
+            dataSource.setMetricsTrackerFactory(this);
+        }
+    }
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        ConnectionPoolStats stats = new ConnectionPoolStats(poolName, poolStats);
+        pools.put(poolName, stats);
+        return stats;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof HikariDataSource) {
+            register((HikariDataSource) bean);
+        }
+        return bean;
+    }
+
+    public List<ConnectionPoolStats> snapshot() {
+        return new ArrayList<>(pools.values());
+    }
+
+    public void reset() {
+        pools.values().forEach(ConnectionPoolStats::reset);
+    }
+}
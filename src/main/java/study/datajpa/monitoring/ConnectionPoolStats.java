@@ -0,0 +1,147 @@
+package study.datajpa.monitoring;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.PoolStats;
+import lombok.Getter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 커넥션 풀 하나의 누적 지표 (HikariCP 가 커넥션을 빌려주고 돌려받을 때마다 호출)
+ * - 획득 대기시간: getConnection() 에서 커넥션을 받기까지 (풀이 모자라면 길어짐)
+ * - 사용시간: 빌려간 뒤 반납까지 (트랜잭션 길이)
+ * 대기시간 백분위는 MethodStats 와 같은 버킷으로 근사
+ */
+public class ConnectionPoolStats implements IMetricsTracker {
+
+    @Getter
+    private final String pool;
+    private final PoolStats poolStats;
+
+    private final LongAdder acquired = new LongAdder();
+    private final LongAdder acquireNanos = new LongAdder();
+    private final LongAccumulator maxAcquireNanos = new LongAccumulator(Long::max, 0);
+    private final AtomicLongArray acquireBuckets = new AtomicLongArray(MethodStats.BUCKET_BOUNDS_MILLIS.length + 1);
+    private final LongAdder usageMillis = new LongAdder();
+    private final LongAccumulator maxUsageMillis = new LongAccumulator(Long::max, 0);
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder created = new LongAdder();
+    private final LongAccumulator peakActive = new LongAccumulator(Long::max, 0);
+    private final LongAccumulator peakPending = new LongAccumulator(Long::max, 0);
+
+    ConnectionPoolStats(String pool, PoolStats poolStats) {
+        this.pool = pool;
+        this.poolStats = poolStats;
+    }
+
+    @Override
+    public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+        created.increment();
+    }
+
+    @Override
+    public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+        acquired.increment();
+        acquireNanos.add(elapsedAcquiredNanos);
+        maxAcquireNanos.accumulate(elapsedAcquiredNanos);
+        acquireBuckets.incrementAndGet(MethodStats.bucketIndex(TimeUnit.NANOSECONDS.toMillis(elapsedAcquiredNanos)));
+        // 동시에 몇 개까지 썼는지 (풀 크기를 정할 때 기준), PoolStats 는 1초 단위로 갱신됨
+        peakActive.accumulate(poolStats.getActiveConnections());
+        peakPending.accumulate(poolStats.getPendingThreads());
+    }
+
+    @Override
+    public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+        usageMillis.add(elapsedBorrowedMillis);
+        maxUsageMillis.accumulate(elapsedBorrowedMillis);
+    }
+
+    @Override
+    public void recordConnectionTimeout() {
+        timeouts.increment();
+    }
+
+    public int getActive() {
+        return poolStats.getActiveConnections();
+    }
+
+    public int getIdle() {
+        return poolStats.getIdleConnections();
+    }
+
+    public int getPending() {
+        return poolStats.getPendingThreads();
+    }
+
+    public int getTotal() {
+        return poolStats.getTotalConnections();
+    }
+
+    public int getMax() {
+        return poolStats.getMaxConnections();
+    }
+
+    public long getAcquired() {
+        return acquired.sum();
+    }
+
+    public double getAvgAcquireMillis() {
+        long count = acquired.sum();
+        return count == 0 ? 0 : acquireNanos.sum() / 1_000_000.0 / count;
+    }
+
+    public double getMaxAcquireMillis() {
+        return maxAcquireNanos.get() / 1_000_000.0;
+    }
+
+    public long acquirePercentileMillis(double percentile) {
+        long[] counts = new long[acquireBuckets.length()];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = acquireBuckets.get(i);
+        }
+        return MethodStats.percentileMillis(counts, percentile, TimeUnit.NANOSECONDS.toMillis(maxAcquireNanos.get()));
+    }
+
+    public double getAvgUsageMillis() {
+        long count = acquired.sum();
+        return count == 0 ? 0 : (double) usageMillis.sum() / count;
+    }
+
+    public long getMaxUsageMillis() {
+        return maxUsageMillis.get();
+    }
+
+    public long getTimeouts() {
+        return timeouts.sum();
+    }
+
+    public long getCreated() {
+        return created.sum();
+    }
+
+    public long getPeakActive() {
+        return peakActive.get();
+    }
+
+    public long getPeakPending() {
+        return peakPending.get();
+    }
+
+    void reset() {
+        acquired.reset();
+        acquireNanos.reset();
+        maxAcquireNanos.reset();
+        for (int i = 0; i < acquireBuckets.length(); i++) {
+            acquireBuckets.set(i, 0);
+        }
+        usageMillis.reset();
+        maxUsageMillis.reset();
+        timeouts.reset();
+        created.reset();
+        peakActive.reset();
+        peakPending.reset();
+    }
+}
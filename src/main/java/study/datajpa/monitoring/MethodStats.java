@@ -0,0 +1,152 @@
+package study.datajpa.monitoring;
+
+import lombok.Getter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 레포지토리 메서드 하나의 누적 지표
+ * 응답시간은 고정 버킷 히스토그램으로 모아서 백분위는 버킷 상한값으로 근사한다.
+ */
+public class MethodStats {
+
+    // 버킷 상한 (ms), 마지막 버킷은 그 이상 전부
+    static final long[] BUCKET_BOUNDS_MILLIS = {1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000};
+
+    @Getter
+    private final String method;
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Long::max, 0);
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_BOUNDS_MILLIS.length + 1);
+
+    private final LongAdder statements = new LongAdder();
+    private final LongAdder statementsAfterReturn = new LongAdder();
+    private final LongAccumulator maxStatementsPerCall = new LongAccumulator(Long::max, 0);
+    private final LongAdder rows = new LongAdder();
+
+    private final LongAdder nPlusOneCalls = new LongAdder();
+    private final AtomicReference<String> nPlusOneSample = new AtomicReference<>();
+
+    MethodStats(String method) {
+        this.method = method;
+    }
+
+    void recordCall(long elapsedNanos, boolean failed) {
+        calls.increment();
+        if (failed) {
+            errors.increment();
+        }
+        totalNanos.add(elapsedNanos);
+        maxNanos.accumulate(elapsedNanos);
+        buckets.incrementAndGet(bucketIndex(TimeUnit.NANOSECONDS.toMillis(elapsedNanos)));
+    }
+
+    void recordStatement(int statementsInCall, boolean afterReturn) {
+        statements.increment();
+        if (afterReturn) {
+            statementsAfterReturn.increment();
+        }
+        maxStatementsPerCall.accumulate(statementsInCall);
+    }
+
+    void recordRow() {
+        rows.increment();
+    }
+
+    void recordNPlusOne(String sql) {
+        nPlusOneCalls.increment();
+        nPlusOneSample.compareAndSet(null, sql);
+    }
+
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    public long getStatements() {
+        return statements.sum();
+    }
+
+    public long getStatementsAfterReturn() {
+        return statementsAfterReturn.sum();
+    }
+
+    public long getMaxStatementsPerCall() {
+        return maxStatementsPerCall.get();
+    }
+
+    public long getRows() {
+        return rows.sum();
+    }
+
+    public long getNPlusOneCalls() {
+        return nPlusOneCalls.sum();
+    }
+
+    public String getNPlusOneSample() {
+        return nPlusOneSample.get();
+    }
+
+    public long[] getBuckets() {
+        long[] result = new long[buckets.length()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = buckets.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * 백분위 응답시간 근사치 (ms), 해당 버킷의 상한값 (마지막 버킷이면 최대값)
+     */
+    public long percentileMillis(double percentile) {
+        return percentileMillis(getBuckets(), percentile, TimeUnit.NANOSECONDS.toMillis(getMaxNanos()));
+    }
+
+    // ConnectionPoolStats 와 같이 사용
+    static long percentileMillis(long[] counts, double percentile, long maxMillis) {
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long rank = (long) Math.ceil(total * percentile);
+        long cumulative = 0;
+        for (int i = 0; i < BUCKET_BOUNDS_MILLIS.length; i++) {
+            cumulative += counts[i];
+            if (cumulative >= rank) {
+                return BUCKET_BOUNDS_MILLIS[i];
+            }
+        }
+        return maxMillis;
+    }
+
+    static int bucketIndex(long millis) {
+        for (int i = 0; i < BUCKET_BOUNDS_MILLIS.length; i++) {
+            if (millis < BUCKET_BOUNDS_MILLIS[i]) {
+                return i;
+            }
+        }
+        return BUCKET_BOUNDS_MILLIS.length;
+    }
+}
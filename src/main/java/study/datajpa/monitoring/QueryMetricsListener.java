@@ -0,0 +1,48 @@
+package study.datajpa.monitoring;
+
+import com.p6spy.engine.common.ResultSetInformation;
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+
+/**
+ * p6spy 이벤트로 SQL 실행/조회 row 를 현재 레포지토리 호출에 기록
+ * (p6spy-spring-boot-starter 가 JdbcEventListener 빈을 자동으로 등록해준다)
+ * 레포지토리 호출과 상관없는 SQL (직접 EntityManager 사용 등, 앞선 호출이 없는 경우)은 집계하지 않는다.
+ */
+@Component
+@ConditionalOnProperty(name = "repository.metrics.enabled", havingValue = "true", matchIfMissing = true)
+public class QueryMetricsListener extends SimpleJdbcEventListener {
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+        RepositoryCall active = RepositoryCallContext.active();
+        if (active != null) {
+            active.onStatement(statementInformation.getSql(), false);
+            return;
+        }
+
+        RepositoryCall last = RepositoryCallContext.last();
+        if (last != null) {
+            last.onStatement(statementInformation.getSql(), true);
+        }
+    }
+
+    @Override
+    public void onAfterResultSetNext(ResultSetInformation resultSetInformation, long timeElapsedNanos,
+                                     boolean hasNext, SQLException e) {
+        if (!hasNext) {
+            return;
+        }
+        RepositoryCall call = RepositoryCallContext.active();
+        if (call == null) {
+            call = RepositoryCallContext.last();
+        }
+        if (call != null) {
+            call.onRow();
+        }
+    }
+}
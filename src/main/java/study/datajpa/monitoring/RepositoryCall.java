@@ -0,0 +1,53 @@
+package study.datajpa.monitoring;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 레포지토리 메서드 호출 1번에 대한 집계 상태
+ * 호출이 끝난 뒤에 실행된 SQL(지연 로딩 등)도 같은 호출로 계속 더해진다.
+ */
+class RepositoryCall {
+
+    private static final int MAX_DISTINCT_SQL = 256;  // 호출 하나에서 반복 횟수를 셀 select 종류 (넘는 새 SQL 은 세지 않음)
+
+    private final MethodStats stats;
+    private final int nPlusOneThreshold;
+
+    private final Map<String, Integer> sqlCounts = new HashMap<>();
+    private int statements;
+    private boolean nPlusOne;
+
+    RepositoryCall(MethodStats stats, int nPlusOneThreshold) {
+        this.stats = stats;
+        this.nPlusOneThreshold = nPlusOneThreshold;
+    }
+
+    MethodStats getStats() {
+        return stats;
+    }
+
+    void onStatement(String sql, boolean afterReturn) {
+        statements++;
+        stats.recordStatement(statements, afterReturn);
+
+        // 같은 select 가 한 호출 안에서 threshold 번 이상 반복되면 N+1 로 판단 (호출당 한번만 센다)
+        String normalized = normalize(sql);
+        if (normalized.startsWith("select")
+                && (sqlCounts.size() < MAX_DISTINCT_SQL || sqlCounts.containsKey(normalized))) {
+            int count = sqlCounts.merge(normalized, 1, Integer::sum);
+            if (!nPlusOne && count >= nPlusOneThreshold) {
+                nPlusOne = true;
+                stats.recordNPlusOne(normalized);
+            }
+        }
+    }
+
+    void onRow() {
+        stats.recordRow();
+    }
+
+    private static String normalize(String sql) {
+        return sql == null ? "" : sql.trim().replaceAll("\\s+", " ").toLowerCase();
+    }
+}
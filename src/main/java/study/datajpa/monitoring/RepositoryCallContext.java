@@ -0,0 +1,91 @@
+package study.datajpa.monitoring;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * 현재 스레드에서 진행중인 레포지토리 호출 추적 (ThreadLocal)
+ * - 진행중인 호출이 있으면 SQL 은 가장 안쪽 호출로 집계
+ * - 없으면 마지막으로 끝난 호출로 집계 (반환된 엔티티의 지연 로딩 = N+1 의 대부분)
+ * 마지막 호출은 다음 최상위 호출이 시작될 때, 또는 그 호출의 트랜잭션이 끝날 때 비운다. (지연 로딩할 세션이 없음)
+ * 웹 요청은 open-in-view 로 트랜잭션 뒤에도 지연 로딩하므로 요청이 끝날 때 RepositoryCallContextFilter 가 비운다.
+ */
+final class RepositoryCallContext {
+
+    private static final String TRANSACTION_SCOPE = RepositoryCallContext.class.getName() + ".TRANSACTION_SCOPE";
+
+    private static final ThreadLocal<Deque<RepositoryCall>> ACTIVE = ThreadLocal.withInitial(ArrayDeque::new);
+    private static final ThreadLocal<RepositoryCall> LAST = new ThreadLocal<>();
+    private static final ThreadLocal<Object> LAST_SCOPE = new ThreadLocal<>();  // LAST 가 끝난 트랜잭션
+
+    private RepositoryCallContext() {
+    }
+
+    static void begin(RepositoryCall call) {
+        Deque<RepositoryCall> active = ACTIVE.get();
+        if (active.isEmpty()) {
+            clearLast();  // 새 최상위 호출부터는 이전 호출의 지연 로딩이 아님
+        }
+        active.push(call);
+    }
+
+    static void end(RepositoryCall call) {
+        Deque<RepositoryCall> active = ACTIVE.get();
+        active.remove(call);
+        if (!active.isEmpty()) {
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            LAST.set(call);
+            LAST_SCOPE.set(transactionScope());
+        } else if (RequestContextHolder.getRequestAttributes() != null) {
+            LAST.set(call);
+            LAST_SCOPE.remove();
+        } else {
+            clearLast();  // 트랜잭션도 요청도 없으면 세션이 이미 닫혀서 지연 로딩이 없음
+        }
+    }
+
+    static RepositoryCall active() {
+        return ACTIVE.get().peek();
+    }
+
+    static RepositoryCall last() {
+        return LAST.get();
+    }
+
+    static void clear() {
+        ACTIVE.remove();
+        clearLast();
+    }
+
+    private static void clearLast() {
+        LAST.remove();
+        LAST_SCOPE.remove();
+    }
+
+    // 트랜잭션마다 하나, 끝나면 그 트랜잭션에서 끝난 마지막 호출을 비움 (호출마다 synchronization 을 등록하지 않도록)
+    private static Object transactionScope() {
+        Object scope = TransactionSynchronizationManager.getResource(TRANSACTION_SCOPE);
+        if (scope != null) {
+            return scope;
+        }
+        Object newScope = new Object();
+        TransactionSynchronizationManager.bindResource(TRANSACTION_SCOPE, newScope);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(TRANSACTION_SCOPE);
+                if (LAST_SCOPE.get() == newScope && RequestContextHolder.getRequestAttributes() == null) {
+                    clearLast();
+                }
+            }
+        });
+        return newScope;
+    }
+}
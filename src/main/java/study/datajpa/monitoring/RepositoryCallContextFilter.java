@@ -0,0 +1,30 @@
+package study.datajpa.monitoring;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * 요청이 끝나면 레포지토리 호출 추적 정보를 비움
+ * (open-in-view 지연 로딩 때문에 요청 중에는 트랜잭션이 끝나도 마지막 호출을 남겨두므로, 안 비우면 다음 요청의 SQL 이 이전 요청의 호출로 집계됨)
+ */
+@Component
+@ConditionalOnProperty(name = "repository.metrics.enabled", havingValue = "true", matchIfMissing = true)
+public class RepositoryCallContextFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RepositoryCallContext.clear();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package study.datajpa.monitoring;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 레포지토리 메서드별 지표 저장소 (응답시간, 호출당 SQL 수, 조회 row 수, N+1 의심 호출)
+ * RepositoryMetricsAspect 가 호출을, QueryMetricsListener(p6spy) 가 SQL 실행을 기록한다.
+ */
+@Component
+public class RepositoryMetrics {
+
+    private final int nPlusOneThreshold;
+    private final ConcurrentMap<String, MethodStats> stats = new ConcurrentHashMap<>();
+
+    public RepositoryMetrics(@Value("${repository.metrics.n-plus-one-threshold:5}") int nPlusOneThreshold) {
+        this.nPlusOneThreshold = nPlusOneThreshold;
+    }
+
+    RepositoryCall newCall(String method) {
+        return new RepositoryCall(stats.computeIfAbsent(method, MethodStats::new), nPlusOneThreshold);
+    }
+
+    public MethodStats get(String method) {
+        return stats.get(method);
+    }
+
+    // 누적 응답시간이 큰 순서
+    public List<MethodStats> snapshot() {
+        List<MethodStats> result = new ArrayList<>(stats.values());
+        result.sort(Comparator.comparingLong(MethodStats::getTotalNanos).reversed());
+        return result;
+    }
+
+    public void reset() {
+        stats.clear();
+    }
+}
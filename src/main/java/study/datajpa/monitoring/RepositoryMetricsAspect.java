@@ -0,0 +1,66 @@
+package study.datajpa.monitoring;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import study.datajpa.repository.ItemRepository;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Member/Team/Item 레포지토리 호출마다 응답시간을 재고, 호출 중에 실행된 SQL 을 그 호출로 묶는다.
+ * JpaRepository 에서 상속받은 메서드(findAll, save ...)도 "MemberRepository.findAll" 처럼 레포지토리 이름으로 집계
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "repository.metrics.enabled", havingValue = "true", matchIfMissing = true)
+public class RepositoryMetricsAspect {
+
+    private static final List<Class<?>> REPOSITORIES =
+            Arrays.asList(MemberRepository.class, TeamRepository.class, ItemRepository.class);
+
+    private final RepositoryMetrics metrics;
+    private final Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+
+    @Around("(target(study.datajpa.repository.MemberRepository)" +
+            " || target(study.datajpa.repository.TeamRepository)" +
+            " || target(study.datajpa.repository.ItemRepository))" +
+            " && !execution(* java.lang.Object.*(..))")
+    public Object measure(ProceedingJoinPoint joinPoint) throws Throwable {
+        String method = repositoryName(joinPoint.getTarget()) + "." + joinPoint.getSignature().getName();
+        RepositoryCall call = metrics.newCall(method);
+
+        RepositoryCallContext.begin(call);
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            Object result = joinPoint.proceed();
+            failed = false;
+            return result;
+        } finally {
+            call.getStats().recordCall(System.nanoTime() - start, failed);
+            RepositoryCallContext.end(call);
+        }
+    }
+
+    private String repositoryName(Object target) {
+        return repositoryNames.computeIfAbsent(target.getClass(), type -> {
+            for (Class<?> repository : REPOSITORIES) {
+                if (ClassUtils.isAssignable(repository, type)) {
+                    return repository.getSimpleName();
+                }
+            }
+            return type.getSimpleName();
+        });
+    }
+}
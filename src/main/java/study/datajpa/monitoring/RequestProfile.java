@@ -0,0 +1,87 @@
+package study.datajpa.monitoring;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * HTTP 요청 1번 동안의 JPA 지표 (RequestProfileFilter 가 만들고 끝나면 RequestProfiles 에 기록)
+ * 비동기 컨트롤러는 요청 스레드와 repositoryExecutor 스레드가 같이 기록하므로 카운터는 Atomic 으로
+ */
+class RequestProfile {
+
+    private final LocalDateTime startedAt = LocalDateTime.now();
+    private final long startNanos = System.nanoTime();
+    private final String uri;
+    private final int maxSql;
+
+    final AtomicLong statements = new AtomicLong();
+    final AtomicLong statementNanos = new AtomicLong();
+    final AtomicLong entitiesLoaded = new AtomicLong();
+    final AtomicLong collectionsFetched = new AtomicLong();
+    final AtomicLong flushes = new AtomicLong();
+    final AtomicLong flushNanos = new AtomicLong();
+    final AtomicLong dirtyChecks = new AtomicLong();
+    final AtomicLong dirtyCheckNanos = new AtomicLong();
+    final AtomicLong cacheHits = new AtomicLong();
+    final AtomicLong cacheMisses = new AtomicLong();
+    final AtomicLong cachePuts = new AtomicLong();
+
+    private final List<Statement> sql = new ArrayList<>();  // p6spy 가 준 SQL 그대로, 정리는 SlowRequest 를 만들 때만
+    private int droppedSql;
+
+    RequestProfile(String uri, int maxSql) {
+        this.uri = uri;
+        this.maxSql = maxSql;
+    }
+
+    void onStatement(String statement, long elapsedNanos, boolean failed) {
+        statements.incrementAndGet();
+        statementNanos.addAndGet(elapsedNanos);
+        synchronized (sql) {
+            if (sql.size() < maxSql) {
+                sql.add(new Statement(statement, elapsedNanos, failed));
+            } else {
+                droppedSql++;
+            }
+        }
+    }
+
+    LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    String getUri() {
+        return uri;
+    }
+
+    List<Statement> getSql() {
+        synchronized (sql) {
+            return new ArrayList<>(sql);
+        }
+    }
+
+    int getDroppedSql() {
+        synchronized (sql) {
+            return droppedSql;
+        }
+    }
+
+    static final class Statement {
+
+        final String sql;
+        final long elapsedNanos;
+        final boolean failed;
+
+        private Statement(String sql, long elapsedNanos, boolean failed) {
+            this.sql = sql;
+            this.elapsedNanos = elapsedNanos;
+            this.failed = failed;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package study.datajpa.monitoring;
+
+/**
+ * 현재 스레드에서 진행중인 요청의 프로파일 (ThreadLocal)
+ * 하이버네이트/p6spy 리스너는 스프링 빈 밖에서 불리므로 여기서 꺼내 쓴다.
+ */
+final class RequestProfileContext {
+
+    private static final ThreadLocal<RequestProfile> CURRENT = new ThreadLocal<>();
+
+    private RequestProfileContext() {
+    }
+
+    static RequestProfile current() {
+        return CURRENT.get();
+    }
+
+    static RequestProfile bind(RequestProfile profile) {
+        RequestProfile previous = CURRENT.get();
+        CURRENT.set(profile);
+        return previous;
+    }
+
+    static void restore(RequestProfile previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
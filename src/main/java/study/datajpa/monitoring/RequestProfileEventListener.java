@@ -0,0 +1,54 @@
+package study.datajpa.monitoring;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.InitializeCollectionEvent;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.event.spi.PostLoadEvent;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * 로딩한 엔티티 수(2차 캐시에서 가져온 것 포함), 지연 로딩으로 초기화한 컬렉션 수를 현재 요청 프로파일에 더함
+ * 세션 이벤트(RequestProfileSessionListener)에는 로딩 콜백이 없어서 하이버네이트 이벤트 리스너로 등록
+ */
+@Component
+@ConditionalOnProperty(name = "request.profiling.enabled", havingValue = "true", matchIfMissing = true)
+public class RequestProfileEventListener implements PostLoadEventListener, InitializeCollectionEventListener {
+
+    private final EntityManagerFactory emf;
+
+    public RequestProfileEventListener(EntityManagerFactory emf) {
+        this.emf = emf;
+    }
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = emf.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_LOAD, this);
+        registry.appendListeners(EventType.INIT_COLLECTION, this);  // 기본 리스너가 초기화한 뒤에 불림
+    }
+
+    @Override
+    public void onPostLoad(PostLoadEvent event) {
+        RequestProfile profile = RequestProfileContext.current();
+        if (profile != null) {
+            profile.entitiesLoaded.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void onInitializeCollection(InitializeCollectionEvent event) {
+        RequestProfile profile = RequestProfileContext.current();
+        if (profile != null) {
+            profile.collectionsFetched.incrementAndGet();
+        }
+    }
+}
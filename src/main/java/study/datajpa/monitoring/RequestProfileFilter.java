@@ -0,0 +1,59 @@
+package study.datajpa.monitoring;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * 요청마다 RequestProfile 을 만들어 현재 스레드에 걸고, 끝나면 라우트 이름으로 RequestProfiles 에 기록
+ * 라우트는 URI 가 아니라 매핑 패턴("GET /members2/{id}")이라 id 마다 따로 집계되지 않는다.
+ * CompletableFuture 를 반환하는 요청은 비동기 디스패치가 끝날 때 기록 (그 사이 repositoryExecutor 작업은 RequestProfileTaskDecorator 가 이어줌)
+ * BatchingLoader 처럼 여러 요청을 모아서 실행하는 SQL 은 어느 요청에도 집계되지 않는다.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "request.profiling.enabled", havingValue = "true", matchIfMissing = true)
+public class RequestProfileFilter extends OncePerRequestFilter {
+
+    private static final String PROFILE_ATTRIBUTE = RequestProfileFilter.class.getName() + ".PROFILE";
+
+    private final RequestProfiles profiles;
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestProfile profile = (RequestProfile) request.getAttribute(PROFILE_ATTRIBUTE);
+        if (profile == null) {
+            profile = profiles.begin(request.getRequestURI());
+            request.setAttribute(PROFILE_ATTRIBUTE, profile);
+        }
+
+        RequestProfile previous = RequestProfileContext.bind(profile);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestProfileContext.restore(previous);
+            if (!request.isAsyncStarted()) {
+                profiles.record(profile, route(request), response.getStatus());
+            }
+        }
+    }
+
+    private static String route(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern == null ? "(unmapped)" : pattern);
+    }
+}
@@ -0,0 +1,73 @@
+package study.datajpa.monitoring;
+
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * 세션의 flush / dirty check 시간, 2차 캐시 hit/miss 를 현재 요청 프로파일에 더함
+ * hibernate.session.events.auto 로 등록 → 하이버네이트가 세션마다 새로 만든다. (세션은 한 스레드에서만 쓰이므로 필드로 시작 시각 보관)
+ * 요청 밖(스케줄러, 기동 시 워밍업 등)의 세션은 아무것도 하지 않음
+ */
+public class RequestProfileSessionListener extends BaseSessionEventListener {
+
+    private long flushStart;
+    private long dirtyCheckStart;
+
+    @Override
+    public void flushStart() {
+        flushStart = System.nanoTime();
+    }
+
+    @Override
+    public void flushEnd(int numberOfEntities, int numberOfCollections) {
+        recordFlush();
+    }
+
+    // 쿼리 실행 전 자동 flush
+    @Override
+    public void partialFlushStart() {
+        flushStart = System.nanoTime();
+    }
+
+    @Override
+    public void partialFlushEnd(int numberOfEntities, int numberOfCollections) {
+        recordFlush();
+    }
+
+    @Override
+    public void dirtyCalculationStart() {
+        dirtyCheckStart = System.nanoTime();
+    }
+
+    @Override
+    public void dirtyCalculationEnd(boolean dirty) {
+        RequestProfile profile = RequestProfileContext.current();
+        if (profile != null) {
+            profile.dirtyChecks.incrementAndGet();
+            profile.dirtyCheckNanos.addAndGet(System.nanoTime() - dirtyCheckStart);
+        }
+    }
+
+    @Override
+    public void cacheGetEnd(boolean hit) {
+        RequestProfile profile = RequestProfileContext.current();
+        if (profile != null) {
+            (hit ? profile.cacheHits : profile.cacheMisses).incrementAndGet();
+        }
+    }
+
+    @Override
+    public void cachePutEnd() {
+        RequestProfile profile = RequestProfileContext.current();
+        if (profile != null) {
+            profile.cachePuts.incrementAndGet();
+        }
+    }
+
+    private void recordFlush() {
+        RequestProfile profile = RequestProfileContext.current();
+        if (profile != null) {
+            profile.flushes.incrementAndGet();
+            profile.flushNanos.addAndGet(System.nanoTime() - flushStart);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package study.datajpa.monitoring;
+
+import org.springframework.core.task.TaskDecorator;
+import study.datajpa.repository.support.BatchingLoader;
+
+/**
+ * 비동기 레포지토리 호출(repositoryExecutor)에서 실행된 SQL/로딩도 요청한 쪽 프로파일로 집계되도록 이어줌
+ * BatchingLoader 의 배치 조회는 여러 요청의 id 를 모은 것이므로 배치를 넘긴 요청 하나에 몰아서 집계하지 않음
+ */
+public class RequestProfileTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        RequestProfile profile = RequestProfileContext.current();
+        if (profile == null || runnable instanceof BatchingLoader.BatchTask) {
+            return runnable;
+        }
+        return () -> {
+            RequestProfile previous = RequestProfileContext.bind(profile);
+            try {
+                runnable.run();
+            } finally {
+                RequestProfileContext.restore(previous);
+            }
+        };
+    }
+}
@@ -0,0 +1,121 @@
+package study.datajpa.monitoring;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 라우트별 요청 프로파일 저장소 (/metrics/requests) + 느린 요청 샘플 (/metrics/requests/slow)
+ * log-interval 마다 누적 시간이 큰 라우트를 로그로 요약 (그 사이 요청이 없으면 생략)
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "request.profiling.enabled", havingValue = "true", matchIfMissing = true)
+public class RequestProfiles {
+
+    private static final int LOG_TOP_ROUTES = 5;
+
+    private final long slowThresholdNanos;
+    private final int maxSamples;
+    private final int maxSqlPerRequest;
+
+    private final ConcurrentMap<String, RouteStats> routes = new ConcurrentHashMap<>();
+    private final Deque<SlowRequest> slowRequests = new ArrayDeque<>();
+    private final AtomicLong requests = new AtomicLong();
+    private long requestsAtLastLog;
+
+    public RequestProfiles(@Value("${request.profiling.slow-threshold-millis:500}") long slowThresholdMillis,
+                           @Value("${request.profiling.max-samples:20}") int maxSamples,
+                           @Value("${request.profiling.max-sql-per-request:100}") int maxSqlPerRequest) {
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMillis);
+        this.maxSamples = maxSamples;
+        this.maxSqlPerRequest = maxSqlPerRequest;
+    }
+
+    RequestProfile begin(String uri) {
+        return new RequestProfile(uri, maxSqlPerRequest);
+    }
+
+    void record(RequestProfile profile, String route, int status) {
+        long elapsedNanos = profile.elapsedNanos();
+        boolean slow = elapsedNanos >= slowThresholdNanos;
+        routes.computeIfAbsent(route, RouteStats::new).record(profile, elapsedNanos, status >= 500, slow);
+        requests.incrementAndGet();
+
+        if (slow) {
+            SlowRequest sample = new SlowRequest(profile, route, status, elapsedNanos);
+            synchronized (slowRequests) {
+                slowRequests.addFirst(sample);
+                if (slowRequests.size() > maxSamples) {
+                    slowRequests.removeLast();
+                }
+            }
+        }
+    }
+
+    public RouteStats get(String route) {
+        return routes.get(route);
+    }
+
+    // 누적 응답시간이 큰 순서
+    public List<RouteStats> snapshot() {
+        List<RouteStats> result = new ArrayList<>(routes.values());
+        result.sort(Comparator.comparingLong(RouteStats::getTotalNanos).reversed());
+        return result;
+    }
+
+    // 최근 것부터
+    public List<SlowRequest> getSlowRequests() {
+        synchronized (slowRequests) {
+            return new ArrayList<>(slowRequests);
+        }
+    }
+
+    public void reset() {
+        routes.clear();
+        synchronized (slowRequests) {
+            slowRequests.clear();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${request.profiling.log-interval-millis:60000}",
+            initialDelayString = "${request.profiling.log-interval-millis:60000}")
+    public void logSummary() {
+        long total = requests.get();
+        long since = total - requestsAtLastLog;
+        requestsAtLastLog = total;
+        if (since == 0) {
+            return;
+        }
+
+        StringBuilder summary = new StringBuilder();
+        List<RouteStats> top = snapshot();
+        for (RouteStats route : top.subList(0, Math.min(LOG_TOP_ROUTES, top.size()))) {
+            long calls = route.getRequests();
+            summary.append(String.format("%n  %s: %d req, avg %.1f ms, p95 %d ms, %.1f sql/req, %.1f loaded/req," +
+                            " %d flushes (%.1f ms), dirty check %.1f ms, L2 %d hit / %d miss, %d slow",
+                    route.getRoute(), calls,
+                    toMillis(route.getTotalNanos()) / calls, route.percentileMillis(0.95),
+                    (double) route.getStatements() / calls, (double) route.getEntitiesLoaded() / calls,
+                    route.getFlushes(), toMillis(route.getFlushNanos()), toMillis(route.getDirtyCheckNanos()),
+                    route.getCacheHits(), route.getCacheMisses(), route.getSlowRequests()));
+        }
+        log.info("request profile: {} requests since last summary, top routes by total time:{}", since, summary);
+    }
+
+    private static double toMillis(long nanos) {
+        return (double) nanos / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
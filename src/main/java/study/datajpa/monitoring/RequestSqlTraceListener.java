@@ -0,0 +1,25 @@
+package study.datajpa.monitoring;
+
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+
+/**
+ * p6spy 이벤트로 현재 요청에서 실행한 SQL 과 실행 시간을 기록 (QueryMetricsListener 와 같은 방식, 레포지토리 호출과 상관없이 요청 단위)
+ * 바인딩 값이 들어간 SQL(getSqlWithValues)은 만드는 비용이 있고 개인정보가 남으므로 ? 그대로 기록
+ */
+@Component
+@ConditionalOnProperty(name = "request.profiling.enabled", havingValue = "true", matchIfMissing = true)
+public class RequestSqlTraceListener extends SimpleJdbcEventListener {
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+        RequestProfile profile = RequestProfileContext.current();
+        if (profile != null) {
+            profile.onStatement(statementInformation.getSql(), timeElapsedNanos, e != null);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package study.datajpa.monitoring;
+
+import lombok.Getter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 라우트(HTTP 메서드 + 매핑 패턴, 예: "GET /members/search") 하나의 누적 JPA 지표
+ * 응답시간 백분위는 MethodStats 와 같은 버킷으로 근사
+ */
+public class RouteStats {
+
+    @Getter
+    private final String route;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder slowRequests = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Long::max, 0);
+    private final AtomicLongArray buckets = new AtomicLongArray(MethodStats.BUCKET_BOUNDS_MILLIS.length + 1);
+
+    private final LongAdder statements = new LongAdder();
+    private final LongAdder statementNanos = new LongAdder();
+    private final LongAccumulator maxStatementsPerRequest = new LongAccumulator(Long::max, 0);
+    private final LongAdder entitiesLoaded = new LongAdder();
+    private final LongAdder collectionsFetched = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder flushNanos = new LongAdder();
+    private final LongAdder dirtyChecks = new LongAdder();
+    private final LongAdder dirtyCheckNanos = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+    private final LongAdder cachePuts = new LongAdder();
+
+    RouteStats(String route) {
+        this.route = route;
+    }
+
+    void record(RequestProfile profile, long elapsedNanos, boolean failed, boolean slow) {
+        requests.increment();
+        if (failed) {
+            errors.increment();
+        }
+        if (slow) {
+            slowRequests.increment();
+        }
+        totalNanos.add(elapsedNanos);
+        maxNanos.accumulate(elapsedNanos);
+        buckets.incrementAndGet(MethodStats.bucketIndex(TimeUnit.NANOSECONDS.toMillis(elapsedNanos)));
+
+        statements.add(profile.statements.get());
+        statementNanos.add(profile.statementNanos.get());
+        maxStatementsPerRequest.accumulate(profile.statements.get());
+        entitiesLoaded.add(profile.entitiesLoaded.get());
+        collectionsFetched.add(profile.collectionsFetched.get());
+        flushes.add(profile.flushes.get());
+        flushNanos.add(profile.flushNanos.get());
+        dirtyChecks.add(profile.dirtyChecks.get());
+        dirtyCheckNanos.add(profile.dirtyCheckNanos.get());
+        cacheHits.add(profile.cacheHits.get());
+        cacheMisses.add(profile.cacheMisses.get());
+        cachePuts.add(profile.cachePuts.get());
+    }
+
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    public long getSlowRequests() {
+        return slowRequests.sum();
+    }
+
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    public long getStatements() {
+        return statements.sum();
+    }
+
+    public long getStatementNanos() {
+        return statementNanos.sum();
+    }
+
+    public long getMaxStatementsPerRequest() {
+        return maxStatementsPerRequest.get();
+    }
+
+    public long getEntitiesLoaded() {
+        return entitiesLoaded.sum();
+    }
+
+    public long getCollectionsFetched() {
+        return collectionsFetched.sum();
+    }
+
+    public long getFlushes() {
+        return flushes.sum();
+    }
+
+    public long getFlushNanos() {
+        return flushNanos.sum();
+    }
+
+    public long getDirtyChecks() {
+        return dirtyChecks.sum();
+    }
+
+    public long getDirtyCheckNanos() {
+        return dirtyCheckNanos.sum();
+    }
+
+    public long getCacheHits() {
+        return cacheHits.sum();
+    }
+
+    public long getCacheMisses() {
+        return cacheMisses.sum();
+    }
+
+    public long getCachePuts() {
+        return cachePuts.sum();
+    }
+
+    public long percentileMillis(double percentile) {
+        long[] counts = new long[buckets.length()];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = buckets.get(i);
+        }
+        return MethodStats.percentileMillis(counts, percentile, TimeUnit.NANOSECONDS.toMillis(getMaxNanos()));
+    }
+}
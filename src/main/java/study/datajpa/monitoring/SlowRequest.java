@@ -0,0 +1,53 @@
+package study.datajpa.monitoring;
+
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * slow-threshold 보다 오래 걸린 요청 하나의 샘플 (실행한 SQL 목록 포함)
+ */
+@Getter
+public class SlowRequest {
+
+    private final LocalDateTime startedAt;
+    private final String route;
+    private final String uri;
+    private final int status;
+    private final double elapsedMillis;
+    private final long statements;
+    private final long entitiesLoaded;
+    private final long collectionsFetched;
+    private final long flushes;
+    private final double flushMillis;
+    private final double dirtyCheckMillis;
+    private final long cacheHits;
+    private final long cacheMisses;
+    private final List<SqlTrace> sql;
+    private final int droppedSql;    // max-sql-per-request 를 넘어서 기록하지 못한 SQL 수
+
+    SlowRequest(RequestProfile profile, String route, int status, long elapsedNanos) {
+        this.startedAt = profile.getStartedAt();
+        this.route = route;
+        this.uri = profile.getUri();
+        this.status = status;
+        this.elapsedMillis = toMillis(elapsedNanos);
+        this.statements = profile.statements.get();
+        this.entitiesLoaded = profile.entitiesLoaded.get();
+        this.collectionsFetched = profile.collectionsFetched.get();
+        this.flushes = profile.flushes.get();
+        this.flushMillis = toMillis(profile.flushNanos.get());
+        this.dirtyCheckMillis = toMillis(profile.dirtyCheckNanos.get());
+        this.cacheHits = profile.cacheHits.get();
+        this.cacheMisses = profile.cacheMisses.get();
+        this.sql = profile.getSql().stream().map(SqlTrace::new).collect(Collectors.toList());
+        this.droppedSql = profile.getDroppedSql();
+    }
+
+    private static double toMillis(long nanos) {
+        return (double) nanos / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
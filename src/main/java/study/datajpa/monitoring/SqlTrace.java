@@ -0,0 +1,26 @@
+package study.datajpa.monitoring;
+
+import lombok.Getter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * 느린 요청 샘플에 남기는 SQL 한 건 (p6spy 가 준 SQL 의 공백만 정리, 바인딩 값은 남기지 않음)
+ * 요청마다 정리하지 않고 느린 요청으로 남길 때만 RequestProfile 의 SQL 로 만든다.
+ */
+@Getter
+public class SqlTrace {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final String sql;
+    private final double elapsedMillis;
+    private final boolean failed;
+
+    SqlTrace(RequestProfile.Statement statement) {
+        this.sql = statement.sql == null ? "" : WHITESPACE.matcher(statement.sql.trim()).replaceAll(" ");
+        this.elapsedMillis = (double) statement.elapsedNanos / TimeUnit.MILLISECONDS.toNanos(1);
+        this.failed = statement.failed;
+    }
+}
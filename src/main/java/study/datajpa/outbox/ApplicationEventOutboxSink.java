@@ -0,0 +1,23 @@
+package study.datajpa.outbox;
+
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+
+/**
+ * 메시지를 스프링 이벤트(OutboxMessage)로 발행하는 프로세스 내부 싱크 (기본값, outbox.sink=events)
+ * 커밋된 변경만 요청 스레드 밖에서 받아야 하는 처리(캐시 무효화, 검색 색인 등)는 @EventListener(OutboxMessage) 로 받으면 된다.
+ */
+public class ApplicationEventOutboxSink implements OutboxSink {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ApplicationEventOutboxSink(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public void publish(List<OutboxMessage> messages) {
+        messages.forEach(eventPublisher::publishEvent);
+    }
+}
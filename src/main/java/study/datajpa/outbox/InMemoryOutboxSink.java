@@ -0,0 +1,53 @@
+package study.datajpa.outbox;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * 받은 메시지를 메모리에 모아두는 싱크 (테스트용, outbox.sink=memory)
+ */
+public class InMemoryOutboxSink implements OutboxSink {
+
+    private final List<OutboxMessage> messages = new ArrayList<>();
+    private final AtomicInteger failures = new AtomicInteger();
+    private volatile Predicate<OutboxMessage> rejected = message -> false;
+
+    @Override
+    public void publish(List<OutboxMessage> batch) {
+        if (failures.getAndUpdate(remaining -> Math.max(0, remaining - 1)) > 0) {
+            throw new IllegalStateException("outbox sink 장애 (테스트)");
+        }
+        if (batch.stream().anyMatch(rejected)) {
+            throw new IllegalArgumentException("outbox sink 가 받을 수 없는 메시지 (테스트)");
+        }
+        synchronized (messages) {
+            messages.addAll(batch);
+        }
+    }
+
+    public List<OutboxMessage> getMessages() {
+        synchronized (messages) {
+            return new ArrayList<>(messages);
+        }
+    }
+
+    public void clear() {
+        synchronized (messages) {
+            messages.clear();
+        }
+        failures.set(0);
+        rejected = message -> false;
+    }
+
+    // 다음 times 번의 publish 를 실패시킴
+    public void failNext(int times) {
+        failures.set(times);
+    }
+
+    // 조건에 맞는 메시지가 들어있는 publish 는 항상 실패시킴
+    public void rejectWhen(Predicate<OutboxMessage> condition) {
+        rejected = condition;
+    }
+}
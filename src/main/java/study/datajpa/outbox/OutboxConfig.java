@@ -0,0 +1,30 @@
+package study.datajpa.outbox;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * outbox 싱크 선택 (outbox.sink)
+ * - events : 스프링 이벤트로 발행 (기본값)
+ * - memory : 메모리에 모아둠 (테스트용)
+ * 메시지 브로커 등 다른 싱크를 쓰려면 outbox.sink 를 다른 값으로 두고 OutboxSink 빈을 직접 등록
+ */
+@Configuration
+@EnableScheduling  // OutboxRelay.poll
+public class OutboxConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "outbox.sink", havingValue = "events", matchIfMissing = true)
+    public OutboxSink applicationEventOutboxSink(ApplicationEventPublisher eventPublisher) {
+        return new ApplicationEventOutboxSink(eventPublisher);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "outbox.sink", havingValue = "memory")
+    public InMemoryOutboxSink inMemoryOutboxSink() {
+        return new InMemoryOutboxSink();
+    }
+}
@@ -0,0 +1,35 @@
+package study.datajpa.outbox;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import study.datajpa.entity.event.EntityChangedEvent;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * outbox 테이블 매핑 (스키마 생성, 릴레이의 조회/삭제용)
+ * 행은 엔티티로 저장하지 않고 OutboxWriter 가 변경을 일으킨 트랜잭션 안에서 JDBC 배치로 넣는다.
+ * attempts 가 outbox.relay.max-attempts 에 닿은 행은 릴레이가 더 이상 읽지 않고 남겨둔다. (parked, 원인 확인 후 직접 처리)
+ */
+@Entity
+@Table(name = "outbox_event")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_seq_generator")
+    @SequenceGenerator(name = "outbox_seq_generator", sequenceName = "outbox_seq", allocationSize = 50)
+    @Column(name = "outbox_id")
+    private Long id;
+    private String aggregateType;   // 엔티티 이름 (Member, Team)
+    private Long aggregateId;       // 벌크 연산(BULK_UPDATED)은 null
+    @Enumerated(EnumType.STRING)
+    private EntityChangedEvent.ChangeType changeType;
+    @Column(length = 4000)
+    private String payload;         // 변경 시점의 엔티티 값 (JSON)
+    private LocalDateTime createdAt;
+    private int attempts;           // 싱크 전달 실패 횟수
+}
@@ -0,0 +1,38 @@
+package study.datajpa.outbox;
+
+import lombok.Getter;
+import lombok.ToString;
+import study.datajpa.entity.event.EntityChangedEvent;
+
+import java.time.LocalDateTime;
+
+/**
+ * 싱크로 전달되는 outbox 메시지
+ * 최소 한 번(at-least-once) 전달이므로 같은 메시지가 다시 올 수 있다. 받는 쪽은 id 로 중복을 걸러낼 것
+ */
+@Getter
+@ToString(exclude = "payload")
+public class OutboxMessage {
+
+    private final Long id;
+    private final String aggregateType;
+    private final Long aggregateId;
+    private final EntityChangedEvent.ChangeType changeType;
+    private final String payload;
+    private final LocalDateTime createdAt;
+
+    public OutboxMessage(Long id, String aggregateType, Long aggregateId,
+                         EntityChangedEvent.ChangeType changeType, String payload, LocalDateTime createdAt) {
+        this.id = id;
+        this.aggregateType = aggregateType;
+        this.aggregateId = aggregateId;
+        this.changeType = changeType;
+        this.payload = payload;
+        this.createdAt = createdAt;
+    }
+
+    OutboxMessage(OutboxEvent event) {
+        this(event.getId(), event.getAggregateType(), event.getAggregateId(), event.getChangeType(),
+                event.getPayload(), event.getCreatedAt());
+    }
+}
@@ -0,0 +1,242 @@
+package study.datajpa.outbox;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * outbox_event 를 주기적으로 읽어 OutboxSink 로 내보내고, 내보낸 행은 삭제 (at-least-once)
+ * - id 순으로 batch-size 건씩 읽어서 aggregate(엔티티 이름 + id) 기준으로 parallelism 개 파티션에 나눠 병렬 전달
+ *   같은 aggregate 는 항상 같은 파티션이라 발생 순서대로 나간다.
+ * - 파티션 전달이 실패하면 한 건씩 다시 보내서 실패한 메시지만 attempts 를 올리고 남겨둠 (다음 폴링에서 재시도)
+ *   실패한 메시지 뒤에 있는 같은 aggregate 메시지는 순서를 지키기 위해 이번에는 보내지 않는다.
+ * - attempts 가 max-attempts 에 닿은 메시지는 더 이상 읽지 않음 (parked) → 계속 실패하는 메시지 하나가 뒤를 막지 않는다.
+ * - 전달 후 삭제 전에 죽으면 다시 보내게 되므로 받는 쪽은 메시지 id 로 중복을 걸러야 한다.
+ * 인스턴스마다 릴레이가 돌면 같은 행을 중복으로 보낼 수 있다. (여러 대로 띄울 때는 한 대에서만 outbox.relay.enabled=true)
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private final OutboxSink sink;
+    private final TransactionTemplate transactionTemplate;  // 레플리카로 가지 않도록 읽기도 쓰기 트랜잭션으로
+    private final boolean enabled;
+    private final int batchSize;
+    private final int parallelism;
+    private final int maxAttempts;
+    private final ExecutorService workers;
+
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    public OutboxRelay(OutboxSink sink, PlatformTransactionManager transactionManager,
+                       @Value("${outbox.relay.enabled:true}") boolean enabled,
+                       @Value("${outbox.relay.batch-size:100}") int batchSize,
+                       @Value("${outbox.relay.parallelism:2}") int parallelism,
+                       @Value("${outbox.relay.max-attempts:10}") int maxAttempts) {
+        this.sink = sink;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.parallelism = parallelism;
+        this.maxAttempts = maxAttempts;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "outbox-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.poll-interval-millis:500}")
+    public void poll() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            // 밀려 있으면 다음 폴링을 기다리지 않고 이어서
+            int drained;
+            do {
+                drained = drain();
+            } while (drained == batchSize);
+        } catch (RuntimeException e) {
+            log.warn("outbox relay failed", e);
+        }
+    }
+
+    /**
+     * 한 배치를 전달하고 삭제, 전달한 건수를 반환 (스케줄러와 테스트가 동시에 부르지 않도록 synchronized)
+     * 실패가 있으면 poll 이 이어서 읽지 않으므로 한 폴링에서 같은 메시지의 재시도를 다 써버리지 않는다.
+     */
+    public synchronized int drain() {
+        List<OutboxMessage> batch = transactionTemplate.execute(status ->
+                em.createQuery("select e from OutboxEvent e where e.attempts < :maxAttempts order by e.id", OutboxEvent.class)
+                        .setParameter("maxAttempts", maxAttempts)
+                        .setMaxResults(batchSize)
+                        .getResultList().stream()
+                        .map(OutboxMessage::new)
+                        .collect(Collectors.toList()));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        Map<Integer, List<OutboxMessage>> partitions = new LinkedHashMap<>();
+        for (OutboxMessage message : batch) {
+            int partition = Math.floorMod(Objects.hash(message.getAggregateType(), message.getAggregateId()), parallelism);
+            partitions.computeIfAbsent(partition, key -> new ArrayList<>()).add(message);
+        }
+
+        List<Future<Delivery>> futures = new ArrayList<>();
+        for (List<OutboxMessage> partition : partitions.values()) {
+            futures.add(workers.submit(() -> deliver(partition)));
+        }
+        List<Long> deliveredIds = new ArrayList<>();
+        List<Long> failedIds = new ArrayList<>();
+        for (Future<Delivery> future : futures) {
+            try {
+                Delivery delivery = future.get();
+                deliveredIds.addAll(delivery.deliveredIds);
+                failedIds.addAll(delivery.failedIds);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                // deliver 가 예외를 삼키므로 여기로 오지 않음
+                log.warn("outbox partition failed", e.getCause());
+            }
+        }
+
+        if (!deliveredIds.isEmpty()) {
+            transactionTemplate.execute(status -> em.createQuery("delete from OutboxEvent e where e.id in :ids")
+                    .setParameter("ids", deliveredIds)
+                    .executeUpdate());
+            delivered.addAndGet(deliveredIds.size());
+        }
+        if (!failedIds.isEmpty()) {
+            recordFailures(failedIds);
+        }
+        return deliveredIds.size();
+    }
+
+    private Delivery deliver(List<OutboxMessage> partition) {
+        Delivery delivery = new Delivery();
+        try {
+            sink.publish(partition);
+            partition.forEach(message -> delivery.deliveredIds.add(message.getId()));
+            return delivery;
+        } catch (Exception e) {
+            failures.incrementAndGet();
+            log.warn("outbox sink failed for {} messages, retrying one by one", partition.size(), e);
+        }
+        if (partition.size() == 1) {
+            delivery.failedIds.add(partition.get(0).getId());
+            return delivery;
+        }
+
+        // 어떤 메시지가 실패하는지 골라냄. 실패한 aggregate 의 뒤 메시지는 순서를 지키기 위해 다음 폴링으로 미룸
+        Set<List<Object>> blocked = new HashSet<>();
+        for (OutboxMessage message : partition) {
+            List<Object> aggregate = Arrays.asList(message.getAggregateType(), message.getAggregateId());
+            if (blocked.contains(aggregate)) {
+                continue;
+            }
+            try {
+                sink.publish(Collections.singletonList(message));
+                delivery.deliveredIds.add(message.getId());
+            } catch (Exception e) {
+                failures.incrementAndGet();
+                log.debug("outbox message {} failed", message.getId(), e);
+                delivery.failedIds.add(message.getId());
+                blocked.add(aggregate);
+            }
+        }
+        return delivery;
+    }
+
+    // 실패한 메시지의 attempts 를 올리고, max-attempts 에 닿은 메시지는 parked 로 남김
+    private void recordFailures(List<Long> failedIds) {
+        List<Long> parkedIds = transactionTemplate.execute(status -> {
+            em.createQuery("update OutboxEvent e set e.attempts = e.attempts + 1 where e.id in :ids")
+                    .setParameter("ids", failedIds)
+                    .executeUpdate();
+            return em.createQuery("select e.id from OutboxEvent e where e.id in :ids and e.attempts >= :maxAttempts", Long.class)
+                    .setParameter("ids", failedIds)
+                    .setParameter("maxAttempts", maxAttempts)
+                    .getResultList();
+        });
+        if (!parkedIds.isEmpty()) {
+            log.error("outbox messages {} failed {} times, parked (outbox_event 에 남아있음, 확인 후 attempts 를 0 으로 되돌리면 재전송)",
+                    parkedIds, maxAttempts);
+        }
+    }
+
+    public long getDelivered() {
+        return delivered.get();
+    }
+
+    public long getFailures() {
+        return failures.get();
+    }
+
+    public long getPending() {
+        return transactionTemplate.execute(status ->
+                em.createQuery("select count(e) from OutboxEvent e where e.attempts < :maxAttempts", Long.class)
+                        .setParameter("maxAttempts", maxAttempts)
+                        .getSingleResult());
+    }
+
+    // 재시도를 다 써서 릴레이가 더 이상 보내지 않는 메시지 수 (DB 기준, 이전 기동에서 parked 된 것 포함)
+    public long getParked() {
+        return transactionTemplate.execute(status ->
+                em.createQuery("select count(e) from OutboxEvent e where e.attempts >= :maxAttempts", Long.class)
+                        .setParameter("maxAttempts", maxAttempts)
+                        .getSingleResult());
+    }
+
+    // 가장 오래 기다린 메시지의 생성 시각 (없으면 null), 릴레이 지연 확인용
+    public LocalDateTime getOldestPendingAt() {
+        return transactionTemplate.execute(status ->
+                em.createQuery("select min(e.createdAt) from OutboxEvent e where e.attempts < :maxAttempts", LocalDateTime.class)
+                        .setParameter("maxAttempts", maxAttempts)
+                        .getSingleResult());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private static class Delivery {
+
+        private final List<Long> deliveredIds = new ArrayList<>();
+        private final List<Long> failedIds = new ArrayList<>();
+    }
+}
@@ -0,0 +1,13 @@
+package study.datajpa.outbox;
+
+import java.util.List;
+
+/**
+ * outbox 메시지를 내보낼 곳 (메시지 브로커 등)
+ * 같은 aggregate 의 메시지는 id(발생) 순서로 한 번에 넘어온다.
+ * 예외를 던지면 넘겨받은 메시지 전체를 다음 폴링에서 다시 보낸다. (그 중 일부가 이미 나갔더라도)
+ */
+public interface OutboxSink {
+
+    void publish(List<OutboxMessage> messages) throws Exception;
+}
@@ -0,0 +1,188 @@
+package study.datajpa.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.springframework.context.event.EventListener;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.auditing.CoarseClock;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.entity.event.BulkUpdatedEvent;
+import study.datajpa.entity.event.EntityChangedEvent;
+import study.datajpa.entity.event.EntityChangedEvent.ChangeType;
+
+import javax.persistence.EntityManagerFactory;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 엔티티 변경(EntityChangedEvent)을 같은 트랜잭션 안에서 outbox_event 테이블에 기록
+ * 트랜잭션 동안 모았다가 커밋 직전(마지막 flush 이후)에 JDBC 배치 insert 한 번 → 변경과 outbox 행은 함께 커밋/롤백된다.
+ * payload 는 이벤트 시점의 값이므로 한 트랜잭션에서 여러 번 flush 하면 그때마다 행이 생긴다.
+ * - JDBC 로 직접 넣은 회원(MemberImportService)은 엔티티 콜백을 타지 않으므로 memberInserted 로 직접 기록
+ * - 벌크 연산(BulkUpdatedEvent)은 어떤 행이 바뀌었는지 모르므로 엔티티 타입 단위 BULK_UPDATED 표시 하나를 기록
+ *   (받는 쪽은 해당 타입 전체를 다시 읽을 것). 트랜잭션 밖에서 끝난 벌크 연산(BulkMutationEngine 등)은 이미 커밋됐으므로 새 트랜잭션으로 기록
+ */
+@Component
+public class OutboxWriter {
+
+    private static final String PENDING = OutboxWriter.class.getName() + ".PENDING";
+    private static final String INSERT_SQL = "insert into outbox_event" +
+            " (outbox_id, aggregate_type, aggregate_id, change_type, payload, created_at, attempts) values (?, ?, ?, ?, ?, ?, 0)";
+
+    private final EntityManagerFactory emf;
+    private final ObjectMapper objectMapper;
+    private final CoarseClock clock;
+    private final TransactionTemplate transactionTemplate;
+
+    public OutboxWriter(EntityManagerFactory emf, ObjectMapper objectMapper, CoarseClock clock,
+                        PlatformTransactionManager transactionManager) {
+        this.emf = emf;
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;  // 트랜잭션 밖의 변경은 같이 커밋할 수 없으므로 기록하지 않음 (JPA 쓰기는 항상 트랜잭션 안)
+        }
+        Object entity = event.getEntity();
+        Object id = emf.getPersistenceUnitUtil().getIdentifier(entity);
+        if (!(id instanceof Long)) {
+            return;
+        }
+        append(emf.getMetamodel().entity(entity.getClass()).getName(), (Long) id, event.getChangeType(), payload(entity));
+    }
+
+    @EventListener
+    public void onBulkUpdated(BulkUpdatedEvent event) {
+        String aggregateType = emf.getMetamodel().entity(event.getEntityType()).getName();
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            append(aggregateType, null, ChangeType.BULK_UPDATED, "{}");
+        } else {
+            transactionTemplate.execute(status -> {
+                append(aggregateType, null, ChangeType.BULK_UPDATED, "{}");
+                return null;
+            });
+        }
+    }
+
+    /**
+     * JDBC 로 직접 insert 한 회원을 CREATED 로 기록 (insert 한 트랜잭션 안에서 호출해야 함께 커밋/롤백된다)
+     */
+    public void memberInserted(Long id, String username, int age, Long teamId) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("outbox 는 회원을 넣은 트랜잭션 안에서 기록해야 합니다");
+        }
+        append("Member", id, ChangeType.CREATED, json(memberValues(id, username, age, teamId, 0L)));
+    }
+
+    private void append(String aggregateType, Long aggregateId, ChangeType changeType, String payload) {
+        currentPending().rows.add(new OutboxMessage(null, aggregateType, aggregateId, changeType, payload, clock.now()));
+    }
+
+    private String payload(Object entity) {
+        if (entity instanceof Member) {
+            Member member = (Member) entity;
+            // 프록시여도 id 는 초기화 X
+            return json(memberValues(member.getId(), member.getUsername(), member.getAge(),
+                    member.getTeam() == null ? null : member.getTeam().getId(), member.getVersion()));
+        }
+        Map<String, Object> values = new LinkedHashMap<>();
+        if (entity instanceof Team) {
+            Team team = (Team) entity;
+            values.put("id", team.getId());
+            values.put("name", team.getName());
+            values.put("version", team.getVersion());
+        } else {
+            values.put("id", emf.getPersistenceUnitUtil().getIdentifier(entity));
+        }
+        return json(values);
+    }
+
+    private static Map<String, Object> memberValues(Long id, String username, int age, Long teamId, Long version) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("id", id);
+        values.put("username", username);
+        values.put("age", age);
+        values.put("teamId", teamId);
+        values.put("version", version);
+        return values;
+    }
+
+    private String json(Map<String, Object> values) {
+        try {
+            return objectMapper.writeValueAsString(values);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("outbox payload 를 만들 수 없습니다: " + values, e);
+        }
+    }
+
+    private Pending currentPending() {
+        Pending pending = (Pending) TransactionSynchronizationManager.getResource(PENDING);
+        if (pending == null) {
+            pending = new Pending();
+            TransactionSynchronizationManager.bindResource(PENDING, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+            // 커밋할 때의 flush 에서도 이벤트가 생기므로 하이버네이트가 flush 한 뒤에 기록 (TeamAggregates 와 같은 방식)
+            EntityManagerFactoryUtils.getTransactionalEntityManager(emf)
+                    .unwrap(SessionImplementor.class)
+                    .getActionQueue()
+                    .registerProcess(pending);
+        }
+        return pending;
+    }
+
+    private class Pending implements TransactionSynchronization, BeforeTransactionCompletionProcess {
+
+        private final List<OutboxMessage> rows = new ArrayList<>();
+
+        @Override
+        public void doBeforeTransactionCompletion(SessionImplementor session) {
+            if (rows.isEmpty()) {
+                return;
+            }
+            IdentifierGenerator idGenerator = session.getFactory().getMetamodel()
+                    .entityPersister(OutboxEvent.class).getIdentifierGenerator();
+            session.doWork(connection -> {
+                try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+                    for (OutboxMessage row : rows) {
+                        statement.setLong(1, (Long) idGenerator.generate(session, null));
+                        statement.setString(2, row.getAggregateType());
+                        if (row.getAggregateId() == null) {
+                            statement.setNull(3, Types.BIGINT);
+                        } else {
+                            statement.setLong(3, row.getAggregateId());
+                        }
+                        statement.setString(4, row.getChangeType().name());
+                        statement.setString(5, row.getPayload());
+                        statement.setTimestamp(6, Timestamp.valueOf(row.getCreatedAt()));
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                }
+            });
+            rows.clear();
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(PENDING);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package study.datajpa.repository;
+
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+/**
+ * CountCache 로 전체 갯수를 구한 Page
+ * approximate 가 true 면 totalElements/totalPages 는 쓰기 이전에 캐시한 갯수로 추정한 값 (다음 페이지 여부는 항상 정확)
+ * JSON 응답에도 Page 필드와 함께 approximate 가 내려간다.
+ */
+public class CachedCountPage<T> extends PageImpl<T> {
+
+    private final boolean approximate;
+
+    public CachedCountPage(List<T> content, Pageable pageable, long total, boolean approximate) {
+        super(content, pageable, total);
+        this.approximate = approximate;
+    }
+
+    public CachedCountPage(List<T> content) {
+        super(content);
+        this.approximate = false;
+    }
+
+    public boolean isApproximate() {
+        return approximate;
+    }
+}
@@ -0,0 +1,41 @@
+package study.datajpa.repository;
+
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+
+import javax.persistence.EntityGraph;
+import javax.persistence.EntityManager;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * 호출할 때 고르는 fetch plan (엔티티에 정의한 @NamedEntityGraph)
+ * 조합마다 @Query 로 패치조인 메소드를 만들지 않고 findAllWith(FetchPlan.MEMBER_TEAM) 처럼 사용
+ */
+public enum FetchPlan {
+
+    MEMBER_TEAM(Member.class, "Member.team"),    // member + team
+    TEAM_MEMBERS(Team.class, "Team.members");    // team + members
+
+    private static final String FETCH_GRAPH_HINT = "javax.persistence.fetchgraph";
+
+    private final Class<?> rootType;
+    private final String graphName;
+
+    FetchPlan(Class<?> rootType, String graphName) {
+        this.rootType = rootType;
+        this.graphName = graphName;
+    }
+
+    public boolean fetchesCollection() {
+        return this == TEAM_MEMBERS;
+    }
+
+    Map<String, Object> hints(EntityManager em, Class<?> entityType) {
+        if (!rootType.equals(entityType)) {
+            throw new IllegalArgumentException(this + " 는 " + entityType.getSimpleName() + " 조회에 쓸 수 없습니다.");
+        }
+        EntityGraph<?> graph = em.getEntityGraph(graphName);
+        return Collections.singletonMap(FETCH_GRAPH_HINT, graph);
+    }
+}
@@ -3,5 +3,6 @@ package study.datajpa.repository;
 import org.springframework.data.jpa.repository.JpaRepository;
 import study.datajpa.entity.Item;
 
-public interface ItemRepository extends JpaRepository<Item, Long> {
+// Item 은 id 를 직접 할당 (Item.isNew 참고)
+public interface ItemRepository extends JpaRepository<Item, String>, PersistAllRepository<Item> {
 }
@@ -0,0 +1,59 @@
+package study.datajpa.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Keyset 페이징 커서 인코딩/디코딩
+ * 마지막 행의 정렬 키 값들(예: username, id)을 각각 Base64(URL safe)로 인코딩해 '.' 으로 이어붙인다. (null 은 '~')
+ * 클라이언트 입장에서는 의미없는 문자열(opaque token)로 취급하면 된다.
+ */
+final class KeysetCursor {
+
+    private static final String SEPARATOR = ".";
+    private static final String NULL = "~";  // Base64(URL safe) 문자가 아니므로 값과 겹치지 않음
+
+    private KeysetCursor() {
+    }
+
+    static String encode(List<Object> values) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < values.size(); i++) {
+            Object value = values.get(i);
+            if (i > 0) {
+                sb.append(SEPARATOR);  // 빈 문자열 값도 자리를 차지하도록 길이가 아니라 순서로
+            }
+            if (value == null) {
+                sb.append(NULL);
+                continue;
+            }
+            sb.append(Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(String.valueOf(value).getBytes(StandardCharsets.UTF_8)));
+        }
+        return sb.toString();
+    }
+
+    // null 이었던 값은 null 로 돌려줌
+    static List<String> decode(String cursor, int expectedSize) {
+        String[] tokens = cursor.split("\\" + SEPARATOR, -1);
+        if (tokens.length != expectedSize) {
+            throw new IllegalArgumentException("정렬 조건과 맞지 않는 커서입니다: " + cursor);
+        }
+
+        List<String> values = new ArrayList<>(tokens.length);
+        try {
+            for (String token : tokens) {
+                if (NULL.equals(token)) {
+                    values.add(null);
+                    continue;
+                }
+                values.add(new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8));
+            }
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("잘못된 커서입니다: " + cursor, e);
+        }
+        return values;
+    }
+}
@@ -0,0 +1,37 @@
+package study.datajpa.repository;
+
+import lombok.Getter;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keyset(seek) 페이징 결과
+ * count 쿼리 없이 다음 페이지 존재 여부와 다음 페이지 요청에 쓸 커서(nextCursor)만 내려준다.
+ */
+@Getter
+public class KeysetSlice<T> {
+
+    private final List<T> content;
+    private final String nextCursor;  // 다음 페이지 요청 시 after 파라미터로 그대로 넘기면 됨 (없으면 null)
+    private final boolean hasNext;
+
+    public KeysetSlice(List<T> content, String nextCursor) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+        this.hasNext = nextCursor != null;
+    }
+
+    public int getSize() {
+        return content.size();
+    }
+
+    // Page.map() 처럼 엔티티를 DTO로 변환할 때 사용
+    public <U> KeysetSlice<U> map(Function<? super T, ? extends U> converter) {
+        List<U> converted = content.stream()
+                .map(converter)
+                .collect(Collectors.toList());
+        return new KeysetSlice<>(converted, nextCursor);
+    }
+}
@@ -0,0 +1,30 @@
+package study.datajpa.repository;
+
+import javax.persistence.LockModeType;
+
+/**
+ * 조회할 때 어떤 락을 걸지 호출마다 선택 (findByIdWithLock, findByUsernameWithLock)
+ * Member/Team 은 @Version 이 있으므로 NONE 이어도 수정 시에는 version 으로 충돌을 검사한다.
+ */
+public enum LockingMode {
+
+    NONE(LockModeType.NONE),
+    OPTIMISTIC(LockModeType.OPTIMISTIC),                                   // 수정하지 않았어도 커밋 시 version 이 그대로인지 확인
+    OPTIMISTIC_FORCE_INCREMENT(LockModeType.OPTIMISTIC_FORCE_INCREMENT),   // 수정하지 않았어도 version 증가 (연관 엔티티 변경을 루트로 묶을 때)
+    PESSIMISTIC_WRITE(LockModeType.PESSIMISTIC_WRITE);                     // select ... for update, 트랜잭션 끝까지 행 락
+
+    private final LockModeType lockModeType;
+
+    LockingMode(LockModeType lockModeType) {
+        this.lockModeType = lockModeType;
+    }
+
+    public LockModeType getLockModeType() {
+        return lockModeType;
+    }
+
+    // DB 락을 잡지 않고 커밋 시점에 충돌을 확인하는 방식인지 (충돌 시 재시도로 처리)
+    public boolean isOptimistic() {
+        return this != PESSIMISTIC_WRITE;
+    }
+}
@@ -1,12 +1,17 @@
 package study.datajpa.repository;
 
+import org.hibernate.jpa.QueryHints;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Repository;
 import study.datajpa.entity.Member;
+import study.datajpa.entity.event.BulkUpdatedEvent;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public class MemberJpaRepository {
@@ -14,6 +19,9 @@ public class MemberJpaRepository {
     @PersistenceContext
     private EntityManager em;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     public Member save(Member member) {
         em.persist(member);
 
@@ -25,10 +33,19 @@ public class MemberJpaRepository {
     }
 
     public List<Member> findAll() {
-        return em.createQuery("select m from Member m", Member.class)
+        return em.createNamedQuery("Member.all", Member.class)
                 .getResultList();
     }
 
+    // 전체 조회 스트림 (DB 커서로 fetchSize 만큼씩 읽고, 꺼낼 때마다 detach 해서 메모리 일정하게 유지)
+    public Stream<Member> streamAll(int fetchSize) {
+        return em.createNamedQuery("Member.all", Member.class)
+                .setHint(QueryHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(QueryHints.HINT_READONLY, true)
+                .getResultStream()
+                .peek(em::detach);
+    }
+
     public Member find(Long id) {
         return em.find(Member.class, id);
     }
@@ -40,12 +57,12 @@ public class MemberJpaRepository {
     }
 
     public long count() {  // count 함수의 반환타입이 long 이므로
-        return em.createQuery("select count(m) from Member m", Long.class)
+        return em.createNamedQuery("Member.countAll", Long.class)
                 .getSingleResult();  // 단건조회
     }
 
     public List<Member> findByUsernameAndAgeGreaterThan(String username, int age) {
-        return em.createQuery("select m from Member m where m.username = :username and m.age > :age")
+        return em.createNamedQuery("Member.byUsernameAndAgeGreaterThan", Member.class)
                 .setParameter("username", username)
                 .setParameter("age", age)
                 .getResultList();
@@ -55,16 +72,35 @@ public class MemberJpaRepository {
      *
      */
     public List<Member> findByPage(int age, int offset, int limit) {
-        return em.createQuery("select m from Member m where m.age = :age order by m.username desc")
+        return em.createNamedQuery("Member.byAgeOrderByUsernameDesc", Member.class)
                         .setParameter("age", age)
                         .setFirstResult(offset)
                         .setMaxResults(limit)
                         .getResultList();
     }
 
+    /** Keyset 페이징 처리
+     *  offset 만큼 건너뛰지 않고 이전 페이지 마지막 회원(username, id) 다음부터 조회
+     *  첫 페이지는 lastUsername, lastId 를 null 로 넘김
+     */
+    public List<Member> findByPageAfter(int age, String lastUsername, Long lastId, int limit) {
+        if (lastUsername == null || lastId == null) {
+            return em.createNamedQuery("Member.byAgeSeekFirst", Member.class)
+                    .setParameter("age", age)
+                    .setMaxResults(limit)
+                    .getResultList();
+        }
+        return em.createNamedQuery("Member.byAgeSeekAfter", Member.class)
+                .setParameter("age", age)
+                .setParameter("username", lastUsername)
+                .setParameter("id", lastId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
     // 페이징 처리 할 전체 갯수
     public long totalCount(int age) {
-        return em.createQuery("select count(m) from Member m where m.age = :age", Long.class)
+        return em.createNamedQuery("Member.countByAge", Long.class)
                 .setParameter("age", age)
                 .getSingleResult();
     }
@@ -74,9 +110,12 @@ public class MemberJpaRepository {
      *
      */
     public int bulkAgePlus(int age) {
-        return em.createQuery("update Member m set m.age = m.age + 1" +
-                "where m.age >= :age")
+        int resultCount = em.createNamedQuery("Member.agePlusOneFrom")
                 .setParameter("age", age)
                 .executeUpdate();
+
+        // 벌크 연산은 JPA 콜백을 안 타므로 직접 알려줌 (CountCache 무효화 등)
+        eventPublisher.publishEvent(new BulkUpdatedEvent(Member.class));
+        return resultCount;
     }
 }
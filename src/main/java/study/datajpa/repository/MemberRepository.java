@@ -4,8 +4,12 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.config.AsyncConfig;
 import study.datajpa.dto.MemberDto;
 import study.datajpa.entity.Member;
+import study.datajpa.repository.support.InClauseChunker;
 
 import javax.persistence.Lob;
 import javax.persistence.LockModeType;
@@ -13,8 +17,11 @@ import javax.persistence.QueryHint;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
-public interface MemberRepository extends JpaRepository<Member, Long>, MemberRepositoryCustom {
+// 선언한 쿼리 메서드는 기본으로 트랜잭션이 없으므로 조회용 readOnly 트랜잭션을 기본값으로 (레플리카 라우팅 대상), 쓰기 메서드는 따로 @Transactional
+@Transactional(readOnly = true)
+public interface MemberRepository extends JpaRepository<Member, Long>, MemberRepositoryCustom, PersistAllRepository<Member> {
 
     /**
      * 메소드 이름으로 쿼리 생성
@@ -34,18 +41,36 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
     List<String> findUsernameList();
 
     // DTO 조회
+    @ReadOnlyQuery
     @Query("select new study.datajpa.dto.MemberDto(m.id, m.username, t.name) from Member m join m.team t")
     List<MemberDto> findMemberDto();
 
     // 컬렉션 파라미터 바인딩
+    // in 파라미터 갯수는 2의 거듭제곱으로 패딩됨 (hibernate.query.in_clause_parameter_padding → 쿼리 플랜 캐시 재사용)
+    // 한번에 InClauseChunker.CHUNK_SIZE 개까지, 그보다 많으면 findByNames 로
     @Query("select m from Member m where m.username in :names")
-    List<Member> findByNames(@Param("names") Collection<String> names);
+    List<Member> findByNamesChunk(@Param("names") Collection<String> names);
+
+    // names 가 아무리 많아도 CHUNK_SIZE 개씩 나눠서 조회 후 합침 (같은 트랜잭션)
+    default List<Member> findByNames(Collection<String> names) {
+        return InClauseChunker.query(names, this::findByNamesChunk);
+    }
+
+    List<Member> findByIdIn(Collection<Long> ids);
+
+    // SimpleJpaRepository.findAllById 대신 청크로 나눠서 조회 (id 가 수천 개여도 드라이버 파라미터 제한에 안 걸림)
+    @Override
+    default List<Member> findAllById(Iterable<Long> ids) {
+        return InClauseChunker.query(ids, this::findByIdIn);
+    }
 
     /**
      * 여러가지 쿼리 반환타입
      * (메소드 명 아무렇게나 지으면 됨 --> find...By  )
      */
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))  // 쿼리 캐시
     List<Member> findByUsername(String username); // 컬렉션
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     Member findMemberByUsername(String username); // 단건
     Optional<Member> findOptionalByUsername(String username); // 단건 optional
 
@@ -58,8 +83,9 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
      * 벌크성 쿼리
      *
      */
+    @Transactional
     @Modifying(clearAutomatically = true)// .executeUpdate(); 를 실행해주는 어노테이션이므로 꼭 넣어주어야 함
-    @Query("update Member m set m.age = m.age + 1 where m.age >= :age")
+    @Query("update versioned Member m set m.age = m.age + 1 where m.age >= :age")  // versioned: version 도 같이 증가
     int bulkAgePlus(@Param("age") int age);
 
     /** 1. 패치조인
@@ -82,13 +108,15 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
      * JPA SQL Hint
      *
      */
-    @QueryHints(value = @QueryHint(name = "org.hibernate.readOnly", value = "true"))
+    @ReadOnlyQuery  // org.hibernate.readOnly 힌트 + readOnly 트랜잭션
     Member findReadOnlyByUsername(String username);
 
     /**
      * JPA lock
-     *
+     * 행 락(select ... for update)을 트랜잭션 끝까지 잡으므로 경합이 적은 수정은
+     * findByIdWithLock(id, LockingMode.OPTIMISTIC) + RetryingTransactionExecutor 를 사용
      */
+    @Transactional
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     List<Member> findLockByUsername(String username);
 
@@ -96,8 +124,27 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
      * projections
      *
      */
+    @ReadOnlyQuery
     List<UsernameOnly> findProjectionsByUsername(@Param("username") String username);
 
+    // 동적 projection: 반환 타입을 호출할 때 지정 (UsernameOnly, UsernameOnlyDto ...)
+    // 인터페이스/DTO 면 해당 컬럼만 select, 엔티티 클래스를 넘기면 읽기 전용 엔티티
+    @ReadOnlyQuery
+    <T> List<T> findReadOnlyProjectionsByUsername(@Param("username") String username, Class<T> type);
+
+    /**
+     * 비동기 조회 (repositoryExecutor 스레드에서 실행, 호출한 스레드는 바로 반환)
+     * 큐가 가득 차면 호출 시점에 TaskRejectedException
+     */
+    @Async(AsyncConfig.REPOSITORY_EXECUTOR)
+    CompletableFuture<Optional<Member>> findAsyncById(Long id);
+
+    @Async(AsyncConfig.REPOSITORY_EXECUTOR)
+    @ReadOnlyQuery
+    @Query(value = "select new study.datajpa.dto.MemberDto(m.id, m.username, t.name) from Member m left join m.team t",
+            countQuery = "select count(m) from Member m")
+    CompletableFuture<Page<MemberDto>> findMemberDtoPageAsync(Pageable pageable);
+
     // 네이티브 쿼리
     @Query(value = "select * from member where username = ?", nativeQuery = true)
     Member findByNativeQuery(String username);
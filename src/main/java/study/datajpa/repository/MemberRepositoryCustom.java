@@ -1,9 +1,83 @@
 package study.datajpa.repository;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import study.datajpa.dto.MemberDto;
 import study.datajpa.entity.Member;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 public interface MemberRepositoryCustom {
     List<Member> findMemberCustom();
+
+    /**
+     * fetch plan 을 골라서 조회 (ex. FetchPlan.MEMBER_TEAM → team 까지 한번에)
+     */
+    List<Member> findAllWith(FetchPlan plan);
+
+    Optional<Member> findByIdWith(Long id, FetchPlan plan);
+
+    /**
+     * 락 방식을 골라서 조회 (쓰기 트랜잭션 안에서 호출할 것)
+     * 충돌 시 재시도는 RetryingTransactionExecutor 참고
+     */
+    Optional<Member> findByIdWithLock(Long id, LockingMode mode);
+
+    List<Member> findByUsernameWithLock(String username, LockingMode mode);
+
+    /**
+     * Keyset(seek) 페이징
+     * after: 이전 페이지의 nextCursor (첫 페이지는 null 또는 빈 문자열)
+     * pageable: 페이지 번호는 무시하고 size 와 sort(id, username, age)만 사용
+     */
+    KeysetSlice<Member> findAllByKeyset(String after, Pageable pageable);
+
+    KeysetSlice<Member> findByAgeByKeyset(int age, String after, Pageable pageable);
+
+    /**
+     * count 쿼리 결과를 CountCache 에 캐시해서 쓰는 페이징
+     * 캐시가 유효하면 Page(CachedCountPage), 쓰기 이후(stale)면 설정(member.paging.stale-count)에 따라
+     * 추정치 Page(approximate=true) 또는 Slice 반환
+     */
+    Slice<Member> findAllWithCachedCount(Pageable pageable);
+
+    Slice<Member> findByAgeWithCachedCount(int age, Pageable pageable);
+
+    // 목록 화면용: MemberDto(id, username, teamName) 컬럼만 읽기 전용으로 조회
+    // 전체 갯수는 위와 같이 캐시하지만 항상 Page 로 반환 (stale 이면 설정과 상관없이 추정치 + approximate=true)
+    CachedCountPage<MemberDto> findMemberDtoWithCachedCount(Pageable pageable);
+
+    // 위와 같은 조회를 repositoryExecutor 스레드에서 실행 (큐가 가득 차면 호출 시점에 TaskRejectedException)
+    CompletableFuture<CachedCountPage<MemberDto>> findMemberDtoWithCachedCountAsync(Pageable pageable);
+
+    /**
+     * 대량 저장 (JDBC 배치 insert)
+     * batchSize 건마다 flush + clear 하므로 호출한 쪽 트랜잭션의 영속성 컨텍스트도 비워진다.
+     * 저장된 Member 는 준영속 상태가 되며, 저장한 건수를 반환
+     * Member 가 가리키는 새 Team 도 같이 배치로 저장하고, 저장한 Member 는 Team.members 에서 빠진다.
+     */
+    long saveAllBatched(Stream<Member> members, int batchSize);
+
+    /**
+     * 전체 조회 스트림 (List 로 한번에 올리지 않고 DB 커서로 fetchSize 만큼씩 읽어옴)
+     * 꺼내는 순간 준영속으로 만들기 때문에 몇 건을 읽든 영속성 컨텍스트가 커지지 않는다.
+     * 트랜잭션 안에서 사용하고, 다 쓰면 반드시 close 할 것 (try-with-resources)
+     */
+    Stream<Member> streamAll(int fetchSize);
+
+    Stream<MemberDto> streamMemberDto(int fetchSize);
+
+    /**
+     * username 검색 (UsernameSearchIndex, 관련도 높은 순으로 최대 limit 건)
+     * prefix: 앞부분 일치, containing: 부분 일치, fuzzy: 오타 허용 (대소문자 무시)
+     * 인덱스는 커밋 후에 갱신되므로 같은 트랜잭션에서 저장한 회원은 아직 검색되지 않는다.
+     */
+    List<Member> searchByUsernamePrefix(String prefix, int limit);
+
+    List<Member> searchByUsernameContaining(String text, int limit);
+
+    List<Member> searchByUsernameFuzzy(String text, int limit);
 }
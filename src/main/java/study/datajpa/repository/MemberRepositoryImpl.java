@@ -1,18 +1,474 @@
 package study.datajpa.repository;
 
-import lombok.RequiredArgsConstructor;
+import org.hibernate.FlushMode;
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.config.AsyncConfig;
+import study.datajpa.dto.MemberDto;
 import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.support.CountCache;
+import study.datajpa.repository.support.InClauseChunker;
+import study.datajpa.repository.support.UsernameMatch;
+import study.datajpa.repository.support.UsernameSearchIndex;
 
 import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
-@RequiredArgsConstructor
 public class MemberRepositoryImpl implements MemberRepositoryCustom {
     private  final EntityManager em;
+    private final CountCache countCache;
+    private final Executor repositoryExecutor;
+    private final TransactionTemplate readOnlyTransaction;
+    private final UsernameSearchIndex usernameSearchIndex;
+
+    public MemberRepositoryImpl(EntityManager em, CountCache countCache,
+                                @Qualifier(AsyncConfig.REPOSITORY_EXECUTOR) Executor repositoryExecutor,
+                                PlatformTransactionManager transactionManager,
+                                UsernameSearchIndex usernameSearchIndex) {
+        this.em = em;
+        this.countCache = countCache;
+        this.usernameSearchIndex = usernameSearchIndex;
+        this.repositoryExecutor = repositoryExecutor;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
 
     @Override
     public List<Member> findMemberCustom() {
-        return em.createQuery("select m from Member m")
+        return em.createNamedQuery("Member.all", Member.class)
+                .getResultList();
+    }
+
+    @Override
+    public List<Member> findAllWith(FetchPlan plan) {
+        TypedQuery<Member> query = em.createQuery("select m from Member m", Member.class);
+        for (Map.Entry<String, Object> hint : plan.hints(em, Member.class).entrySet()) {
+            query.setHint(hint.getKey(), hint.getValue());
+        }
+        return query.getResultList();
+    }
+
+    @Override
+    public Optional<Member> findByIdWith(Long id, FetchPlan plan) {
+        return Optional.ofNullable(em.find(Member.class, id, plan.hints(em, Member.class)));
+    }
+
+    @Override
+    @Transactional
+    public Optional<Member> findByIdWithLock(Long id, LockingMode mode) {
+        return Optional.ofNullable(em.find(Member.class, id, mode.getLockModeType()));
+    }
+
+    @Override
+    @Transactional
+    public List<Member> findByUsernameWithLock(String username, LockingMode mode) {
+        return em.createQuery("select m from Member m where m.username = :username", Member.class)
+                .setParameter("username", username)
+                .setLockMode(mode.getLockModeType())
+                .getResultList();
+    }
+
+    @Override
+    public KeysetSlice<Member> findAllByKeyset(String after, Pageable pageable) {
+        return findByKeyset(null, after, pageable);
+    }
+
+    @Override
+    public KeysetSlice<Member> findByAgeByKeyset(int age, String after, Pageable pageable) {
+        return findByKeyset(age, after, pageable);
+    }
+
+    /**
+     * offset 대신 "마지막으로 본 행 이후" 조건으로 조회하므로 몇 번째 페이지든 인덱스를 타고 바로 찾아감
+     * ex) sort=username,desc 이면
+     *     where m.username < :k0 or m.username is null or (m.username = :k0 and m.id < :k1)
+     *     order by m.username desc nulls last, m.id desc
+     * null 이 될 수 있는 정렬 키(username)는 방향과 상관없이 null 을 맨 뒤로 정렬하고, 비교식에도 null 쪽 조건을 넣는다.
+     * (= / < / > 는 null 과 비교하면 항상 거짓이라 없으면 null 인 행은 다음 페이지에 나오지 않음)
+     */
+    private KeysetSlice<Member> findByKeyset(Integer age, String after, Pageable pageable) {
+        List<Sort.Order> orders = keysetOrders(pageable.getSort());
+        List<Object> lastValues = decodeCursor(after, orders);
+
+        List<String> conditions = new ArrayList<>();
+        if (age != null) {
+            conditions.add("m.age = :age");
+        }
+        if (!lastValues.isEmpty()) {
+            conditions.add(keysetPredicate(orders, lastValues));
+        }
+
+        StringBuilder jpql = new StringBuilder("select m from Member m");
+        if (!conditions.isEmpty()) {
+            jpql.append(" where ").append(String.join(" and ", conditions));
+        }
+        jpql.append(" order by ");
+        for (int i = 0; i < orders.size(); i++) {
+            Sort.Order order = orders.get(i);
+            jpql.append(i == 0 ? "" : ", ")
+                    .append("m.").append(order.getProperty())
+                    .append(order.isAscending() ? " asc" : " desc");
+            if (KeysetKey.of(order.getProperty()).nullable) {
+                jpql.append(" nulls last");
+            }
+        }
+
+        TypedQuery<Member> query = em.createQuery(jpql.toString(), Member.class);
+        if (age != null) {
+            query.setParameter("age", age);
+        }
+        for (int i = 0; i < lastValues.size(); i++) {
+            if (lastValues.get(i) != null) {
+                query.setParameter("k" + i, lastValues.get(i));  // null 값은 is null 로 비교하므로 파라미터 없음
+            }
+        }
+
+        // 한 건 더 가져와서 다음 페이지 존재 여부 판단 (count 쿼리 X)
+        int size = pageable.getPageSize();
+        List<Member> result = query.setMaxResults(size + 1)
+                .getResultList();
+
+        if (result.size() <= size) {
+            return new KeysetSlice<>(result, null);
+        }
+        List<Member> content = result.subList(0, size);
+        return new KeysetSlice<>(content, encodeCursor(content.get(size - 1), orders));
+    }
+
+    // 요청한 정렬 뒤에 id 를 붙여서 정렬 순서가 항상 유일하도록 만듦
+    private List<Sort.Order> keysetOrders(Sort sort) {
+        List<Sort.Order> orders = new ArrayList<>();
+        Sort.Direction lastDirection = Sort.Direction.ASC;
+        boolean hasId = false;
+        for (Sort.Order order : sort) {
+            KeysetKey.of(order.getProperty());  // 지원하지 않는 정렬 속성이면 예외
+            orders.add(order);
+            lastDirection = order.getDirection();
+            hasId |= order.getProperty().equals(KeysetKey.ID.property);
+        }
+        if (!hasId) {
+            orders.add(new Sort.Order(lastDirection, KeysetKey.ID.property));
+        }
+        return orders;
+    }
+
+    // 정렬 키마다 "앞의 키는 같고 이 키는 뒤" 조건을 or 로 연결 (nulls last 기준)
+    private String keysetPredicate(List<Sort.Order> orders, List<Object> lastValues) {
+        List<String> disjuncts = new ArrayList<>();
+        for (int i = 0; i < orders.size(); i++) {
+            Sort.Order order = orders.get(i);
+            String property = "m." + order.getProperty();
+            if (lastValues.get(i) == null) {
+                continue;  // null 은 맨 뒤라 이 키에서 더 뒤인 값이 없음
+            }
+            String after = property + (order.isAscending() ? " > :k" : " < :k") + i;
+            if (KeysetKey.of(order.getProperty()).nullable) {
+                after = "(" + after + " or " + property + " is null)";
+            }
+
+            StringBuilder sb = new StringBuilder("(");
+            for (int j = 0; j < i; j++) {
+                String previous = "m." + orders.get(j).getProperty();
+                sb.append(lastValues.get(j) == null ? previous + " is null" : previous + " = :k" + j).append(" and ");
+            }
+            disjuncts.add(sb.append(after).append(")").toString());
+        }
+        return disjuncts.isEmpty() ? "1 = 0" : "(" + String.join(" or ", disjuncts) + ")";
+    }
+
+    private List<Object> decodeCursor(String after, List<Sort.Order> orders) {
+        if (after == null || after.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<String> tokens = KeysetCursor.decode(after, orders.size());
+        List<Object> values = new ArrayList<>(tokens.size());
+        try {
+            for (int i = 0; i < orders.size(); i++) {
+                String token = tokens.get(i);
+                values.add(token == null ? null : KeysetKey.of(orders.get(i).getProperty()).parser.apply(token));
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("잘못된 커서입니다: " + after, e);
+        }
+        return values;
+    }
+
+    private String encodeCursor(Member last, List<Sort.Order> orders) {
+        List<Object> values = new ArrayList<>(orders.size());
+        for (Sort.Order order : orders) {
+            values.add(KeysetKey.of(order.getProperty()).extractor.apply(last));
+        }
+        return KeysetCursor.encode(values);
+    }
+
+    @Override
+    public Slice<Member> findAllWithCachedCount(Pageable pageable) {
+        TypedQuery<Member> contentQuery = em.createQuery(
+                QueryUtils.applySorting("select m from Member m", pageable.getSort(), "m"), Member.class);
+
+        return sliceWithCachedCount("all", contentQuery, pageable,
+                () -> em.createQuery("select count(m) from Member m", Long.class)
+                        .getSingleResult());
+    }
+
+    @Override
+    public Slice<Member> findByAgeWithCachedCount(int age, Pageable pageable) {
+        TypedQuery<Member> contentQuery = em.createQuery(
+                QueryUtils.applySorting("select m from Member m where m.age = :age", pageable.getSort(), "m"), Member.class)
+                .setParameter("age", age);
+
+        return sliceWithCachedCount("age=" + age, contentQuery, pageable,
+                () -> em.createQuery("select count(m) from Member m where m.age = :age", Long.class)
+                        .setParameter("age", age)
+                        .getSingleResult());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CachedCountPage<MemberDto> findMemberDtoWithCachedCount(Pageable pageable) {
+        TypedQuery<MemberDto> contentQuery = em.createQuery(QueryUtils.applySorting(
+                "select new study.datajpa.dto.MemberDto(m.id, m.username, t.name) from Member m left join m.team t",
+                pageable.getSort(), "m"), MemberDto.class)
+                .setHint(QueryHints.HINT_FLUSH_MODE, FlushMode.COMMIT);
+
+        // 목록 API 는 Page 응답을 유지해야 하므로 stale-count=slice 여도 Slice 로 바꾸지 않음
+        return (CachedCountPage<MemberDto>) sliceWithCachedCount("all", contentQuery, pageable,
+                () -> em.createQuery("select count(m) from Member m", Long.class)
+                        .getSingleResult(), false);
+    }
+
+    // 호출한 스레드에서는 트랜잭션(커넥션)을 시작하지 않고, repositoryExecutor 스레드에서 readOnly 트랜잭션으로 실행
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CompletableFuture<CachedCountPage<MemberDto>> findMemberDtoWithCachedCountAsync(Pageable pageable) {
+        return CompletableFuture.supplyAsync(
+                () -> readOnlyTransaction.execute(status -> findMemberDtoWithCachedCount(pageable)),
+                repositoryExecutor);
+    }
+
+    private <T> Slice<T> sliceWithCachedCount(String predicate, TypedQuery<T> contentQuery,
+                                              Pageable pageable, LongSupplier countQuery) {
+        return sliceWithCachedCount(predicate, contentQuery, pageable, countQuery,
+                countCache.getStalePolicy() == CountCache.StalePolicy.SLICE);
+    }
+
+    /**
+     * 컨텐츠는 size + 1 건을 조회해서 다음 페이지 여부를 항상 정확히 알고,
+     * 전체 갯수는 아래 순서로 결정 (count 쿼리는 마지막 경우에만 실행)
+     * 1. 마지막 페이지면 offset + 조회 건수가 곧 전체 갯수
+     * 2. 캐시가 FRESH 면 캐시 값
+     * 3. 캐시가 STALE 면 추정치(최소한 다음 페이지가 있다는 것과는 맞도록 보정, approximate=true) 또는 staleAsSlice 면 Slice
+     * 4. 캐시가 없거나 TTL 이 지났으면 count 쿼리
+     * Slice 가 아니면 항상 CachedCountPage
+     */
+    private <T> Slice<T> sliceWithCachedCount(String predicate, TypedQuery<T> contentQuery,
+                                              Pageable pageable, LongSupplier countQuery, boolean staleAsSlice) {
+        if (pageable.isUnpaged()) {
+            List<T> content = contentQuery.getResultList();
+            return new CachedCountPage<>(content);
+        }
+
+        int size = pageable.getPageSize();
+        List<T> result = contentQuery.setFirstResult((int) pageable.getOffset())
+                .setMaxResults(size + 1)
                 .getResultList();
+        boolean hasNext = result.size() > size;
+        List<T> content = hasNext ? result.subList(0, size) : result;
+
+        // 컨텐츠 조회 시 auto flush 로 발생한 쓰기까지 반영된 뒤에 캐시 상태 확인
+        CountCache.Lookup lookup = countCache.lookup(Member.class, predicate);
+
+        if (!hasNext && (!content.isEmpty() || pageable.getOffset() == 0)) {
+            long total = pageable.getOffset() + content.size();
+            countCache.put(Member.class, predicate, total, lookup.getGeneration());
+            return new CachedCountPage<>(content, pageable, total, false);
+        }
+
+        switch (lookup.getState()) {
+            case FRESH:
+                return new CachedCountPage<>(content, pageable, lookup.getCount(), false);
+            case STALE:
+                if (staleAsSlice) {
+                    return new SliceImpl<>(content, pageable, hasNext);
+                }
+                long atLeast = pageable.getOffset() + content.size() + (hasNext ? 1 : 0);
+                return new CachedCountPage<>(content, pageable, Math.max(lookup.getCount(), atLeast), true);
+            default:
+                long total = countQuery.getAsLong();
+                countCache.put(Member.class, predicate, total, lookup.getGeneration());
+                return new CachedCountPage<>(content, pageable, total, false);
+        }
+    }
+
+    /**
+     * persist 를 batchSize 만큼 모았다가 flush → JDBC 배치 insert, 바로 clear 해서 힙 사용량을 batchSize 로 제한
+     * - 아직 저장 안 된 Team 은 Member 와 같은 배치로 persist (order_inserts 로 team insert 끼리 먼저 묶여서 나감)
+     * - Member.team 이 가리키는 Team 은 clear 후 준영속이어도 id 만 있으면 FK 저장에는 문제 없음
+     * - changeTeam 이 Team.members(연관관계 주인이 아닌 쪽)에 넣은 Member 는 배치마다 빼줌,
+     *   스트림 내내 같은 Team 객체를 쓰면 members 에 저장한 Member 가 전부 쌓이므로
+     */
+    @Override
+    @Transactional
+    public long saveAllBatched(Stream<Member> members, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+        }
+
+        Session session = em.unwrap(Session.class);
+        Integer previousBatchSize = session.getJdbcBatchSize();
+        session.setJdbcBatchSize(batchSize);
+
+        long count = 0;
+        List<Member> batch = new ArrayList<>(batchSize);
+        try (Stream<Member> stream = members) {
+            Iterator<Member> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                Member member = iterator.next();
+                Team team = member.getTeam();
+                if (team != null && Hibernate.isInitialized(team) && team.isNew()) {
+                    em.persist(team);
+                }
+                em.persist(member);
+                batch.add(member);
+                if (++count % batchSize == 0) {
+                    flushBatch(batch);
+                }
+            }
+            flushBatch(batch);
+        } finally {
+            session.setJdbcBatchSize(previousBatchSize);
+        }
+        return count;
+    }
+
+    private void flushBatch(List<Member> batch) {
+        em.flush();
+        em.clear();
+
+        Set<Member> saved = new HashSet<>(batch);
+        batch.stream()
+                .map(Member::getTeam)
+                .filter(team -> team != null && Hibernate.isInitialized(team) && Hibernate.isInitialized(team.getMembers()))
+                .distinct()
+                .forEach(team -> team.getMembers().removeIf(saved::contains));
+        batch.clear();
+    }
+
+    /**
+     * 하이버네이트 getResultStream() 은 FORWARD_ONLY ScrollableResults 기반이라 fetchSize 단위로 커서를 읽는다.
+     * (MySQL 은 fetchSize 를 적용하려면 useCursorFetch=true 필요)
+     * team 은 패치조인으로 같이 가져오고, 소비될 때 Member 와 Team 을 둘 다 detach (Team 이 남으면 팀 수만큼 쌓임)
+     * 같은 팀의 다음 Member 는 Team 을 다시 만들어서 채우므로 Member 마다 다른 Team 인스턴스일 수 있다.
+     */
+    @Override
+    public Stream<Member> streamAll(int fetchSize) {
+        return em.createQuery("select m from Member m left join fetch m.team", Member.class)
+                .setHint(QueryHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(QueryHints.HINT_READONLY, true)
+                .getResultStream()
+                .peek(member -> {
+                    em.detach(member);
+                    if (member.getTeam() != null) {
+                        em.detach(member.getTeam());
+                    }
+                });
+    }
+
+    // DTO 로 바로 조회하므로 영속성 컨텍스트에 쌓이는 엔티티가 없음
+    @Override
+    public Stream<MemberDto> streamMemberDto(int fetchSize) {
+        return em.createQuery("select new study.datajpa.dto.MemberDto(m.id, m.username, t.name)" +
+                        " from Member m left join m.team t", MemberDto.class)
+                .setHint(QueryHints.HINT_FETCH_SIZE, fetchSize)
+                .getResultStream();
+    }
+
+    @Override
+    public List<Member> searchByUsernamePrefix(String prefix, int limit) {
+        return findInOrder(usernameSearchIndex.prefix(prefix, limit));
+    }
+
+    @Override
+    public List<Member> searchByUsernameContaining(String text, int limit) {
+        return findInOrder(usernameSearchIndex.infix(text, limit));
+    }
+
+    @Override
+    public List<Member> searchByUsernameFuzzy(String text, int limit) {
+        return findInOrder(usernameSearchIndex.fuzzy(text, limit));
+    }
+
+    // 인덱스가 정한 순서대로 엔티티 조회 (그 사이 삭제된 회원은 빠짐)
+    private List<Member> findInOrder(List<UsernameMatch> matches) {
+        if (matches.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Long> ids = matches.stream().map(UsernameMatch::getId).collect(Collectors.toList());
+        Map<Long, Member> byId = InClauseChunker.query(ids, chunk ->
+                em.createQuery("select m from Member m where m.id in :ids", Member.class)
+                        .setParameter("ids", chunk)
+                        .getResultList()).stream()
+                .collect(Collectors.toMap(Member::getId, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * keyset 페이징에서 정렬 키로 쓸 수 있는 속성들
+     */
+    private enum KeysetKey {
+        ID("id", false, Member::getId, Long::valueOf),
+        USERNAME("username", true, Member::getUsername, value -> value),
+        AGE("age", false, Member::getAge, Integer::valueOf);
+
+        private final String property;
+        private final boolean nullable;
+        private final Function<Member, Object> extractor;
+        private final Function<String, Object> parser;
+
+        KeysetKey(String property, boolean nullable, Function<Member, Object> extractor, Function<String, Object> parser) {
+            this.property = property;
+            this.nullable = nullable;
+            this.extractor = extractor;
+            this.parser = parser;
+        }
+
+        static KeysetKey of(String property) {
+            for (KeysetKey key : values()) {
+                if (key.property.equals(property)) {
+                    return key;
+                }
+            }
+            throw new IllegalArgumentException("keyset 페이징에서 지원하지 않는 정렬 속성입니다: " + property);
+        }
     }
 }
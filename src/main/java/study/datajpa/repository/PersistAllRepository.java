@@ -0,0 +1,16 @@
+package study.datajpa.repository;
+
+import java.util.List;
+
+/**
+ * insert 전용 저장 (여러 레포지토리에 붙여 쓰는 공용 fragment)
+ * save 는 새 엔티티인지 판단해서 아니면 merge(select 후 update/insert) 하는데,
+ * 새로 만든 엔티티인 걸 호출하는 쪽이 확실히 알 때는 판단 없이 바로 persist 해서 insert 한번으로 끝낸다.
+ * 이미 있는 id 면 flush(또는 커밋) 시점에 키 중복 예외가 난다.
+ */
+public interface PersistAllRepository<T> {
+
+    <S extends T> S persist(S entity);
+
+    <S extends T> List<S> persistAll(Iterable<S> entities);
+}
@@ -0,0 +1,32 @@
+package study.datajpa.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class PersistAllRepositoryImpl<T> implements PersistAllRepository<T> {
+    private final EntityManager em;
+
+    @Override
+    @Transactional
+    public <S extends T> S persist(S entity) {
+        em.persist(entity);
+        return entity;
+    }
+
+    // 같은 트랜잭션에서 한번에 flush 되므로 hibernate.jdbc.batch_size 만큼 배치 insert 됨
+    @Override
+    @Transactional
+    public <S extends T> List<S> persistAll(Iterable<S> entities) {
+        List<S> result = new ArrayList<>();
+        for (S entity : entities) {
+            em.persist(entity);
+            result.add(entity);
+        }
+        return result;
+    }
+}
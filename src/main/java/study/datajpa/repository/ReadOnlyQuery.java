@@ -0,0 +1,30 @@
+package study.datajpa.repository;
+
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.QueryHint;
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 조회 전용 쿼리 (목록/화면 조회용)
+ * - readOnly 트랜잭션 → 하이버네이트 세션 FlushMode.MANUAL, 커밋 시 flush/dirty checking X
+ * - org.hibernate.readOnly → 조회한 엔티티의 스냅샷(변경 감지용 복사본)을 만들지 않음
+ * - org.hibernate.flushMode=COMMIT → 쿼리 실행 전 auto flush X
+ * DTO/프로젝션 조회와 같이 쓰면 영속성 컨텍스트에 엔티티가 아예 올라오지 않는다.
+ * (커스텀 구현(MemberRepositoryImpl) 메서드에는 힌트가 적용되지 않으므로 직접 setHint 할 것)
+ */
+@Target({ElementType.METHOD, ElementType.ANNOTATION_TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Transactional(readOnly = true)
+@QueryHints({
+        @QueryHint(name = org.hibernate.annotations.QueryHints.READ_ONLY, value = "true"),
+        @QueryHint(name = org.hibernate.annotations.QueryHints.FLUSH_MODE, value = "COMMIT")
+})
+public @interface ReadOnlyQuery {
+}
@@ -25,7 +25,7 @@ public class TeamJpaRepository {
     }
 
     public List<Team> findAll() {
-        return em.createQuery("select t from Team t", Team.class)
+        return em.createNamedQuery("Team.all", Team.class)
                 .getResultList();
     }
 
@@ -39,7 +39,7 @@ public class TeamJpaRepository {
     }
 
     public long count() {
-        return em.createQuery("select count(t) from Team t", Long.class)
+        return em.createNamedQuery("Team.countAll", Long.class)
                 .getSingleResult();
     }
 }
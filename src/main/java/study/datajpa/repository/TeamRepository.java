@@ -1,7 +1,39 @@
 package study.datajpa.repository;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.dto.TeamSummaryDto;
 import study.datajpa.entity.Team;
+import study.datajpa.repository.support.InClauseChunker;
 
-public interface TeamRepository extends JpaRepository<Team, Long> {
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Transactional(readOnly = true)
+public interface TeamRepository extends JpaRepository<Team, Long>, TeamRepositoryCustom, PersistAllRepository<Team> {
+
+    List<Team> findByIdIn(Collection<Long> ids);
+
+    /**
+     * 팀 목록 + 회원 수/평균 나이 (Team 의 집계 컬럼만 읽으므로 회원 수와 상관없이 팀 수만큼)
+     */
+    @ReadOnlyQuery
+    @Query(value = "select new study.datajpa.dto.TeamSummaryDto(t.id, t.name, t.memberCount, t.ageSum) from Team t",
+            countQuery = "select count(t) from Team t")
+    Page<TeamSummaryDto> findSummaries(Pageable pageable);
+
+    @ReadOnlyQuery
+    @Query("select new study.datajpa.dto.TeamSummaryDto(t.id, t.name, t.memberCount, t.ageSum) from Team t where t.id = :id")
+    Optional<TeamSummaryDto> findSummaryById(@Param("id") Long id);
+
+    // in 파라미터를 InClauseChunker.CHUNK_SIZE 개씩 나눠서 조회 (MemberRepository.findAllById 와 같음)
+    @Override
+    default List<Team> findAllById(Iterable<Long> ids) {
+        return InClauseChunker.query(ids, this::findByIdIn);
+    }
 }
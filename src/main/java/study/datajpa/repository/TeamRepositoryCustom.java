@@ -0,0 +1,15 @@
+package study.datajpa.repository;
+
+import study.datajpa.entity.Team;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface TeamRepositoryCustom {
+
+    List<Team> findAllWith(FetchPlan plan);
+
+    Optional<Team> findByIdWith(Long id, FetchPlan plan);
+
+    Optional<Team> findByIdWithLock(Long id, LockingMode mode);
+}
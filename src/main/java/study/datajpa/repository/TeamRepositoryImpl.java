@@ -0,0 +1,40 @@
+package study.datajpa.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Team;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@RequiredArgsConstructor
+public class TeamRepositoryImpl implements TeamRepositoryCustom {
+    private final EntityManager em;
+
+    @Override
+    public List<Team> findAllWith(FetchPlan plan) {
+        // 컬렉션을 같이 가져오면 row 가 member 수만큼 늘어나므로 distinct (SQL 에는 distinct 안 넘김)
+        String jpql = plan.fetchesCollection() ? "select distinct t from Team t" : "select t from Team t";
+        TypedQuery<Team> query = em.createQuery(jpql, Team.class)
+                .setHint(QueryHints.HINT_PASS_DISTINCT_THROUGH, false);
+        for (Map.Entry<String, Object> hint : plan.hints(em, Team.class).entrySet()) {
+            query.setHint(hint.getKey(), hint.getValue());
+        }
+        return query.getResultList();
+    }
+
+    @Override
+    public Optional<Team> findByIdWith(Long id, FetchPlan plan) {
+        return Optional.ofNullable(em.find(Team.class, id, plan.hints(em, Team.class)));
+    }
+
+    @Override
+    @Transactional
+    public Optional<Team> findByIdWithLock(Long id, LockingMode mode) {
+        return Optional.ofNullable(em.find(Team.class, id, mode.getLockModeType()));
+    }
+}
@@ -1,12 +1,16 @@
 package study.datajpa.repository;
 
-import org.springframework.beans.factory.annotation.Value;
-
 public interface UsernameOnly {
-    // 인터페이스 기반의 close projection
-    //String getUsername();
+    // 인터페이스 기반의 close projection (select 절에 username, age 컬럼만)
+    String getUsername();
+
+    int getAge();
 
     // 인터페이스 기반의 open projection
-    @Value("#{target.username + ' ' + target.age}")
-    String getUsername();
+    // → 엔티티를 통째로 조회한 뒤 row 마다 SpEL 을 평가하므로 느림. 조합은 default 메서드로 (close projection 유지)
+    //@Value("#{target.username + ' ' + target.age}")
+    //String getUsername();
+    default String getUsernameAndAge() {
+        return getUsername() + " " + getAge();
+    }
 }
@@ -0,0 +1,165 @@
+package study.datajpa.repository.support;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * id 단건 조회를 짧은 시간(window) 동안 모아서 where id in (...) 한 번으로 조회
+ * - 같은 id 를 동시에 요청하면(아직 결과가 안 나온 요청 포함) 같은 future 를 돌려줌
+ * - window 안에 maxBatchSize 개가 모이면 기다리지 않고 바로 조회
+ * - 조회(batchLoader)는 executor 에서 실행 (repositoryExecutor 면 동시 조회 수가 커넥션 수로 제한됨)
+ * 결과 엔티티는 조회 트랜잭션이 끝난 준영속 상태이므로 지연 로딩 연관관계는 쓰지 말 것
+ */
+@Slf4j
+public class BatchingLoader<ID, T> implements AutoCloseable {
+
+    private final String name;
+    private final Function<Collection<ID>, Map<ID, T>> batchLoader;
+    private final Executor executor;
+    private final long windowMicros;
+    private final int maxBatchSize;
+    private final ScheduledExecutorService timer;
+
+    // pending: 아직 조회 전 (window 대기중), inFlight: 조회중 → 둘 다 같은 id 요청을 합치는 데 사용
+    private final Object lock = new Object();
+    private Map<ID, CompletableFuture<Optional<T>>> pending = new HashMap<>();
+    private final ConcurrentMap<ID, CompletableFuture<Optional<T>>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();   // 이미 요청중인 id 라서 쿼리 없이 합쳐진 요청
+    private final LongAdder batches = new LongAdder();
+
+    public BatchingLoader(String name, Function<Collection<ID>, Map<ID, T>> batchLoader, Executor executor,
+                          Duration window, int maxBatchSize) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be positive: " + maxBatchSize);
+        }
+        this.name = name;
+        this.batchLoader = batchLoader;
+        this.executor = executor;
+        this.windowMicros = TimeUnit.NANOSECONDS.toMicros(window.toNanos());
+        this.maxBatchSize = maxBatchSize;
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "batching-loader-" + name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public CompletableFuture<Optional<T>> load(ID id) {
+        requests.increment();
+        Map<ID, CompletableFuture<Optional<T>>> full = null;
+        CompletableFuture<Optional<T>> future;
+        synchronized (lock) {
+            future = pending.get(id);
+            if (future == null) {
+                future = inFlight.get(id);
+            }
+            if (future != null) {
+                coalesced.increment();
+                return future;
+            }
+            future = new CompletableFuture<>();
+            pending.put(id, future);
+            if (pending.size() == 1) {
+                timer.schedule(this::flush, windowMicros, TimeUnit.MICROSECONDS);
+            }
+            if (pending.size() >= maxBatchSize) {
+                full = takePending();
+            }
+        }
+        if (full != null) {
+            dispatch(full);
+        }
+        return future;
+    }
+
+    // window 가 끝나기 전에 모인 요청을 바로 조회
+    public void flush() {
+        Map<ID, CompletableFuture<Optional<T>>> batch;
+        synchronized (lock) {
+            batch = takePending();
+        }
+        dispatch(batch);
+    }
+
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    public long getBatches() {
+        return batches.sum();
+    }
+
+    @Override
+    public void close() {
+        timer.shutdownNow();
+        flush();
+    }
+
+    private Map<ID, CompletableFuture<Optional<T>>> takePending() {
+        Map<ID, CompletableFuture<Optional<T>>> batch = pending;
+        pending = new HashMap<>();
+        inFlight.putAll(batch);
+        return batch;
+    }
+
+    private void dispatch(Map<ID, CompletableFuture<Optional<T>>> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        batches.increment();
+
+        List<ID> ids = new ArrayList<>(batch.keySet());
+        try {
+            executor.execute((BatchTask) () -> {
+                try {
+                    Map<ID, T> loaded = batchLoader.apply(ids);
+                    batch.forEach((id, future) -> complete(id, future, Optional.ofNullable(loaded.get(id))));
+                } catch (Throwable e) {
+                    log.warn("{}: batch load of {} ids failed", name, ids.size(), e);
+                    batch.forEach((id, future) -> fail(id, future, e));
+                }
+            });
+        } catch (RuntimeException e) {
+            // executor 가 가득 참 (TaskRejectedException) → 이 배치의 요청은 모두 실패
+            batch.forEach((id, future) -> fail(id, future, e));
+        }
+    }
+
+    /**
+     * executor 에 넘기는 배치 조회 (여러 요청의 id 를 모은 것이라 넘긴 스레드의 요청 컨텍스트를 이어받지 않도록 표시)
+     */
+    public interface BatchTask extends Runnable {
+    }
+
+    private void complete(ID id, CompletableFuture<Optional<T>> future, Optional<T> value) {
+        inFlight.remove(id, future);
+        future.complete(value);
+    }
+
+    private void fail(ID id, CompletableFuture<Optional<T>> future, Throwable e) {
+        inFlight.remove(id, future);
+        future.completeExceptionally(e);
+    }
+}
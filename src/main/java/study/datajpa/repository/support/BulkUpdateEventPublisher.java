@@ -0,0 +1,29 @@
+package study.datajpa.repository.support;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.event.BulkUpdatedEvent;
+
+/**
+ * MemberRepository 의 @Modifying 쿼리(bulkAgePlus 등)와 deleteInBatch/deleteAllInBatch 가 끝나면 BulkUpdatedEvent 발행
+ * 벌크 연산(JPQL delete 포함)은 JPA 콜백을 타지 않으므로 캐시 무효화 등은 이 이벤트를 보고 처리한다.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class BulkUpdateEventPublisher {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @AfterReturning("(execution(* study.datajpa.repository.MemberRepository.*(..))" +
+            " && @annotation(org.springframework.data.jpa.repository.Modifying))" +
+            " || (target(study.datajpa.repository.MemberRepository)" +
+            " && (execution(* deleteInBatch(..)) || execution(* deleteAllInBatch(..))))")
+    public void afterMemberBulkUpdate() {
+        eventPublisher.publishEvent(new BulkUpdatedEvent(Member.class));
+    }
+}
@@ -0,0 +1,147 @@
+package study.datajpa.repository.support;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.datajpa.entity.event.BulkUpdatedEvent;
+import study.datajpa.entity.event.EntityChangedEvent;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 페이징용 전체 갯수(count 쿼리 결과) 캐시
+ * 엔티티 타입 + 조건(predicate) 별로 갯수를 저장하고, 해당 엔티티에 쓰기가 일어나면 세대(generation)를 올려서 stale 처리한다.
+ * - FRESH   : TTL 이내 + 이후 쓰기 없음 → 그대로 사용
+ * - STALE   : TTL 이내지만 쓰기가 있었음 → 추정치로 쓰거나(ESTIMATE) Slice 로 응답(SLICE)
+ * - MISSING : 없거나 TTL 지남 → count 쿼리 다시 실행
+ */
+@Component
+public class CountCache {
+
+    public enum State {
+        FRESH, STALE, MISSING
+    }
+
+    public enum StalePolicy {
+        ESTIMATE, SLICE
+    }
+
+    private final Duration ttl;
+    @Getter
+    private final StalePolicy stalePolicy;
+
+    private final ConcurrentMap<Class<?>, AtomicLong> generations = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, CachedCount> counts = new ConcurrentHashMap<>();
+
+    public CountCache(@Value("${member.paging.count-cache-ttl:30s}") Duration ttl,
+                      @Value("${member.paging.stale-count:estimate}") StalePolicy stalePolicy) {
+        this.ttl = ttl;
+        this.stalePolicy = stalePolicy;
+    }
+
+    public Lookup lookup(Class<?> entityType, String predicate) {
+        long generation = generation(entityType).get();
+        CachedCount cached = counts.get(key(entityType, predicate));
+
+        if (cached == null || System.nanoTime() - cached.loadedAt > ttl.toNanos()) {
+            return new Lookup(State.MISSING, -1, generation);
+        }
+        State state = cached.generation == generation ? State.FRESH : State.STALE;
+        return new Lookup(state, cached.count, generation);
+    }
+
+    /**
+     * generation 은 count 쿼리 실행 전에 받은 Lookup 의 값을 넘겨야 함
+     * (count 도중 쓰기가 일어났다면 저장하자마자 stale 로 취급됨)
+     */
+    public void put(Class<?> entityType, String predicate, long count, long generation) {
+        counts.put(key(entityType, predicate), new CachedCount(count, generation, System.nanoTime()));
+    }
+
+    public void invalidate(Class<?> entityType) {
+        generation(entityType).incrementAndGet();
+
+        // 커밋 전에 다른 트랜잭션이 옛날 갯수로 다시 캐시할 수 있으므로 트랜잭션이 끝난 뒤 한번 더 무효화
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            InvalidateAfterCompletion synchronization = new InvalidateAfterCompletion(entityType);
+            if (!TransactionSynchronizationManager.getSynchronizations().contains(synchronization)) {
+                TransactionSynchronizationManager.registerSynchronization(synchronization);
+            }
+        }
+    }
+
+    @EventListener
+    public void onEntityChanged(EntityChangedEvent event) {
+        invalidate(event.getEntityType());
+    }
+
+    @EventListener
+    public void onBulkUpdated(BulkUpdatedEvent event) {
+        invalidate(event.getEntityType());
+    }
+
+    private AtomicLong generation(Class<?> entityType) {
+        return generations.computeIfAbsent(entityType, type -> new AtomicLong());
+    }
+
+    private static String key(Class<?> entityType, String predicate) {
+        return entityType.getName() + ":" + predicate;
+    }
+
+    @Getter
+    public static class Lookup {
+        private final State state;
+        private final long count;
+        private final long generation;
+
+        private Lookup(State state, long count, long generation) {
+            this.state = state;
+            this.count = count;
+            this.generation = generation;
+        }
+    }
+
+    private static class CachedCount {
+        private final long count;
+        private final long generation;
+        private final long loadedAt;
+
+        private CachedCount(long count, long generation, long loadedAt) {
+            this.count = count;
+            this.generation = generation;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    private class InvalidateAfterCompletion implements TransactionSynchronization {
+        private final Class<?> entityType;
+
+        private InvalidateAfterCompletion(Class<?> entityType) {
+            this.entityType = entityType;
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            generation(entityType).incrementAndGet();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            return entityType.equals(((InvalidateAfterCompletion) o).entityType);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(entityType);
+        }
+    }
+}
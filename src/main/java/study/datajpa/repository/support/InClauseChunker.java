@@ -0,0 +1,53 @@
+package study.datajpa.repository.support;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * in (...) 파라미터가 많을 때 나눠서 조회하고 결과를 합침
+ * - 파라미터는 중복 제거 (같은 값이 여러 청크에 들어가서 결과가 중복되지 않도록)
+ * - CHUNK_SIZE 를 2의 거듭제곱으로 둬서 hibernate.query.in_clause_parameter_padding 으로 늘어나도 넘지 않음
+ *   (Oracle in 목록 최대 1000개, SQL Server 파라미터 최대 2100개 이하)
+ */
+public final class InClauseChunker {
+
+    public static final int CHUNK_SIZE = 512;
+
+    private InClauseChunker() {
+    }
+
+    public static <P, R> List<R> query(Iterable<P> values, Function<Collection<P>, List<R>> query) {
+        return query(values, CHUNK_SIZE, query);
+    }
+
+    public static <P, R> List<R> query(Iterable<P> values, int chunkSize, Function<Collection<P>, List<R>> query) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+        }
+        LinkedHashSet<P> distinct = new LinkedHashSet<>();
+        values.forEach(distinct::add);
+        if (distinct.isEmpty()) {
+            return new ArrayList<>();  // in () 는 DB 마다 문법 오류라 쿼리 없이 반환
+        }
+        if (distinct.size() <= chunkSize) {
+            return query.apply(distinct);
+        }
+
+        List<R> result = new ArrayList<>();
+        List<P> chunk = new ArrayList<>(chunkSize);
+        for (P value : distinct) {
+            chunk.add(value);
+            if (chunk.size() == chunkSize) {
+                result.addAll(query.apply(chunk));
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            result.addAll(query.apply(chunk));
+        }
+        return result;
+    }
+}
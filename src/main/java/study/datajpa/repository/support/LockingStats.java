@@ -0,0 +1,81 @@
+package study.datajpa.repository.support;
+
+import lombok.Getter;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * RetryingTransactionExecutor 작업별 충돌/재시도 지표
+ */
+public class LockingStats {
+
+    @Getter
+    private final String operation;
+
+    private final LongAdder attempts = new LongAdder();
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder conflicts = new LongAdder();   // 낙관적 락 충돌 + 락 획득 실패(타임아웃, 데드락), 마지막 시도 포함
+    private final LongAdder staleStates = new LongAdder(); // 그 중 낙관적 락 충돌 (버전 불일치로 update/delete 0건)
+    private final LongAdder exhausted = new LongAdder();   // 재시도를 다 쓰고 실패
+    private final LongAdder backoffMillis = new LongAdder();
+    private final LongAccumulator maxAttemptsPerCall = new LongAccumulator(Long::max, 0);
+
+    LockingStats(String operation) {
+        this.operation = operation;
+    }
+
+    void recordAttempt() {
+        attempts.increment();
+    }
+
+    void recordSuccess(int attempt) {
+        successes.increment();
+        maxAttemptsPerCall.accumulate(attempt);
+    }
+
+    // 재시도 여부와 상관없이 충돌한 시도마다 (staleStates 는 항상 conflicts 의 부분집합)
+    void recordConflict(boolean staleState) {
+        conflicts.increment();
+        if (staleState) {
+            staleStates.increment();
+        }
+    }
+
+    void recordBackoff(long backoff) {
+        backoffMillis.add(backoff);
+    }
+
+    void recordExhausted(int attempt) {
+        exhausted.increment();
+        maxAttemptsPerCall.accumulate(attempt);
+    }
+
+    public long getAttempts() {
+        return attempts.sum();
+    }
+
+    public long getSuccesses() {
+        return successes.sum();
+    }
+
+    public long getConflicts() {
+        return conflicts.sum();
+    }
+
+    public long getStaleStates() {
+        return staleStates.sum();
+    }
+
+    public long getExhausted() {
+        return exhausted.sum();
+    }
+
+    public long getBackoffMillis() {
+        return backoffMillis.sum();
+    }
+
+    public long getMaxAttemptsPerCall() {
+        return maxAttemptsPerCall.get();
+    }
+}
@@ -0,0 +1,106 @@
+package study.datajpa.repository.support;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.query.spi.HQLQueryPlan;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.NamedQueries;
+import javax.persistence.NamedQuery;
+import javax.persistence.metamodel.EntityType;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 엔티티에 선언한 @NamedQuery 목록과 각 쿼리의 파싱/플랜 생성 시간
+ * 기동할 때 하나씩 다시 컴파일해서 시간을 재고, 하이버네이트 쿼리 플랜 캐시에 올려둔다.
+ * (플랜 캐시는 JPQL 문자열이 키라서 em.createQuery 로 같은 문자열을 쓰는 곳도 첫 호출부터 캐시 hit)
+ * 문법이 틀린 쿼리는 하이버네이트 기동 검증(hibernate.query.startup_check)에서 이미 실패하므로 여기까지 오지 않는다.
+ */
+@Slf4j
+@Component
+public class QueryRegistry {
+
+    private final SessionFactoryImplementor sessionFactory;
+    private final Map<String, QueryPlan> plans = new ConcurrentHashMap<>();
+
+    public QueryRegistry(EntityManagerFactory emf) {
+        this.sessionFactory = emf.unwrap(SessionFactoryImplementor.class);
+    }
+
+    @PostConstruct
+    public void compileAll() {
+        for (EntityType<?> entity : sessionFactory.getMetamodel().getEntities()) {
+            for (NamedQuery namedQuery : namedQueries(entity.getJavaType())) {
+                register(namedQuery.name(), namedQuery.query());
+            }
+        }
+        log.info("{} named queries compiled in {} ms", plans.size(),
+                String.format("%.1f", plans.values().stream().mapToLong(QueryPlan::getPlanNanos).sum() / 1_000_000.0));
+    }
+
+    /**
+     * 이름 붙인 JPQL 을 컴파일해서 시간을 기록하고 플랜 캐시에 올림 (같은 이름이면 다시 잰다)
+     */
+    public QueryPlan register(String name, String jpql) {
+        long start = System.nanoTime();
+        // 캐시를 거치지 않고 새로 만들어야 실제 파싱/변환 시간이 나옴
+        new HQLQueryPlan(jpql, false, Collections.emptyMap(), sessionFactory);
+        long planNanos = System.nanoTime() - start;
+
+        sessionFactory.getQueryPlanCache().getHQLQueryPlan(jpql, false, Collections.emptyMap());
+
+        QueryPlan plan = new QueryPlan(name, jpql, planNanos);
+        plans.put(name, plan);
+        return plan;
+    }
+
+    public QueryPlan get(String name) {
+        return plans.get(name);
+    }
+
+    // 플랜 생성 시간이 긴 순서
+    public List<QueryPlan> getPlans() {
+        List<QueryPlan> result = new ArrayList<>(plans.values());
+        result.sort(Comparator.comparingLong(QueryPlan::getPlanNanos).reversed());
+        return result;
+    }
+
+    private static List<NamedQuery> namedQueries(Class<?> entityClass) {
+        List<NamedQuery> result = new ArrayList<>();
+        NamedQuery single = entityClass.getAnnotation(NamedQuery.class);
+        if (single != null) {
+            result.add(single);
+        }
+        NamedQueries multiple = entityClass.getAnnotation(NamedQueries.class);
+        if (multiple != null) {
+            Collections.addAll(result, multiple.value());
+        }
+        return result;
+    }
+
+    @Getter
+    public static class QueryPlan {
+
+        private final String name;
+        private final String query;
+        private final long planNanos;
+
+        QueryPlan(String name, String query, long planNanos) {
+            this.name = name;
+            this.query = query;
+            this.planNanos = planNanos;
+        }
+
+        public double getPlanMillis() {
+            return planNanos / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package study.datajpa.repository.support;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.monitoring.RepositoryMetrics;
+import study.datajpa.repository.MemberJpaRepository;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamJpaRepository;
+import study.datajpa.repository.TeamRepository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 기동 직후 대표적인 조회를 몇 번씩 실행해서 쿼리 플랜 캐시, 커넥션 풀, 클래스 로딩/JIT 을 미리 데워둔다.
+ * ContextRefreshedEvent 는 내장 톰캣이 요청을 받기 시작하기 전에 발행되므로 첫 요청부터 평소 응답시간이 나온다.
+ * 모두 읽기 전용 트랜잭션이고 결과는 버린다. (실패해도 기동은 계속하고 로그/ /metrics/queries 에 남김)
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "repository.warmup.enabled", havingValue = "true", matchIfMissing = true)
+public class RepositoryWarmup {
+
+    private static final int PAGE_SIZE = 10;
+
+    private final Map<String, Runnable> calls = new LinkedHashMap<>();
+    private final TransactionTemplate readOnlyTransaction;
+    private final RepositoryMetrics repositoryMetrics;
+    private final int iterations;
+
+    private volatile List<WarmupStep> steps = Collections.emptyList();
+    @Getter
+    private volatile long totalNanos;
+
+    public RepositoryWarmup(MemberJpaRepository memberJpaRepository,
+                            TeamJpaRepository teamJpaRepository,
+                            MemberRepository memberRepository,
+                            TeamRepository teamRepository,
+                            PlatformTransactionManager transactionManager,
+                            RepositoryMetrics repositoryMetrics,
+                            @Value("${repository.warmup.iterations:10}") int iterations) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.repositoryMetrics = repositoryMetrics;
+        this.iterations = Math.max(1, iterations);
+
+        calls.put("MemberJpaRepository.findByPage", () -> memberJpaRepository.findByPage(0, 0, PAGE_SIZE));
+        calls.put("MemberJpaRepository.totalCount", () -> memberJpaRepository.totalCount(0));
+        calls.put("MemberJpaRepository.findByPageAfter", () -> {
+            memberJpaRepository.findByPageAfter(0, null, null, PAGE_SIZE);
+            memberJpaRepository.findByPageAfter(0, "", 0L, PAGE_SIZE);
+        });
+        calls.put("MemberJpaRepository.findByUsernameAndAgeGreaterThan",
+                () -> memberJpaRepository.findByUsernameAndAgeGreaterThan("", 0));
+        calls.put("MemberJpaRepository.count", memberJpaRepository::count);
+        calls.put("TeamJpaRepository.count", teamJpaRepository::count);
+        calls.put("MemberRepository.findByAge",
+                () -> memberRepository.findByAge(0, PageRequest.of(0, PAGE_SIZE, Sort.by(Sort.Direction.DESC, "username"))));
+        calls.put("MemberRepository.findAllByKeyset",
+                () -> memberRepository.findAllByKeyset(null, PageRequest.of(0, PAGE_SIZE, Sort.by("id"))));
+        calls.put("MemberRepository.findOptionalByUsername", () -> memberRepository.findOptionalByUsername(""));
+        calls.put("MemberRepository.findByNames", () -> memberRepository.findByNames(Collections.singletonList("")));
+        calls.put("MemberRepository.findAllById", () -> memberRepository.findAllById(Collections.singletonList(0L)));
+        calls.put("TeamRepository.findSummaries", () -> teamRepository.findSummaries(PageRequest.of(0, PAGE_SIZE)));
+    }
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void warmUp() {
+        long start = System.nanoTime();
+        List<WarmupStep> result = new ArrayList<>();
+        for (Map.Entry<String, Runnable> call : calls.entrySet()) {
+            result.add(run(call.getKey(), call.getValue()));
+        }
+        totalNanos = System.nanoTime() - start;
+        steps = Collections.unmodifiableList(result);
+
+        // 워밍업 호출이 운영 지표(/metrics/repositories)에 섞이지 않게
+        repositoryMetrics.reset();
+        log.info("repository warm-up: {} calls x {} in {} ms", calls.size(), iterations,
+                String.format("%.1f", totalNanos / 1_000_000.0));
+    }
+
+    public List<WarmupStep> getSteps() {
+        return steps;
+    }
+
+    private WarmupStep run(String name, Runnable call) {
+        long firstNanos = 0;
+        long lastNanos = 0;
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            try {
+                readOnlyTransaction.execute(status -> {
+                    call.run();
+                    return null;
+                });
+            } catch (RuntimeException e) {
+                log.warn("repository warm-up failed: {}", name, e);
+                return new WarmupStep(name, i, firstNanos, lastNanos, e.toString());
+            }
+            lastNanos = System.nanoTime() - start;
+            if (i == 0) {
+                firstNanos = lastNanos;
+            }
+        }
+        return new WarmupStep(name, iterations, firstNanos, lastNanos, null);
+    }
+
+    @Getter
+    public static class WarmupStep {
+
+        private final String name;
+        private final int calls;
+        private final long firstNanos;  // 첫 호출 (콜드)
+        private final long lastNanos;   // 마지막 호출 (평소 응답시간에 가까움)
+        private final String failure;
+
+        WarmupStep(String name, int calls, long firstNanos, long lastNanos, String failure) {
+            this.name = name;
+            this.calls = calls;
+            this.firstNanos = firstNanos;
+            this.lastNanos = lastNanos;
+            this.failure = failure;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package study.datajpa.repository.support;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.StaleStateException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.OptimisticLockException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 작업을 새 트랜잭션(REQUIRES_NEW)으로 실행하고, 동시성 충돌이면 backoff 후 처음부터 다시 실행
+ * - 낙관적 락 충돌(ObjectOptimisticLockingFailureException), 락 타임아웃/데드락(PessimisticLockingFailureException) 모두
+ *   ConcurrencyFailureException 하위라서 같이 재시도
+ * - backoff 는 지수 증가 + full jitter (같이 충돌한 트랜잭션들이 동시에 다시 부딪히지 않도록)
+ * - 버전이 바뀌어 update/delete 가 0건이 된 경우(StaleStateException)는 여기서 예상한 충돌이라 따로 세고 debug 로만 남긴다
+ * 재시도할 때마다 엔티티를 새로 조회해야 하므로 작업 안에서 조회부터 수정까지 해야 하고, 외부 부수효과가 없어야 한다.
+ */
+@Slf4j
+@Component
+public class RetryingTransactionExecutor {
+
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    private final ConcurrentMap<String, LockingStats> stats = new ConcurrentHashMap<>();
+
+    public RetryingTransactionExecutor(PlatformTransactionManager transactionManager,
+                                       @Value("${member.locking.max-attempts:5}") int maxAttempts,
+                                       @Value("${member.locking.initial-backoff:10ms}") Duration initialBackoff,
+                                       @Value("${member.locking.max-backoff:200ms}") Duration maxBackoff) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+    }
+
+    public <T> T execute(String operation, TransactionCallback<T> action) {
+        LockingStats operationStats = stats.computeIfAbsent(operation, LockingStats::new);
+
+        for (int attempt = 1; ; attempt++) {
+            operationStats.recordAttempt();
+            try {
+                T result = transactionTemplate.execute(action);
+                operationStats.recordSuccess(attempt);
+                return result;
+            } catch (ConcurrencyFailureException e) {
+                boolean staleState = isStaleState(e);
+                operationStats.recordConflict(staleState);
+                if (staleState) {
+                    log.debug("{} 낙관적 락 충돌 ({}번째 시도): {}", operation, attempt, e.getMessage());
+                }
+                if (attempt >= maxAttempts) {
+                    operationStats.recordExhausted(attempt);
+                    log.warn("{} 충돌로 {}번 시도 후 실패", operation, attempt);
+                    throw e;
+                }
+
+                long backoff = backoffMillis(attempt);
+                operationStats.recordBackoff(backoff);
+                sleep(backoff, e);
+            }
+        }
+    }
+
+    public List<LockingStats> getStats() {
+        List<LockingStats> result = new ArrayList<>(stats.values());
+        result.sort(Comparator.comparing(LockingStats::getOperation));
+        return result;
+    }
+
+    private static boolean isStaleState(ConcurrencyFailureException e) {
+        if (e instanceof ObjectOptimisticLockingFailureException) {
+            return true;
+        }
+        for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof StaleStateException || cause instanceof OptimisticLockException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private long backoffMillis(int attempt) {
+        long ceiling = Math.min(maxBackoff.toMillis(), initialBackoff.toMillis() << Math.min(attempt - 1, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private static void sleep(long millis, ConcurrencyFailureException cause) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw cause;
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package study.datajpa.repository.support;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.entity.event.BulkUpdatedEvent;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Team.memberCount / Team.ageSum 유지
+ * - 회원 저장/수정/삭제: TeamAggregateListener 가 팀별 증감분을 트랜잭션 동안 모았다가 커밋 직전(마지막 flush 이후)에 팀당 update 한 번
+ *   (update team set member_count = member_count + ? ... 로 DB 에서 더하므로 동시에 여러 트랜잭션이 같은 팀을 바꿔도 유실 X)
+ * - 벌크 연산(BulkUpdatedEvent, deleteInBatch 포함): 어떤 회원이 바뀌었는지 모르므로 member 테이블과 값이 다른 팀만 찾아서 다시 계산
+ * - 스프링 트랜잭션 밖의 회원 쓰기(EntityManager 를 직접 만들어 쓴 경우 등)는 커밋에 맞춰 반영할 수 없으므로
+ *   해당 팀을 표시해두고 team.aggregates.repair-delay-millis 가 지난 뒤 다시 계산
+ * JDBC 로 직접 갱신하므로 하이버네이트가 Team 2차 캐시 리전 전체를 비우지 않고, 바뀐 팀만 커밋 후 캐시에서 뺀다.
+ * 같은 트랜잭션의 영속성 컨텍스트에 있는 Team 의 집계 값은 갱신되지 않으므로 집계는 TeamRepository.findSummaries 로 읽을 것
+ */
+@Slf4j
+@Component
+public class TeamAggregates {
+
+    private static final String DELTAS = TeamAggregates.class.getName() + ".DELTAS";
+
+    private static final String APPLY_SQL =
+            "update team set member_count = member_count + ?, age_sum = age_sum + ? where team_id = ?";
+    private static final String CHANGED_TEAMS_SQL = "select t.team_id from team t" +
+            " left join (select m.team_id, count(*) as member_count, sum(m.age) as age_sum" +
+            " from member m where m.team_id is not null group by m.team_id) a on a.team_id = t.team_id" +
+            " where t.member_count <> coalesce(a.member_count, 0) or t.age_sum <> coalesce(a.age_sum, 0)";
+    private static final String RECALCULATE_SQL = "update team set" +
+            " member_count = (select count(*) from member m where m.team_id = ?)," +
+            " age_sum = (select coalesce(sum(m.age), 0) from member m where m.team_id = ?)" +
+            " where team_id = ?";
+
+    private final EntityManagerFactory emf;
+    private final TransactionTemplate transactionTemplate;
+    private final long repairDelayMillis;
+
+    private final ConcurrentMap<Long, Long> staleTeams = new ConcurrentHashMap<>();  // 트랜잭션 밖에서 바뀐 팀 id → 표시한 시각
+
+    public TeamAggregates(EntityManagerFactory emf, PlatformTransactionManager transactionManager,
+                          @Value("${team.aggregates.repair-delay-millis:5000}") long repairDelayMillis) {
+        this.emf = emf;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.repairDelayMillis = repairDelayMillis;
+    }
+
+    public void memberJoined(Long teamId, int age) {
+        add(teamId, 1, age);
+    }
+
+    public void memberLeft(Long teamId, int age) {
+        add(teamId, -1, -age);
+    }
+
+    public void ageChanged(Long teamId, int ageDelta) {
+        add(teamId, 0, ageDelta);
+    }
+
+    /**
+     * member 테이블과 집계가 다른 팀만 다시 계산 (진행중인 트랜잭션이 있으면 그 안에서)
+     * 다른 팀을 찾는 select 는 전체를 읽지만 update 와 2차 캐시 무효화(커밋 후)는 바뀐 팀에만 한다.
+     */
+    public void recalculateChanged() {
+        transactionTemplate.execute(status -> {
+            EntityManager em = EntityManagerFactoryUtils.getTransactionalEntityManager(emf);
+            em.flush();
+            Set<Long> changed = new TreeSet<>(em.unwrap(Session.class).doReturningWork(TeamAggregates::changedTeams));
+            // 다시 계산한 값에 이미 반영되므로 이 트랜잭션에서 모은 증감분은 버림 (그 팀들도 같이 다시 계산)
+            Deltas deltas = currentDeltas();
+            changed.addAll(deltas.pending.keySet());
+            deltas.pending.clear();
+            recalculate(em, changed);
+            return null;
+        });
+    }
+
+    @EventListener
+    public void onBulkUpdated(BulkUpdatedEvent event) {
+        if (event.getEntityType() == Member.class || event.getEntityType() == Team.class) {
+            recalculateChanged();
+        }
+    }
+
+    // 트랜잭션 밖에서 바뀐 팀 (표시한 뒤 repair-delay 가 지나서 그 쓰기가 커밋됐을 때 다시 계산)
+    @Scheduled(fixedDelayString = "${team.aggregates.repair-delay-millis:5000}")
+    public void repairStaleTeams() {
+        repairStaleTeams(System.currentTimeMillis() - repairDelayMillis);
+    }
+
+    void repairStaleTeams(long markedBefore) {
+        List<Long> due = new ArrayList<>();
+        staleTeams.forEach((teamId, markedAt) -> {
+            // 다시 계산하는 동안 또 표시되면 남겨뒀다가 다음에
+            if (markedAt <= markedBefore && staleTeams.remove(teamId, markedAt)) {
+                due.add(teamId);
+            }
+        });
+        if (due.isEmpty()) {
+            return;
+        }
+        transactionTemplate.execute(status -> {
+            recalculate(EntityManagerFactoryUtils.getTransactionalEntityManager(emf), new TreeSet<>(due));
+            return null;
+        });
+        log.info("team aggregates repaired for {} teams", due.size());
+    }
+
+    private void add(Long teamId, int count, int age) {
+        if (teamId == null || (count == 0 && age == 0)) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            staleTeams.put(teamId, System.currentTimeMillis());
+            log.warn("트랜잭션 밖에서 회원이 바뀌어 팀 {} 의 집계는 {}ms 뒤에 다시 계산합니다", teamId, repairDelayMillis);
+            return;
+        }
+        long[] delta = currentDeltas().pending.computeIfAbsent(teamId, id -> new long[2]);
+        delta[0] += count;
+        delta[1] += age;
+    }
+
+    private static List<Long> changedTeams(Connection connection) throws SQLException {
+        List<Long> teamIds = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(CHANGED_TEAMS_SQL)) {
+            while (resultSet.next()) {
+                teamIds.add(resultSet.getLong(1));
+            }
+        }
+        return teamIds;
+    }
+
+    // 팀 id 순서로 (트랜잭션끼리 데드락 방지), 캐시에서는 커밋 후에 뺌
+    private void recalculate(EntityManager em, Set<Long> teamIds) {
+        if (teamIds.isEmpty()) {
+            return;
+        }
+        currentDeltas().applied.addAll(teamIds);
+        em.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(RECALCULATE_SQL)) {
+                for (Long teamId : teamIds) {
+                    statement.setLong(1, teamId);
+                    statement.setLong(2, teamId);
+                    statement.setLong(3, teamId);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        });
+    }
+
+    private Deltas currentDeltas() {
+        Deltas deltas = (Deltas) TransactionSynchronizationManager.getResource(DELTAS);
+        if (deltas == null) {
+            deltas = new Deltas();
+            TransactionSynchronizationManager.bindResource(DELTAS, deltas);
+            TransactionSynchronizationManager.registerSynchronization(deltas);
+            // 커밋할 때의 flush 에서도 증감분이 생기므로 스프링 beforeCommit 이 아니라 하이버네이트가 flush 한 뒤에 반영
+            EntityManagerFactoryUtils.getTransactionalEntityManager(emf)
+                    .unwrap(SessionImplementor.class)
+                    .getActionQueue()
+                    .registerProcess(deltas);
+        }
+        return deltas;
+    }
+
+    private class Deltas implements TransactionSynchronization, BeforeTransactionCompletionProcess {
+
+        private final Map<Long, long[]> pending = new TreeMap<>();  // 팀 id 순서로 update (트랜잭션끼리 데드락 방지)
+        private final Set<Long> applied = new HashSet<>();
+
+        @Override
+        public void doBeforeTransactionCompletion(SessionImplementor session) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            session.doWork(connection -> {
+                try (PreparedStatement statement = connection.prepareStatement(APPLY_SQL)) {
+                    for (Map.Entry<Long, long[]> entry : pending.entrySet()) {
+                        long[] delta = entry.getValue();
+                        if (delta[0] == 0 && delta[1] == 0) {
+                            continue;
+                        }
+                        statement.setLong(1, delta[0]);
+                        statement.setLong(2, delta[1]);
+                        statement.setLong(3, entry.getKey());
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                }
+            });
+            applied.addAll(pending.keySet());
+            log.debug("team aggregates applied for {} teams", pending.size());
+            pending.clear();
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(DELTAS);
+            if (status == STATUS_COMMITTED) {
+                applied.forEach(teamId -> emf.getCache().evict(Team.class, teamId));
+            }
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package study.datajpa.repository.support;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Comparator;
+
+/**
+ * UsernameSearchIndex 검색 결과 한 건 (score 가 클수록 관련도 높음, 검색 방식마다 기준이 다름)
+ */
+@Getter
+@ToString
+public class UsernameMatch {
+
+    // 관련도 높은 순, 같으면 username, id 순
+    public static final Comparator<UsernameMatch> BY_RELEVANCE = Comparator
+            .comparingDouble(UsernameMatch::getScore).reversed()
+            .thenComparing(UsernameMatch::getUsername)
+            .thenComparing(UsernameMatch::getId);
+
+    private final Long id;
+    private final String username;
+    private final double score;
+
+    public UsernameMatch(Long id, String username, double score) {
+        this.id = id;
+        this.username = username;
+        this.score = score;
+    }
+}
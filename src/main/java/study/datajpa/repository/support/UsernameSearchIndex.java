@@ -0,0 +1,402 @@
+package study.datajpa.repository.support;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.event.BulkUpdatedEvent;
+import study.datajpa.entity.event.EntityChangedEvent;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * 회원 username 검색용 메모리 인덱스 (LIKE '%x%' 풀스캔 대신)
+ * - 앞부분 일치(prefix): 소문자 username 정렬 맵 (완전 일치가 맨 앞, 이후 사전순)
+ * - 부분 일치(infix): 2-gram/3-gram 역색인 교집합 후 실제 포함 여부 확인 (한 글자는 prefix 로 처리)
+ * - 유사 검색(fuzzy): 3-gram 자카드 유사도 (오타 허용, 모든 사용자 이름에 흔한 n-gram 은 후보 생성에서 제외)
+ * 커밋된 Member 저장/수정/삭제(EntityChangedEvent)를 커밋 후에 반영하고,
+ * 기동할 때와 벌크 연산 후에는 member 테이블을 id 순으로 chunk-size 건씩 읽어 새로 만든다. (그동안 들어온 변경은 모았다가 다시 적용,
+ * 그동안 다시 요청된 재구성은 끝난 뒤에 한번 더)
+ * 여러 인스턴스로 띄우면 다른 인스턴스의 변경은 다음 재구성 전까지 반영되지 않는다.
+ */
+@Slf4j
+@Component
+public class UsernameSearchIndex {
+
+    public static final int MAX_LIMIT = InClauseChunker.CHUNK_SIZE;  // 결과 id 로 바로 in 조회하므로 한 청크 이내
+
+    private static final double FUZZY_THRESHOLD = 0.3;
+    private static final double COMMON_GRAM_RATIO = 0.2;  // 전체의 20% 이상이 가진 n-gram 은 fuzzy 후보 생성에서 뺌
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private final TransactionTemplate readOnlyTransaction;
+    private final int chunkSize;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Index current = new Index();
+    private List<Consumer<Index>> journal;  // 재구성 중에 들어온 변경 (재구성이 끝나면 새 인덱스에 다시 적용)
+    private boolean rebuildRequested;       // 재구성 중에 다시 요청됨 (lock 안에서만 사용)
+
+    public UsernameSearchIndex(PlatformTransactionManager transactionManager,
+                               @Value("${member.search.rebuild-chunk-size:1000}") int chunkSize) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        // 벌크 연산 커밋 직후(afterCommit)에도 호출되므로 끝난 트랜잭션에 참여하지 않게 항상 새로
+        this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * limit 은 1 이상, MAX_LIMIT 보다 크면 MAX_LIMIT 으로 줄임 (infix, fuzzy 도 같음)
+     */
+    public List<UsernameMatch> prefix(String prefix, int limit) {
+        int max = checkLimit(limit);
+        return read(index -> index.prefix(normalize(prefix), max));
+    }
+
+    public List<UsernameMatch> infix(String text, int limit) {
+        int max = checkLimit(limit);
+        return read(index -> index.infix(normalize(text), max));
+    }
+
+    public List<UsernameMatch> fuzzy(String text, int limit) {
+        int max = checkLimit(limit);
+        return read(index -> index.fuzzy(normalize(text), max));
+    }
+
+    public int size() {
+        return read(index -> index.usernames.size());
+    }
+
+    public void put(Long id, String username) {
+        write(index -> index.put(id, username));
+    }
+
+    public void remove(Long id) {
+        write(index -> index.remove(id));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (!(event.getEntity() instanceof Member)) {
+            return;
+        }
+        Member member = (Member) event.getEntity();
+        if (event.getChangeType() == EntityChangedEvent.ChangeType.DELETED) {
+            remove(member.getId());
+        } else {
+            put(member.getId(), member.getUsername());
+        }
+    }
+
+    // 벌크 연산은 어떤 회원이 바뀌었는지 모르므로 새로 만든다
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBulkUpdated(BulkUpdatedEvent event) {
+        if (event.getEntityType() == Member.class) {
+            rebuild();
+        }
+    }
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            if (journal != null) {
+                rebuildRequested = true;  // 재구성 중이면 끝난 뒤 한번 더 (이미 읽은 범위에 벌크 변경이 빠졌을 수 있음)
+                return;
+            }
+            journal = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        boolean again;
+        do {
+            long start = System.nanoTime();
+            Index rebuilt;
+            try {
+                rebuilt = load();
+            } catch (RuntimeException e) {
+                lock.writeLock().lock();
+                try {
+                    journal = null;  // 기존 인덱스는 계속 변경을 반영하고 있었으므로 그대로 사용
+                    rebuildRequested = false;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                throw e;
+            }
+
+            lock.writeLock().lock();
+            try {
+                journal.forEach(change -> change.accept(rebuilt));
+                current = rebuilt;
+                again = rebuildRequested;
+                rebuildRequested = false;
+                journal = again ? new ArrayList<>() : null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("username search index rebuilt: {} members in {} ms", rebuilt.usernames.size(),
+                    (System.nanoTime() - start) / 1_000_000);
+        } while (again);
+    }
+
+    private Index load() {
+        Index rebuilt = new Index();
+        Long after = 0L;
+        List<Object[]> chunk;
+        do {
+            Long from = after;
+            chunk = readOnlyTransaction.execute(status ->
+                    em.createQuery("select m.id, m.username from Member m where m.id > :after order by m.id", Object[].class)
+                            .setParameter("after", from)
+                            .setMaxResults(chunkSize)
+                            .getResultList());
+            for (Object[] row : chunk) {
+                rebuilt.put((Long) row[0], (String) row[1]);
+                after = (Long) row[0];
+            }
+        } while (chunk.size() == chunkSize);
+        return rebuilt;
+    }
+
+    private <T> T read(Function<Index, T> search) {
+        lock.readLock().lock();
+        try {
+            return search.apply(current);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void write(Consumer<Index> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(current);
+            if (journal != null) {
+                journal.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static int checkLimit(int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit 은 1 이상이어야 합니다: " + limit);
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> grams(String text, int n) {
+        Set<String> result = new LinkedHashSet<>();
+        for (int i = 0; i + n <= text.length(); i++) {
+            result.add(text.substring(i, i + n));
+        }
+        return result;
+    }
+
+    /**
+     * 실제 자료구조 (스레드 안전하지 않음, 바깥 락 안에서만 사용)
+     */
+    private static class Index {
+
+        private final Map<Long, String> usernames = new HashMap<>();                // id → 원래 username
+        private final NavigableMap<String, Set<Long>> byName = new TreeMap<>();   // 소문자 username → id
+        private final Map<String, Set<Long>> postings = new HashMap<>();          // 2-gram, 3-gram → id
+
+        void put(Long id, String username) {
+            if (id == null) {
+                return;
+            }
+            remove(id);
+            if (username == null) {
+                return;
+            }
+            usernames.put(id, username);
+            String name = normalize(username);
+            byName.computeIfAbsent(name, key -> new TreeSet<>()).add(id);
+            for (String gram : indexGrams(name)) {
+                postings.computeIfAbsent(gram, key -> new TreeSet<>()).add(id);
+            }
+        }
+
+        void remove(Long id) {
+            String username = usernames.remove(id);
+            if (username == null) {
+                return;
+            }
+            String name = normalize(username);
+            removeFrom(byName, name, id);
+            for (String gram : indexGrams(name)) {
+                removeFrom(postings, gram, id);
+            }
+        }
+
+        List<UsernameMatch> prefix(String prefix, int limit) {
+            List<UsernameMatch> result = new ArrayList<>();
+            if (prefix.isEmpty()) {
+                return result;
+            }
+            for (Map.Entry<String, Set<Long>> entry : byName.tailMap(prefix, true).entrySet()) {
+                if (!entry.getKey().startsWith(prefix)) {
+                    break;
+                }
+                double score = (double) prefix.length() / entry.getKey().length();
+                for (Long id : entry.getValue()) {
+                    if (result.size() == limit) {
+                        return result;
+                    }
+                    result.add(new UsernameMatch(id, usernames.get(id), score));
+                }
+            }
+            return result;
+        }
+
+        List<UsernameMatch> infix(String text, int limit) {
+            if (text.length() < 2) {
+                return prefix(text, limit);
+            }
+            // 가장 짧은 posting 부터 돌면서 나머지 n-gram 을 모두 가진 id 만 후보로
+            List<Set<Long>> lists = new ArrayList<>();
+            for (String gram : grams(text, Math.min(3, text.length()))) {
+                Set<Long> ids = postings.get(gram);
+                if (ids == null) {
+                    return Collections.emptyList();
+                }
+                lists.add(ids);
+            }
+            lists.sort(Comparator.comparingInt(Set::size));
+
+            PriorityQueue<UsernameMatch> top = new PriorityQueue<>(UsernameMatch.BY_RELEVANCE.reversed());
+            for (Long id : lists.get(0)) {
+                if (!containsAll(lists, id)) {
+                    continue;
+                }
+                String username = usernames.get(id);
+                int position = normalize(username).indexOf(text);
+                if (position < 0) {
+                    continue;
+                }
+                // 앞부분 일치 > 앞쪽에서 일치 > 이름이 짧을수록(검색어가 차지하는 비율이 클수록)
+                double score = (position == 0 ? 1.0 : 0.5 / (1 + position)) + (double) text.length() / username.length();
+                offer(top, new UsernameMatch(id, username, score), limit);
+            }
+            return sorted(top);
+        }
+
+        List<UsernameMatch> fuzzy(String text, int limit) {
+            if (text.isEmpty()) {
+                return Collections.emptyList();
+            }
+            Set<String> queryGrams = text.length() < 3 ? grams(text, text.length()) : grams(text, 3);
+            int commonLimit = Math.max(1, (int) (usernames.size() * COMMON_GRAM_RATIO));
+
+            Map<Long, Integer> shared = new HashMap<>();
+            List<Set<Long>> common = new ArrayList<>();
+            for (String gram : queryGrams) {
+                Set<Long> ids = postings.get(gram);
+                if (ids == null) {
+                    continue;
+                }
+                if (ids.size() > commonLimit) {
+                    common.add(ids);
+                    continue;
+                }
+                ids.forEach(id -> shared.merge(id, 1, Integer::sum));
+            }
+            if (shared.isEmpty()) {
+                // 흔한 n-gram 밖에 없으면 그 중 가장 작은 것 하나로만 후보를 만든다
+                common.stream().min(Comparator.comparingInt(Set::size))
+                        .ifPresent(ids -> ids.forEach(id -> shared.put(id, 0)));
+            }
+
+            PriorityQueue<UsernameMatch> top = new PriorityQueue<>(UsernameMatch.BY_RELEVANCE.reversed());
+            for (Long id : shared.keySet()) {
+                String username = usernames.get(id);
+                Set<String> candidateGrams = grams(normalize(username), queryGrams.iterator().next().length());
+                int intersection = 0;
+                for (String gram : queryGrams) {
+                    if (candidateGrams.contains(gram)) {
+                        intersection++;
+                    }
+                }
+                double score = (double) intersection / (queryGrams.size() + candidateGrams.size() - intersection);
+                if (score >= FUZZY_THRESHOLD) {
+                    offer(top, new UsernameMatch(id, username, score), limit);
+                }
+            }
+            return sorted(top);
+        }
+
+        private static Set<String> indexGrams(String name) {
+            Set<String> result = grams(name, 2);
+            result.addAll(grams(name, 3));
+            if (name.length() == 1) {
+                result.add(name);
+            }
+            return result;
+        }
+
+        private static boolean containsAll(List<Set<Long>> lists, Long id) {
+            for (int i = 1; i < lists.size(); i++) {
+                if (!lists.get(i).contains(id)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static void offer(PriorityQueue<UsernameMatch> top, UsernameMatch match, int limit) {
+            top.offer(match);
+            if (top.size() > limit) {
+                top.poll();  // 가장 관련도 낮은 것 버림
+            }
+        }
+
+        private static List<UsernameMatch> sorted(PriorityQueue<UsernameMatch> top) {
+            List<UsernameMatch> result = new ArrayList<>(top);
+            result.sort(UsernameMatch.BY_RELEVANCE);
+            return result;
+        }
+
+        private static void removeFrom(Map<String, Set<Long>> map, String key, Long id) {
+            Set<Long> ids = map.get(key);
+            if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                map.remove(key);
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package study.datajpa.repository.support.bulk;
+
+import lombok.Getter;
+
+import java.io.Serializable;
+import java.util.BitSet;
+
+/**
+ * 어떤 청크까지 커밋됐는지 기록 (실패 후 같은 작업을 다시 실행하면 완료된 청크는 건너뜀)
+ * 청크 경계는 처음 실행할 때의 min/max id 로 고정되므로 재실행해도 같은 범위로 나뉜다.
+ * 엔진은 메모리에만 보관하므로 재시작 후에 이어서 하려면 직렬화해서 저장해두고 BulkMutationEngine.execute 에 다시 넘긴다.
+ */
+@Getter
+public class BulkCheckpoint implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String name;
+    private final String signature;
+    private final long minId;
+    private final long maxId;
+    private final int chunkSize;
+    private final BitSet completed = new BitSet();
+    private long affectedRows;
+
+    BulkCheckpoint(String name, String signature, long minId, long maxId, int chunkSize) {
+        this.name = name;
+        this.signature = signature;
+        this.minId = minId;
+        this.maxId = maxId;
+        this.chunkSize = chunkSize;
+    }
+
+    public int getTotalChunks() {
+        return (int) ((maxId - minId) / chunkSize + 1);
+    }
+
+    public synchronized int getCompletedChunks() {
+        return completed.cardinality();
+    }
+
+    public synchronized long getAffectedRows() {
+        return affectedRows;
+    }
+
+    synchronized boolean isCompleted(int chunk) {
+        return completed.get(chunk);
+    }
+
+    synchronized int complete(int chunk, int rows) {
+        completed.set(chunk);
+        affectedRows += rows;
+        return completed.cardinality();
+    }
+
+    long fromId(int chunk) {
+        return minId + (long) chunk * chunkSize;
+    }
+
+    long toId(int chunk) {
+        return Math.min(fromId(chunk) + chunkSize, maxId + 1);
+    }
+
+    // 완료된 청크의 id 범위에 속하는지
+    synchronized boolean covers(long id) {
+        if (id < minId || id > maxId) {
+            return false;
+        }
+        return completed.get((int) ((id - minId) / chunkSize));
+    }
+}
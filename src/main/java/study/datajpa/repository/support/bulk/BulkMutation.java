@@ -0,0 +1,72 @@
+package study.datajpa.repository.support.bulk;
+
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 청크로 나눠 실행할 JPQL update/delete 정의
+ * <pre>
+ * BulkMutation.of("update versioned Member m set m.age = m.age + 1 where m.age >= :age")
+ *         .param("age", 20)
+ *         .chunkSize(1000)
+ *         .parallelism(2);
+ * </pre>
+ * - 엔티티에 별칭(m)이 있어야 하고, where 절에 "alias.id 범위" 조건이 덧붙여진다.
+ * - 같은 name 으로 다시 실행하면 실패했던 작업을 이어서 실행 (name 을 안 주면 JPQL 이 이름)
+ */
+@Getter
+public class BulkMutation {
+
+    private final String jpql;
+    private final Map<String, Object> params = new LinkedHashMap<>();
+    private String name;
+    private Integer chunkSize;     // id 범위 크기, 없으면 member.bulk.chunk-size
+    private Integer parallelism;   // 동시에 실행할 청크 수, 없으면 member.bulk.parallelism
+
+    private BulkMutation(String jpql) {
+        this.jpql = jpql.trim();
+        this.name = this.jpql;
+    }
+
+    public static BulkMutation of(String jpql) {
+        return new BulkMutation(jpql);
+    }
+
+    public BulkMutation param(String name, Object value) {
+        params.put(name, value);
+        return this;
+    }
+
+    public BulkMutation name(String name) {
+        this.name = name;
+        return this;
+    }
+
+    public BulkMutation chunkSize(int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    public BulkMutation parallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+        }
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    public Map<String, Object> getParams() {
+        return Collections.unmodifiableMap(params);
+    }
+
+    // 체크포인트가 같은 작업의 것인지 확인용
+    String signature(int resolvedChunkSize) {
+        return jpql + " " + params + " chunk=" + resolvedChunkSize;
+    }
+}
@@ -0,0 +1,321 @@
+package study.datajpa.repository.support.bulk;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.EntityKey;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.event.BulkUpdatedEvent;
+import study.datajpa.repository.support.RetryingTransactionExecutor;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Parameter;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import javax.persistence.metamodel.EntityType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * JPQL update/delete 를 id 범위 청크로 나눠서 청크마다 짧은 트랜잭션(REQUIRES_NEW)으로 실행
+ * - 한번에 잡는 락 범위와 undo/redo 크기가 청크 크기로 제한됨
+ * - 청크는 RetryingTransactionExecutor 로 실행하므로 락 충돌/데드락이면 청크만 재시도
+ * - 실패하면 남은 청크는 실행하지 않고 BulkMutationException(체크포인트 포함)을 던짐
+ *   같은 JVM 에서 같은 이름의 작업을 다시 실행하면 이어서 실행. 재시작 후에도 이어서 하려면 예외의 체크포인트(Serializable)를
+ *   저장해뒀다가 execute(mutation, checkpoint, listener) 로 넘김 (엔진은 체크포인트를 메모리에만 둔다)
+ * - 같은 이름의 작업은 한 JVM 에서 동시에 하나만 실행 (이미 실행중이면 IllegalStateException)
+ * - 끝나면 호출한 쪽 영속성 컨텍스트에서 처리된 id 범위의 엔티티만 detach (clearAutomatically 처럼 전부 비우지 않음)
+ * 청크마다 따로 커밋되므로 호출한 쪽 트랜잭션과 원자적으로 묶이지 않는다.
+ */
+@Slf4j
+@Component
+public class BulkMutationEngine {
+
+    private static final Pattern HEADER = Pattern.compile(
+            "^(update|delete)\\s+(?:versioned\\s+)?(?:from\\s+)?(\\w+)\\s+(?:as\\s+)?(\\w+)\\s", Pattern.CASE_INSENSITIVE);
+    private static final Pattern WHERE = Pattern.compile("\\swhere\\s", Pattern.CASE_INSENSITIVE);
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private final EntityManagerFactory emf;
+    private final RetryingTransactionExecutor executor;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int defaultChunkSize;
+    private final int defaultParallelism;
+
+    private final ConcurrentMap<String, BulkCheckpoint> checkpoints = new ConcurrentHashMap<>();
+    private final Set<String> running = ConcurrentHashMap.newKeySet();  // 같은 체크포인트를 두 실행이 같이 이어받지 않도록
+
+    public BulkMutationEngine(EntityManagerFactory emf,
+                              RetryingTransactionExecutor executor,
+                              PlatformTransactionManager transactionManager,
+                              ApplicationEventPublisher eventPublisher,
+                              @Value("${member.bulk.chunk-size:1000}") int defaultChunkSize,
+                              @Value("${member.bulk.parallelism:1}") int defaultParallelism) {
+        this.emf = emf;
+        this.executor = executor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.defaultChunkSize = defaultChunkSize;
+        this.defaultParallelism = defaultParallelism;
+    }
+
+    public BulkMutationResult execute(BulkMutation mutation) {
+        return execute(mutation, BulkProgressListener.NONE);
+    }
+
+    public BulkMutationResult execute(BulkMutation mutation, BulkProgressListener listener) {
+        return execute(mutation, null, listener);
+    }
+
+    /**
+     * resumeFrom 의 완료된 청크는 건너뛰고 나머지만 실행 (null 이면 같은 이름으로 남아있는 체크포인트, 없으면 처음부터)
+     * resumeFrom 은 같은 작업(JPQL, 파라미터, 청크 크기)의 체크포인트여야 한다.
+     */
+    public BulkMutationResult execute(BulkMutation mutation, BulkCheckpoint resumeFrom, BulkProgressListener listener) {
+        if (!running.add(mutation.getName())) {
+            throw new IllegalStateException(mutation.getName() + ": 같은 이름의 작업이 이미 실행중입니다");
+        }
+        try {
+            return run(mutation, resumeFrom, listener);
+        } finally {
+            running.remove(mutation.getName());
+        }
+    }
+
+    private BulkMutationResult run(BulkMutation mutation, BulkCheckpoint resumeFrom, BulkProgressListener listener) {
+        long start = System.currentTimeMillis();
+        Plan plan = plan(mutation);
+        int chunkSize = mutation.getChunkSize() != null ? mutation.getChunkSize() : defaultChunkSize;
+        int parallelism = mutation.getParallelism() != null ? mutation.getParallelism() : defaultParallelism;
+
+        BulkCheckpoint checkpoint = resumeFrom != null ? resume(mutation, resumeFrom, chunkSize) : checkpoint(mutation, plan, chunkSize);
+        if (checkpoint == null) {
+            return new BulkMutationResult(mutation.getName(), 0, 0, 0, 0, System.currentTimeMillis() - start);
+        }
+
+        int skipped = checkpoint.getCompletedChunks();
+        AtomicInteger executed = new AtomicInteger();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "bulk-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            for (int chunk = 0; chunk < checkpoint.getTotalChunks(); chunk++) {
+                if (checkpoint.isCompleted(chunk)) {
+                    continue;
+                }
+                int current = chunk;
+                workers.execute(() -> {
+                    if (failure.get() != null) {
+                        return;  // 앞선 청크가 실패했으면 나머지는 실행하지 않음
+                    }
+                    try {
+                        runChunk(mutation, plan, checkpoint, current, listener);
+                        executed.incrementAndGet();
+                    } catch (Throwable e) {
+                        failure.compareAndSet(null, e);
+                    }
+                });
+            }
+        } finally {
+            workers.shutdown();
+            awaitTermination(workers);
+        }
+
+        // 일부만 커밋됐어도 다른 캐시(CountCache 등)는 무효화
+        eventPublisher.publishEvent(new BulkUpdatedEvent(plan.entityType.getJavaType()));
+        detachFromCallerContext(plan, checkpoint);
+
+        Throwable cause = failure.get();
+        if (cause != null) {
+            checkpoints.put(mutation.getName(), checkpoint);
+            throw new BulkMutationException(String.format("%s: %d/%d 청크 완료 후 실패",
+                    mutation.getName(), checkpoint.getCompletedChunks(), checkpoint.getTotalChunks()), checkpoint, cause);
+        }
+
+        checkpoints.remove(mutation.getName());
+        return new BulkMutationResult(mutation.getName(), checkpoint.getTotalChunks(), executed.get(), skipped,
+                checkpoint.getAffectedRows(), System.currentTimeMillis() - start);
+    }
+
+    // 실패해서 남아있는 체크포인트 (같은 이름으로 다시 실행하면 이어서 실행)
+    public BulkCheckpoint findCheckpoint(String name) {
+        return checkpoints.get(name);
+    }
+
+    // 이어서 하지 않고 다음에 처음부터 실행 (체크포인트를 밖에 저장해둔 경우 메모리에 남은 것만 버림)
+    public void discardCheckpoint(String name) {
+        checkpoints.remove(name);
+    }
+
+    private void runChunk(BulkMutation mutation, Plan plan, BulkCheckpoint checkpoint, int chunk,
+                          BulkProgressListener listener) {
+        long from = checkpoint.fromId(chunk);
+        long to = checkpoint.toId(chunk);
+
+        int rows = executor.execute("bulk:" + plan.entityType.getName(), status -> {
+            Query query = em.createQuery(plan.chunkJpql);
+            bind(query, mutation.getParams());
+            query.setParameter("bulkFromId", plan.id(from));
+            query.setParameter("bulkToId", plan.id(to));
+            return query.executeUpdate();
+        });
+
+        int completed = checkpoint.complete(chunk, rows);
+        listener.onChunkCompleted(new BulkProgress(mutation.getName(), completed, checkpoint.getTotalChunks(),
+                checkpoint.getAffectedRows(), from, to, rows));
+    }
+
+    private BulkCheckpoint resume(BulkMutation mutation, BulkCheckpoint resumeFrom, int chunkSize) {
+        if (!resumeFrom.getName().equals(mutation.getName()) || !resumeFrom.getSignature().equals(mutation.signature(chunkSize))) {
+            throw new IllegalArgumentException(mutation.getName() + ": 다른 작업의 체크포인트입니다 (" + resumeFrom.getName() + ")");
+        }
+        log.info("{}: 넘겨받은 체크포인트부터 이어서 실행 ({}/{} 청크 완료)",
+                mutation.getName(), resumeFrom.getCompletedChunks(), resumeFrom.getTotalChunks());
+        return resumeFrom;
+    }
+
+    private BulkCheckpoint checkpoint(BulkMutation mutation, Plan plan, int chunkSize) {
+        String signature = mutation.signature(chunkSize);
+        BulkCheckpoint previous = checkpoints.get(mutation.getName());
+        if (previous != null) {
+            if (previous.getSignature().equals(signature)) {
+                log.info("{}: 체크포인트부터 이어서 실행 ({}/{} 청크 완료)",
+                        mutation.getName(), previous.getCompletedChunks(), previous.getTotalChunks());
+                return previous;
+            }
+            log.warn("{}: 작업 정의가 바뀌어서 체크포인트를 버리고 처음부터 실행", mutation.getName());
+        }
+
+        Object[] bounds = transactionTemplate.execute(status -> {
+            Query query = em.createQuery(plan.boundsJpql);
+            bind(query, mutation.getParams());
+            return (Object[]) query.getSingleResult();
+        });
+        if (bounds == null || bounds[0] == null) {
+            return null;  // 대상 없음
+        }
+        return new BulkCheckpoint(mutation.getName(), signature,
+                ((Number) bounds[0]).longValue(), ((Number) bounds[1]).longValue(), chunkSize);
+    }
+
+    /**
+     * 호출한 스레드의 영속성 컨텍스트(트랜잭션 또는 OSIV)에 올라와 있는 엔티티 중 처리된 id 범위의 것만 detach
+     * (2차 캐시는 하이버네이트가 벌크 연산마다 해당 엔티티 리전을 무효화함)
+     */
+    private void detachFromCallerContext(Plan plan, BulkCheckpoint checkpoint) {
+        EntityManager callerEm = EntityManagerFactoryUtils.getTransactionalEntityManager(emf);
+        if (callerEm == null) {
+            return;
+        }
+
+        Class<?> entityClass = plan.entityType.getJavaType();
+        SessionImplementor session = callerEm.unwrap(SessionImplementor.class);
+        List<Object> stale = new ArrayList<>();
+        @SuppressWarnings("unchecked")
+        Map<EntityKey, Object> entities = session.getPersistenceContext().getEntitiesByKey();
+        for (Map.Entry<EntityKey, Object> entry : entities.entrySet()) {
+            Object id = entry.getKey().getIdentifier();
+            if (entityClass.isInstance(entry.getValue()) && id instanceof Number
+                    && checkpoint.covers(((Number) id).longValue())) {
+                stale.add(entry.getValue());
+            }
+        }
+        stale.forEach(callerEm::detach);
+    }
+
+    private Plan plan(BulkMutation mutation) {
+        String jpql = mutation.getJpql();
+        Matcher header = HEADER.matcher(jpql);
+        if (!header.find() || header.group(3).equalsIgnoreCase("set") || header.group(3).equalsIgnoreCase("where")) {
+            throw new IllegalArgumentException("별칭이 있는 JPQL update/delete 만 지원합니다 (ex. update Member m set ...): " + jpql);
+        }
+        String entityName = header.group(2);
+        String alias = header.group(3);
+
+        EntityType<?> entityType = emf.getMetamodel().getEntities().stream()
+                .filter(type -> type.getName().equals(entityName))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("알 수 없는 엔티티: " + entityName));
+        Class<?> idType = entityType.getIdType().getJavaType();
+        if (idType != Long.class && idType != Integer.class) {
+            throw new IllegalArgumentException("숫자 id 엔티티만 지원합니다: " + entityName);
+        }
+        String id = alias + "." + entityType.getId(idType).getName();
+
+        String condition = null;
+        String head = jpql;
+        Matcher where = WHERE.matcher(jpql);
+        if (where.find()) {
+            head = jpql.substring(0, where.start());
+            condition = jpql.substring(where.end());
+        }
+
+        String range = id + " >= :bulkFromId and " + id + " < :bulkToId";
+        String chunkJpql = head + " where " + (condition == null ? range : "(" + condition + ") and " + range);
+        String boundsJpql = "select min(" + id + "), max(" + id + ") from " + entityName + " " + alias
+                + (condition == null ? "" : " where " + condition);
+        return new Plan(entityType, idType, chunkJpql, boundsJpql);
+    }
+
+    private static void bind(Query query, Map<String, Object> params) {
+        for (Parameter<?> parameter : query.getParameters()) {
+            String name = parameter.getName();
+            if (name != null && params.containsKey(name)) {
+                query.setParameter(name, params.get(name));
+            }
+        }
+    }
+
+    private static void awaitTermination(ExecutorService workers) {
+        try {
+            while (!workers.awaitTermination(1, TimeUnit.MINUTES)) {
+                log.info("bulk mutation 청크 완료 대기중");
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class Plan {
+        private final EntityType<?> entityType;
+        private final Class<?> idType;
+        private final String chunkJpql;
+        private final String boundsJpql;
+
+        Plan(EntityType<?> entityType, Class<?> idType, String chunkJpql, String boundsJpql) {
+            this.entityType = entityType;
+            this.idType = idType;
+            this.chunkJpql = chunkJpql;
+            this.boundsJpql = boundsJpql;
+        }
+
+        Object id(long value) {
+            return idType == Integer.class ? (Object) (int) value : (Object) value;
+        }
+    }
+}
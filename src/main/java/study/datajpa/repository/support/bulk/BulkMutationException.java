@@ -0,0 +1,18 @@
+package study.datajpa.repository.support.bulk;
+
+import lombok.Getter;
+
+/**
+ * 청크 실행 실패 (이미 커밋된 청크는 그대로 남아있고, 같은 작업을 다시 실행하면 checkpoint 부터 이어서 실행)
+ * 재시작 후에 이어서 하려면 checkpoint 를 저장해뒀다가 BulkMutationEngine.execute(mutation, checkpoint, listener) 로 넘김
+ */
+@Getter
+public class BulkMutationException extends RuntimeException {
+
+    private final BulkCheckpoint checkpoint;
+
+    BulkMutationException(String message, BulkCheckpoint checkpoint, Throwable cause) {
+        super(message, cause);
+        this.checkpoint = checkpoint;
+    }
+}
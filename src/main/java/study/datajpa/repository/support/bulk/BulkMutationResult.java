@@ -0,0 +1,24 @@
+package study.datajpa.repository.support.bulk;
+
+import lombok.Getter;
+
+@Getter
+public class BulkMutationResult {
+
+    private final String name;
+    private final int totalChunks;
+    private final int executedChunks;   // 이번 실행에서 커밋한 청크 수
+    private final int skippedChunks;    // 이전 실행에서 이미 완료돼서 건너뛴 청크 수
+    private final long affectedRows;    // 이전 실행분 포함 전체
+    private final long elapsedMillis;
+
+    BulkMutationResult(String name, int totalChunks, int executedChunks, int skippedChunks,
+                       long affectedRows, long elapsedMillis) {
+        this.name = name;
+        this.totalChunks = totalChunks;
+        this.executedChunks = executedChunks;
+        this.skippedChunks = skippedChunks;
+        this.affectedRows = affectedRows;
+        this.elapsedMillis = elapsedMillis;
+    }
+}
@@ -0,0 +1,33 @@
+package study.datajpa.repository.support.bulk;
+
+import lombok.Getter;
+
+/**
+ * 청크 하나가 커밋될 때마다 BulkProgressListener 로 전달되는 진행 상황
+ */
+@Getter
+public class BulkProgress {
+
+    private final String name;
+    private final int completedChunks;
+    private final int totalChunks;
+    private final long affectedRows;   // 지금까지 커밋된 전체 row 수
+    private final long chunkFromId;    // 이번 청크 id 범위 [from, to)
+    private final long chunkToId;
+    private final int chunkRows;
+
+    BulkProgress(String name, int completedChunks, int totalChunks, long affectedRows,
+                 long chunkFromId, long chunkToId, int chunkRows) {
+        this.name = name;
+        this.completedChunks = completedChunks;
+        this.totalChunks = totalChunks;
+        this.affectedRows = affectedRows;
+        this.chunkFromId = chunkFromId;
+        this.chunkToId = chunkToId;
+        this.chunkRows = chunkRows;
+    }
+
+    public double getRatio() {
+        return totalChunks == 0 ? 1 : (double) completedChunks / totalChunks;
+    }
+}
@@ -0,0 +1,13 @@
+package study.datajpa.repository.support.bulk;
+
+/**
+ * 청크가 커밋될 때마다 호출 (parallelism > 1 이면 여러 워커 스레드에서 동시에 호출될 수 있음)
+ */
+@FunctionalInterface
+public interface BulkProgressListener {
+
+    BulkProgressListener NONE = progress -> {
+    };
+
+    void onChunkCompleted(BulkProgress progress);
+}
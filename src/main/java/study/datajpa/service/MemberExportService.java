@@ -0,0 +1,92 @@
+package study.datajpa.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.repository.MemberRepository;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * 전체 회원을 MemberDto(id, username, teamName) 로 내보내기
+ * 엔티티를 만들지 않고 DTO 로 바로 조회해서 DB 커서에서 fetch-size 건씩 읽는 대로 out 에 쓴다.
+ * 영속성 컨텍스트에 아무것도 쌓이지 않으므로 건수와 상관없이 메모리 사용량이 일정하다.
+ * (MySQL 은 useCursorFetch=true 여야 실제로 나눠서 읽음, application-perf.yml 참고)
+ */
+@Service
+public class MemberExportService {
+
+    private static final String CSV_HEADER = "id,username,teamName";
+
+    private final MemberRepository memberRepository;
+    private final ObjectWriter jsonWriter;
+    private final int fetchSize;
+
+    public MemberExportService(MemberRepository memberRepository, ObjectMapper objectMapper,
+                               @Value("${member.export.fetch-size:1000}") int fetchSize) {
+        this.memberRepository = memberRepository;
+        this.jsonWriter = objectMapper.writerFor(MemberDto.class);
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * out 은 닫지 않는다 (호출한 쪽에서 gzip 등을 마무리할 수 있도록). 내보낸 건수를 반환
+     */
+    @Transactional(readOnly = true)
+    public long export(MemberFileFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == MemberFileFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        long rows = 0;
+        try (Stream<MemberDto> stream = memberRepository.streamMemberDto(fetchSize)) {
+            Iterator<MemberDto> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                MemberDto member = iterator.next();
+                if (format == MemberFileFormat.CSV) {
+                    writeCsv(writer, member);
+                } else {
+                    writer.write(jsonWriter.writeValueAsString(member));
+                }
+                writer.write('\n');
+                rows++;
+            }
+        }
+        writer.flush();
+        return rows;
+    }
+
+    private static void writeCsv(Writer writer, MemberDto member) throws IOException {
+        writer.write(String.valueOf(member.getId()));
+        writer.write(',');
+        writeCsvField(writer, member.getUsername());
+        writer.write(',');
+        writeCsvField(writer, member.getTeamName());
+    }
+
+    // RFC 4180: 쉼표, 따옴표, 줄바꿈이 있으면 따옴표로 감싸고 안의 따옴표는 두 번 (null 은 빈 값)
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,36 @@
+package study.datajpa.service;
+
+import java.util.Locale;
+
+/**
+ * 회원 내보내기/가져오기 파일 형식
+ */
+public enum MemberFileFormat {
+
+    CSV("text/csv;charset=UTF-8", "csv"),
+    NDJSON("application/x-ndjson;charset=UTF-8", "ndjson");  // 한 줄에 JSON 객체 하나
+
+    private final String contentType;
+    private final String extension;
+
+    MemberFileFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public static MemberFileFormat of(String format) {
+        try {
+            return valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("지원하지 않는 파일 형식입니다: " + format, e);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package study.datajpa.service;
+
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+public class MemberImportError {
+
+    private final long line;  // 파일에서의 줄 번호 (CSV 는 헤더가 1번)
+    private final String message;
+
+    MemberImportError(long line, String message) {
+        this.line = line;
+        this.message = message;
+    }
+}
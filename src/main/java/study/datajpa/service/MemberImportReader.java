@@ -0,0 +1,177 @@
+package study.datajpa.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 가져오기 파일을 한 행씩 읽음 (파일 전체를 메모리에 올리지 않음)
+ * - CSV: 첫 줄은 헤더 (username, age, teamName 순서는 상관없고 다른 컬럼은 무시), RFC 4180 따옴표/줄바꿈 지원
+ * - NDJSON: 한 줄에 {"username": .., "age": .., "teamName": ..}
+ */
+class MemberImportReader {
+
+    private final MemberFileFormat format;
+    private final BufferedReader reader;
+    private final ObjectMapper objectMapper;
+
+    private long line;          // 지금까지 읽은 줄 수
+    private int pushback = -2;  // CSV 에서 한 글자 되돌리기용 (-2 면 없음)
+    private int usernameColumn = -1;
+    private int ageColumn = -1;
+    private int teamNameColumn = -1;
+
+    MemberImportReader(MemberFileFormat format, BufferedReader reader, ObjectMapper objectMapper) throws IOException {
+        this.format = format;
+        this.reader = reader;
+        this.objectMapper = objectMapper;
+        if (format == MemberFileFormat.CSV) {
+            readCsvHeader();
+        }
+    }
+
+    /**
+     * 다음 행 (파일 끝이면 null)
+     */
+    MemberImportRow next() throws IOException {
+        return format == MemberFileFormat.CSV ? nextCsv() : nextNdjson();
+    }
+
+    private void readCsvHeader() throws IOException {
+        List<String> header = readCsvRecord();
+        if (header == null) {
+            throw new IllegalArgumentException("CSV 헤더가 없습니다");
+        }
+        for (int i = 0; i < header.size(); i++) {
+            switch (header.get(i).trim().toLowerCase(Locale.ROOT)) {
+                case "username":
+                    usernameColumn = i;
+                    break;
+                case "age":
+                    ageColumn = i;
+                    break;
+                case "teamname":
+                    teamNameColumn = i;
+                    break;
+                default:
+                    // id 등 나머지 컬럼은 무시 (내보내기 파일을 그대로 올릴 수 있도록)
+            }
+        }
+        if (usernameColumn < 0) {
+            throw new IllegalArgumentException("CSV 헤더에 username 컬럼이 없습니다: " + header);
+        }
+    }
+
+    private MemberImportRow nextCsv() throws IOException {
+        while (true) {
+            long start = line + 1;
+            List<String> fields;
+            try {
+                fields = readCsvRecord();
+            } catch (IllegalStateException e) {
+                return MemberImportRow.invalid(start, e.getMessage());
+            }
+            if (fields == null) {
+                return null;
+            }
+            if (fields.size() == 1 && fields.get(0).isEmpty()) {
+                continue;  // 빈 줄
+            }
+            return new MemberImportRow(start, column(fields, usernameColumn), column(fields, ageColumn),
+                    column(fields, teamNameColumn));
+        }
+    }
+
+    private MemberImportRow nextNdjson() throws IOException {
+        String text;
+        while ((text = reader.readLine()) != null) {
+            line++;
+            if (text.trim().isEmpty()) {
+                continue;
+            }
+            try {
+                JsonNode node = objectMapper.readTree(text);
+                if (!node.isObject()) {
+                    return MemberImportRow.invalid(line, "JSON 객체가 아닙니다");
+                }
+                return new MemberImportRow(line, text(node, "username"), text(node, "age"), text(node, "teamName"));
+            } catch (JsonProcessingException e) {
+                return MemberImportRow.invalid(line, "잘못된 JSON: " + e.getOriginalMessage());
+            }
+        }
+        return null;
+    }
+
+    // 레코드 하나 (따옴표 안의 줄바꿈은 값에 포함), 파일 끝이면 null
+    private List<String> readCsvRecord() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean read = false;
+
+        int c;
+        while ((c = read()) != -1) {
+            read = true;
+            if (quoted) {
+                if (c == '"') {
+                    int next = read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        pushback = next;
+                    }
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                line++;
+                fields.add(field.toString());
+                return fields;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+        }
+        if (!read) {
+            return null;
+        }
+        if (quoted) {
+            throw new IllegalStateException("따옴표가 닫히지 않았습니다");
+        }
+        line++;
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private int read() throws IOException {
+        if (pushback != -2) {
+            int c = pushback;
+            pushback = -2;
+            return c;
+        }
+        return reader.read();
+    }
+
+    private static String column(List<String> fields, int index) {
+        return index >= 0 && index < fields.size() ? fields.get(index) : null;
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+}
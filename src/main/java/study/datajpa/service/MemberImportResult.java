@@ -0,0 +1,30 @@
+package study.datajpa.service;
+
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+public class MemberImportResult {
+
+    private final long rows;            // 읽은 행 수 (빈 줄, 헤더 제외)
+    private final long imported;
+    private final long failed;
+    private final int teamsCreated;     // 파일에 있었지만 DB 에 없어서 새로 만든 팀
+    private final List<MemberImportError> errors;  // 줄 번호 순, 최대 100건 (전체 건수는 failed)
+    private final long elapsedMillis;
+
+    MemberImportResult(long rows, long imported, long failed, int teamsCreated,
+                       List<MemberImportError> errors, long elapsedMillis) {
+        this.rows = rows;
+        this.imported = imported;
+        this.failed = failed;
+        this.teamsCreated = teamsCreated;
+        this.errors = errors;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public double getRowsPerSecond() {
+        return elapsedMillis == 0 ? imported : imported * 1000.0 / elapsedMillis;
+    }
+}
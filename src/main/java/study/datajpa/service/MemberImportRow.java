@@ -0,0 +1,33 @@
+package study.datajpa.service;
+
+/**
+ * 가져오기 파일의 한 행 (파싱 직후에는 문자열 그대로, 검증을 통과하면 id/age/teamId 가 채워짐)
+ */
+class MemberImportRow {
+
+    final long line;
+    final String username;
+    final String ageText;
+    final String teamName;
+    final String error;  // 파싱 자체가 실패한 행
+
+    Long id;
+    int age;
+    Long teamId;
+
+    MemberImportRow(long line, String username, String ageText, String teamName) {
+        this(line, username, ageText, teamName, null);
+    }
+
+    private MemberImportRow(long line, String username, String ageText, String teamName, String error) {
+        this.line = line;
+        this.username = username;
+        this.ageText = ageText;
+        this.teamName = teamName;
+        this.error = error;
+    }
+
+    static MemberImportRow invalid(long line, String error) {
+        return new MemberImportRow(line, null, null, null, error);
+    }
+}
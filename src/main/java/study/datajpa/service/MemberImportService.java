@@ -0,0 +1,299 @@
+package study.datajpa.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.auditing.CachedAuditorAware;
+import study.datajpa.auditing.CoarseClock;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.outbox.OutboxWriter;
+import study.datajpa.repository.TeamRepository;
+import study.datajpa.repository.support.CountCache;
+import study.datajpa.repository.support.TeamAggregates;
+import study.datajpa.repository.support.UsernameSearchIndex;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 파트너 파일(CSV/NDJSON)에서 회원 가져오기
+ * - 파일은 한 행씩 읽고, 팀 이름은 시작할 때 읽어둔 이름 → id 맵으로 바꾼다. (없는 팀은 그때 만들어서 맵에 추가)
+ * - id 는 하이버네이트 시퀀스 생성기(member_seq, 50개씩 할당)에서 받고, chunk-size 건씩 JDBC 배치 insert 로 넣는다.
+ *   (엔티티/영속성 컨텍스트/Team.members 컬렉션을 거치지 않음)
+ * - 청크는 parallelism 개 스레드에서 각자 트랜잭션으로 실행. 청크 하나가 실패하면 그 청크만 한 행씩 다시 넣어서 실패한 행을 골라냄
+ * - Team.memberCount/ageSum 과 outbox 행(CREATED)은 청크마다 같은 트랜잭션에서, 검색 인덱스는 청크 커밋 후 반영하고
+ *   끝나면 count 캐시와 쿼리 캐시를 비운다. (JDBC 로 넣었으므로 하이버네이트가 모름)
+ */
+@Slf4j
+@Service
+public class MemberImportService {
+
+    private static final String INSERT_SQL = "insert into member" +
+            " (member_id, username, age, team_id, version, created_date, last_modified_date, created_by, last_modified_by)" +
+            " values (?, ?, ?, ?, 0, ?, ?, ?, ?)";
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private final EntityManagerFactory emf;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TeamRepository teamRepository;
+    private final TeamAggregates teamAggregates;
+    private final OutboxWriter outboxWriter;
+    private final UsernameSearchIndex usernameSearchIndex;
+    private final CountCache countCache;
+    private final CoarseClock clock;
+    private final CachedAuditorAware auditorAware;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+    private final int parallelism;
+
+    public MemberImportService(EntityManagerFactory emf, JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               TeamRepository teamRepository, TeamAggregates teamAggregates, OutboxWriter outboxWriter,
+                               UsernameSearchIndex usernameSearchIndex, CountCache countCache,
+                               CoarseClock clock, CachedAuditorAware auditorAware, ObjectMapper objectMapper,
+                               @Value("${member.import.chunk-size:1000}") int chunkSize,
+                               @Value("${member.import.parallelism:2}") int parallelism) {
+        this.emf = emf;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.teamRepository = teamRepository;
+        this.teamAggregates = teamAggregates;
+        this.outboxWriter = outboxWriter;
+        this.usernameSearchIndex = usernameSearchIndex;
+        this.countCache = countCache;
+        this.clock = clock;
+        this.auditorAware = auditorAware;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * in 은 닫지 않는다. 형식이 잘못된 행은 건너뛰고 결과의 errors 에 줄 번호와 함께 남김
+     */
+    public MemberImportResult importMembers(MemberFileFormat format, InputStream in) throws IOException {
+        long start = System.currentTimeMillis();
+        MemberImportReader reader = new MemberImportReader(format,
+                new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)), objectMapper);
+
+        Run run = new Run(loadTeamIds());
+        SessionFactoryImplementor sessionFactory = emf.unwrap(SessionFactoryImplementor.class);
+        IdentifierGenerator idGenerator = sessionFactory.getMetamodel().entityPersister(Member.class).getIdentifierGenerator();
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "import-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Semaphore inFlight = new Semaphore(parallelism * 2);  // 읽기가 insert 보다 빨라도 메모리에 쌓이는 청크 수 제한
+
+        try (StatelessSession idSession = sessionFactory.openStatelessSession()) {
+            List<MemberImportRow> chunk = new ArrayList<>(chunkSize);
+            MemberImportRow row;
+            while ((row = reader.next()) != null) {
+                run.rows++;
+                if (!prepare(run, row)) {
+                    continue;
+                }
+                row.id = (Long) idGenerator.generate((SharedSessionContractImplementor) idSession, null);
+                chunk.add(row);
+                if (chunk.size() == chunkSize) {
+                    submit(workers, inFlight, run, chunk);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                submit(workers, inFlight, run, chunk);
+            }
+        } finally {
+            workers.shutdown();
+            awaitTermination(workers);
+            countCache.invalidate(Member.class);
+            emf.getCache().unwrap(Cache.class).evictQueryRegions();
+        }
+
+        List<MemberImportError> errors = new ArrayList<>(run.errors);
+        errors.sort(Comparator.comparingLong(MemberImportError::getLine));
+        MemberImportResult result = new MemberImportResult(run.rows, run.imported.get(), run.failed.get(),
+                run.teamsCreated, errors, System.currentTimeMillis() - start);
+        log.info("member import: {} rows, {} imported, {} failed in {} ms ({} rows/s)", result.getRows(),
+                result.getImported(), result.getFailed(), result.getElapsedMillis(), (long) result.getRowsPerSecond());
+        return result;
+    }
+
+    // 검증하고 age, teamId 를 채움 (읽는 스레드에서만 호출)
+    private boolean prepare(Run run, MemberImportRow row) {
+        if (row.error != null) {
+            run.fail(row.line, row.error);
+            return false;
+        }
+        if (row.username == null || row.username.trim().isEmpty()) {
+            run.fail(row.line, "username 이 없습니다");
+            return false;
+        }
+        try {
+            row.age = row.ageText == null || row.ageText.trim().isEmpty() ? 0 : Integer.parseInt(row.ageText.trim());
+        } catch (NumberFormatException e) {
+            run.fail(row.line, "age 가 숫자가 아닙니다: " + row.ageText);
+            return false;
+        }
+        if (row.age < 0) {
+            run.fail(row.line, "age 는 0 이상이어야 합니다: " + row.age);
+            return false;
+        }
+        if (row.teamName != null && !row.teamName.trim().isEmpty()) {
+            String teamName = row.teamName.trim();
+            row.teamId = run.teamIds.computeIfAbsent(teamName, name -> {
+                run.teamsCreated++;
+                return teamRepository.save(new Team(name)).getId();
+            });
+        }
+        return true;
+    }
+
+    private void submit(ExecutorService workers, Semaphore inFlight, Run run, List<MemberImportRow> chunk) {
+        try {
+            inFlight.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("회원 가져오기가 중단되었습니다", e);
+        }
+        workers.execute(() -> {
+            try {
+                runChunk(run, chunk);
+            } finally {
+                inFlight.release();
+            }
+        });
+    }
+
+    private void runChunk(Run run, List<MemberImportRow> chunk) {
+        try {
+            insert(chunk);
+            run.imported.addAndGet(chunk.size());
+            chunk.forEach(row -> usernameSearchIndex.put(row.id, row.username));
+        } catch (RuntimeException e) {
+            // 배치 중 한 행이라도 실패하면 청크 전체가 롤백되므로 한 행씩 다시 넣어서 실패한 행만 골라냄
+            log.debug("member import chunk failed, retrying row by row", e);
+            for (MemberImportRow row : chunk) {
+                try {
+                    insert(Collections.singletonList(row));
+                    run.imported.incrementAndGet();
+                    usernameSearchIndex.put(row.id, row.username);
+                } catch (RuntimeException rowFailure) {
+                    run.fail(row.line, NestedExceptionUtils.getMostSpecificCause(rowFailure).getMessage());
+                }
+            }
+        }
+    }
+
+    private void insert(List<MemberImportRow> rows) {
+        transactionTemplate.execute(status -> {
+            Timestamp now = Timestamp.valueOf(clock.now());
+            String auditor = auditorAware.currentAuditor();
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows, rows.size(), (ps, row) -> {
+                ps.setLong(1, row.id);
+                ps.setString(2, row.username);
+                ps.setInt(3, row.age);
+                if (row.teamId == null) {
+                    ps.setNull(4, Types.BIGINT);
+                } else {
+                    ps.setLong(4, row.teamId);
+                }
+                ps.setTimestamp(5, now);
+                ps.setTimestamp(6, now);
+                ps.setString(7, auditor);
+                ps.setString(8, auditor);
+            });
+            // 같은 트랜잭션 커밋 직전에 팀당 update 한 번, outbox 는 배치 insert 한 번으로 반영됨
+            rows.forEach(row -> {
+                teamAggregates.memberJoined(row.teamId, row.age);
+                outboxWriter.memberInserted(row.id, row.username, row.age, row.teamId);
+            });
+            return null;
+        });
+    }
+
+    // 같은 이름의 팀이 여러 개면 먼저 만든 팀
+    private Map<String, Long> loadTeamIds() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            Map<String, Long> teamIds = new HashMap<>();
+            for (Object[] row : em.createQuery("select t.name, t.id from Team t order by t.id", Object[].class).getResultList()) {
+                teamIds.putIfAbsent((String) row[0], (Long) row[1]);
+            }
+            return teamIds;
+        } finally {
+            em.close();
+        }
+    }
+
+    private static void awaitTermination(ExecutorService workers) {
+        try {
+            while (!workers.awaitTermination(1, TimeUnit.MINUTES)) {
+                log.info("member import 청크 완료 대기중");
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 가져오기 한 번의 진행 상태
+     */
+    private static class Run {
+
+        private final Map<String, Long> teamIds;  // 읽는 스레드에서만 사용
+        private final AtomicLong imported = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final ConcurrentLinkedQueue<MemberImportError> errors = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger reportedErrors = new AtomicInteger();
+        private long rows;
+        private int teamsCreated;
+
+        Run(Map<String, Long> teamIds) {
+            this.teamIds = teamIds;
+        }
+
+        void fail(long line, String message) {
+            failed.incrementAndGet();
+            if (reportedErrors.incrementAndGet() <= MAX_REPORTED_ERRORS) {
+                errors.add(new MemberImportError(line, message));
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package study.datajpa.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.LockingMode;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.support.RetryingTransactionExecutor;
+import study.datajpa.repository.support.bulk.BulkMutation;
+import study.datajpa.repository.support.bulk.BulkMutationEngine;
+import study.datajpa.repository.support.bulk.BulkMutationResult;
+import study.datajpa.repository.support.bulk.BulkProgressListener;
+
+import javax.persistence.EntityNotFoundException;
+import java.util.function.Consumer;
+
+@Service
+@RequiredArgsConstructor
+public class MemberUpdateService {
+
+    private final MemberRepository memberRepository;
+    private final RetryingTransactionExecutor executor;
+    private final BulkMutationEngine bulkMutationEngine;
+
+    /**
+     * 회원 한 명을 mode 의 락으로 조회해서 change 를 적용 (새 트랜잭션, 충돌하면 다시 조회해서 재시도)
+     * - OPTIMISTIC/NONE : DB 락 없이 version 으로 충돌 검사 → 경합이 적을 때 유리
+     * - PESSIMISTIC_WRITE : select ... for update 로 커밋까지 행 락 → 경합이 심할 때 재시도 비용이 없음
+     * change 는 재시도마다 새로 조회한 엔티티로 다시 호출된다.
+     */
+    public Member update(Long memberId, LockingMode mode, Consumer<Member> change) {
+        return executor.execute("Member.update." + mode, status -> {
+            Member member = memberRepository.findByIdWithLock(memberId, mode)
+                    .orElseThrow(() -> new EntityNotFoundException("Member not found: " + memberId));
+            change.accept(member);
+            memberRepository.flush();  // 충돌을 커밋이 아닌 여기서 바로 확인
+            return member;
+        });
+    }
+
+    /**
+     * MemberRepository.bulkAgePlus 의 청크 버전 (id 범위 member.bulk.chunk-size 건씩 따로 커밋)
+     * 중간에 실패하면 BulkMutationException, 같은 age 로 다시 호출하면 완료된 청크는 건너뛴다.
+     */
+    public BulkMutationResult bulkAgePlus(int age, BulkProgressListener listener) {
+        BulkMutation mutation = BulkMutation.of("update versioned Member m set m.age = m.age + 1 where m.age >= :age")
+                .param("age", age)
+                .name("Member.bulkAgePlus");
+        return bulkMutationEngine.execute(mutation, listener);
+    }
+}
@@ -0,0 +1,25 @@
+package study.datajpa;
+
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 커밋된 결과를 확인해야 하는 테스트 (청크 커밋, 커밋 직전/직후 처리, 여러 스레드) 는 @Transactional 롤백을 쓸 수 없으므로
+ * 공유 DB 대신 인메모리 DB 를 쓰는 isolated 프로파일(application-isolated.yml)로 띄움
+ * 설정이 모두 같아서 스프링 테스트 컨텍스트는 하나만 만들어지고 재사용된다. 대신 테스트가 만든 데이터는 @AfterEach 에서 지울 것
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@SpringBootTest
+@ActiveProfiles("isolated")
+@AutoConfigureMockMvc
+public @interface IsolatedDbTest {
+}
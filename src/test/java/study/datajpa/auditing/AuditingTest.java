@@ -0,0 +1,54 @@
+package study.datajpa.auditing;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import javax.persistence.EntityManager;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class AuditingTest {
+
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    EntityManager em;
+
+    @Test
+    public void auditorCachedPerTransaction() throws Exception {
+        Member memberA = memberRepository.save(new Member("auditA"));
+        Member memberB = memberRepository.save(new Member("auditB"));
+        em.flush();
+
+        assertThat(memberA.getCreatedBy()).isNotNull();
+        assertThat(memberA.getCreatedBy()).isEqualTo(memberB.getCreatedBy());
+        assertThat(memberA.getLastModifiedBy()).isEqualTo(memberA.getCreatedBy());
+        assertThat(memberA.getCreatedDate()).isNotNull();
+        assertThat(memberA.getLastModifiedDate()).isEqualTo(memberA.getCreatedDate());
+
+        Thread.sleep(50);
+        memberA.setUsername("auditA2");
+        em.flush();
+
+        assertThat(memberA.getLastModifiedDate()).isAfter(memberA.getCreatedDate());
+    }
+
+    @Test
+    public void coarseClock() throws Exception {
+        CoarseClock clock = new CoarseClock(Duration.ofMillis(50));
+
+        LocalDateTime first = clock.now();
+        assertThat(first.getNano() % 50_000_000).isZero();  // resolution 단위로 잘림
+
+        Thread.sleep(60);
+        assertThat(clock.now()).isAfter(first);
+    }
+}
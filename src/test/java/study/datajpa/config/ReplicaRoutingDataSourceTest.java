@@ -0,0 +1,138 @@
+package study.datajpa.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.UsernameOnly;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 프라이머리/레플리카를 각각 다른 인메모리 H2 로 띄워서 어느 쪽에서 읽었는지 데이터로 확인
+ * (라우팅은 트랜잭션 경계에 따라 달라지므로 테스트 클래스에 @Transactional 을 걸지 않음)
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + ReplicaRoutingDataSourceTest.PRIMARY_URL,
+        "datasource.routing.enabled=true",
+        "datasource.routing.replicas[0].name=replica1",
+        "datasource.routing.replicas[0].url=" + ReplicaRoutingDataSourceTest.REPLICA_URL,
+        "datasource.routing.replicas[1].name=broken",
+        "datasource.routing.replicas[1].url=jdbc:h2:tcp://localhost:1/~/nothing",
+        "datasource.routing.lag-query=select seconds from replica_lag",
+        "datasource.routing.max-lag=5s",
+        "datasource.routing.health-check-interval=1h"
+})
+class ReplicaRoutingDataSourceTest {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    ReplicaRouter replicaRouter;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    public void setUpReplica() throws SQLException {
+        // 복제 대신 프라이머리 스키마를 레플리카에 그대로 생성
+        List<String> ddl = new ArrayList<>();
+        try (Connection primary = DriverManager.getConnection(PRIMARY_URL, "sa", "");
+             Statement statement = primary.createStatement();
+             ResultSet rs = statement.executeQuery("script nodata")) {
+            while (rs.next()) {
+                String sql = rs.getString(1);
+                if (!sql.startsWith("CREATE USER")) {
+                    ddl.add(sql);
+                }
+            }
+        }
+
+        try (Connection replica = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement statement = replica.createStatement()) {
+            statement.execute("drop all objects");
+            for (String sql : ddl) {
+                statement.execute(sql);
+            }
+            statement.execute("create table replica_lag (seconds bigint)");
+            statement.execute("insert into replica_lag values (0)");
+            statement.execute("insert into member (member_id, username, age) values (100000, 'replicaOnly', 10)");
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (memberRepository.findByUsernameAndAgeGreaterThan("primaryOnly", -1).isEmpty()) {
+                memberRepository.save(new Member("primaryOnly", 10));
+            }
+        });
+
+        replicaRouter.checkReplicas();
+    }
+
+    @Test
+    public void readOnlyGoesToReplica() {
+        // 조회 메서드는 readOnly 트랜잭션 → 레플리카
+        assertThat(memberRepository.findByUsernameAndAgeGreaterThan("replicaOnly", -1)).hasSize(1);
+        assertThat(memberRepository.findByUsernameAndAgeGreaterThan("primaryOnly", -1)).isEmpty();
+        assertThat(memberRepository.findReadOnlyProjectionsByUsername("replicaOnly", UsernameOnly.class)).hasSize(1);
+
+        // 쓰기 트랜잭션 안에서의 조회는 프라이머리
+        List<Member> inWriteTransaction = transactionTemplate.execute(status ->
+                memberRepository.findByUsernameAndAgeGreaterThan("primaryOnly", -1));
+        assertThat(inWriteTransaction).hasSize(1);
+
+        assertThat(replicaRouter.getStates())
+                .extracting(ReplicaRouter.ReplicaState::getName, ReplicaRouter.ReplicaState::getStatus)
+                .containsExactly(
+                        org.assertj.core.groups.Tuple.tuple("replica1", ReplicaRouter.Status.UP),
+                        org.assertj.core.groups.Tuple.tuple("broken", ReplicaRouter.Status.DOWN));
+    }
+
+    @Test
+    public void laggingReplicaFallsBackToPrimary() throws SQLException {
+        try (Connection replica = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement statement = replica.createStatement()) {
+            statement.execute("update replica_lag set seconds = 100");
+        }
+        replicaRouter.checkReplicas();
+        long fallbacks = replicaRouter.getFallbackCount();
+
+        assertThat(replicaRouter.getStates().get(0).getStatus()).isEqualTo(ReplicaRouter.Status.LAGGING);
+        assertThat(memberRepository.findByUsernameAndAgeGreaterThan("primaryOnly", -1)).hasSize(1);
+        assertThat(replicaRouter.getFallbackCount()).isGreaterThan(fallbacks);
+    }
+
+    @Test
+    public void closeShutsDownAllPools() throws Exception {
+        HikariDataSource primary = new HikariDataSource();
+        primary.setJdbcUrl("jdbc:h2:mem:routing-close-primary");
+        HikariDataSource replica = new HikariDataSource();
+        replica.setJdbcUrl("jdbc:h2:mem:routing-close-replica");
+        ReplicaRouter router = new ReplicaRouter(Collections.singletonMap("replica", replica), new ReplicaRoutingProperties());
+        ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(primary, router);
+
+        // username/password 지정도 라우팅된 풀로 위임 (Hikari 는 지원하지 않는다고 응답)
+        assertThatThrownBy(() -> dataSource.getConnection("sa", ""))
+                .isInstanceOf(SQLFeatureNotSupportedException.class);
+
+        dataSource.close();
+        assertThat(primary.isClosed()).isTrue();
+        assertThat(replica.isClosed()).isTrue();
+    }
+}
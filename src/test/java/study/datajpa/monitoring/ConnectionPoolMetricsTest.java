@@ -0,0 +1,35 @@
+package study.datajpa.monitoring;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class ConnectionPoolMetricsTest {
+
+    @Autowired
+    ConnectionPoolMetrics connectionPoolMetrics;
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Test
+    public void recordAcquireAndUsage() {
+        connectionPoolMetrics.reset();
+
+        memberRepository.count();
+        memberRepository.count();
+
+        List<ConnectionPoolStats> pools = connectionPoolMetrics.snapshot();
+        assertThat(pools).hasSize(1);
+        ConnectionPoolStats stats = pools.get(0);
+        assertThat(stats.getAcquired()).isGreaterThanOrEqualTo(2);
+        assertThat(stats.getMax()).isEqualTo(10);
+        assertThat(stats.getPeakActive()).isLessThanOrEqualTo(stats.getMax());
+        assertThat(stats.getTimeouts()).isZero();
+    }
+}
@@ -0,0 +1,119 @@
+package study.datajpa.monitoring;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.Rollback;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+@Rollback(false)
+class RepositoryMetricsTest {
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    TeamRepository teamRepository;
+    @Autowired
+    RepositoryMetrics repositoryMetrics;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    public void clearContext() {
+        RepositoryCallContext.clear();
+    }
+
+    @Test
+    @Rollback
+    public void statementsAndRows() {
+        Team teamA = new Team("metricsTeam");
+        em.persist(teamA);
+        em.persist(new Member("metrics1", 10, teamA));
+        em.persist(new Member("metrics2", 10, teamA));
+        em.flush();
+        em.clear();
+        repositoryMetrics.reset();
+
+        List<Member> result = memberRepository.findByUsernameAndAgeGreaterThan("metrics1", 5);
+
+        MethodStats stats = repositoryMetrics.get("MemberRepository.findByUsernameAndAgeGreaterThan");
+        assertThat(result).hasSize(1);
+        assertThat(stats.getCalls()).isEqualTo(1);
+        assertThat(stats.getStatements()).isEqualTo(1);
+        assertThat(stats.getRows()).isEqualTo(1);
+        assertThat(stats.getNPlusOneCalls()).isEqualTo(0);
+
+        // 상속받은 메서드도 레포지토리 이름으로 집계
+        teamRepository.findAll();
+        assertThat(repositoryMetrics.get("TeamRepository.findAll").getCalls()).isEqualTo(1);
+    }
+
+    @Test
+    @Rollback
+    public void nPlusOneAfterReturn() {
+        List<Long> teamIds = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            Team team = new Team("metricsTeam" + i);
+            em.persist(team);
+            teamIds.add(team.getId());
+        }
+        em.flush();
+        em.clear();
+        em.getEntityManagerFactory().getCache().evictAll();
+        repositoryMetrics.reset();
+
+        teamRepository.findAll();
+        em.clear();
+        em.getEntityManagerFactory().getCache().evictAll();
+
+        // 호출이 끝난 뒤 같은 select 가 반복되면 마지막 호출의 N+1 로 집계
+        for (Long teamId : teamIds) {
+            em.find(Team.class, teamId);
+        }
+
+        MethodStats stats = repositoryMetrics.get("TeamRepository.findAll");
+        assertThat(stats.getStatements()).isEqualTo(1 + teamIds.size());
+        assertThat(stats.getStatementsAfterReturn()).isEqualTo(teamIds.size());
+        assertThat(stats.getNPlusOneCalls()).isEqualTo(1);
+        assertThat(stats.getNPlusOneSample()).contains("from team");
+    }
+
+    @Test
+    public void notChargedAfterTransactionCompletes() throws InterruptedException {
+        repositoryMetrics.reset();
+
+        // 웹 요청이 아닌 스레드(executor, 스케줄러 등): 트랜잭션이 끝나면 이후 SQL 은 지연 로딩이 아님
+        Thread worker = new Thread(() -> {
+            transactionTemplate.execute(status -> teamRepository.findAll());
+            jdbcTemplate.queryForObject("select count(*) from team", Long.class);
+            transactionTemplate.execute(status -> jdbcTemplate.queryForObject("select count(*) from member", Long.class));
+        });
+        worker.start();
+        worker.join();
+
+        MethodStats stats = repositoryMetrics.get("TeamRepository.findAll");
+        assertThat(stats.getStatements()).isEqualTo(1);
+        assertThat(stats.getStatementsAfterReturn()).isZero();
+    }
+}
@@ -0,0 +1,139 @@
+package study.datajpa.monitoring;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.IsolatedDbTest;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+import study.datajpa.repository.support.BatchingLoader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 요청 단위로 커밋/조회, slow-threshold 를 0 으로 두어 모든 요청을 샘플로 남김 (application-isolated.yml)
+ */
+@IsolatedDbTest
+class RequestProfilesTest {
+
+    @Autowired
+    RequestProfiles requestProfiles;
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    TeamRepository teamRepository;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+    @Autowired
+    MockMvc mockMvc;
+
+    Team team;
+    Member member;
+
+    @BeforeEach
+    public void setUp() {
+        team = teamRepository.save(new Team("profileTeam"));
+        member = memberRepository.save(new Member("profile1", 10, team));
+        memberRepository.save(new Member("profile2", 20, team));
+        requestProfiles.reset();
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        memberRepository.deleteAll();
+        teamRepository.deleteAll();
+    }
+
+    @Test
+    public void taggedWithRoutePattern() throws Exception {
+        mockMvc.perform(get("/members2/{id}", member.getId())).andExpect(status().isOk());
+        mockMvc.perform(get("/members2/{id}", member.getId())).andExpect(status().isOk());
+        mockMvc.perform(get("/members").param("after", "").param("sort", "id")).andExpect(status().isOk());
+
+        // id 마다가 아니라 매핑 패턴으로 집계
+        RouteStats byId = requestProfiles.get("GET /members2/{id}");
+        assertThat(byId.getRequests()).isEqualTo(2);
+        assertThat(byId.getEntitiesLoaded()).isGreaterThanOrEqualTo(2);
+        assertThat(byId.getCacheHits() + byId.getCacheMisses()).isPositive();
+
+        RouteStats keyset = requestProfiles.get("GET /members");
+        assertThat(keyset.getRequests()).isEqualTo(1);
+        assertThat(keyset.getStatements()).isPositive();
+        assertThat(keyset.getEntitiesLoaded()).isGreaterThanOrEqualTo(2);
+
+        // 샘플은 최근 max-samples 개, SQL 은 요청당 max-sql-per-request 개까지
+        assertThat(requestProfiles.getSlowRequests()).hasSize(3);
+        SlowRequest latest = requestProfiles.getSlowRequests().get(0);
+        assertThat(latest.getRoute()).isEqualTo("GET /members");
+        assertThat(latest.getUri()).isEqualTo("/members");
+        assertThat(latest.getSql()).hasSize(1);
+        assertThat(latest.getSql().get(0).getSql()).startsWith("select");
+        assertThat(latest.getDroppedSql()).isEqualTo(latest.getStatements() - 1);
+    }
+
+    @Test
+    public void asyncRequestIncludesExecutorWork() throws Exception {
+        MvcResult result = mockMvc.perform(get("/members/page")).andReturn();
+        assertThat(requestProfiles.get("GET /members/page")).isNull();  // 비동기 처리가 끝나야 기록
+
+        mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+
+        RouteStats page = requestProfiles.get("GET /members/page");
+        assertThat(page.getRequests()).isEqualTo(1);
+        assertThat(page.getStatements()).isPositive();  // repositoryExecutor 스레드에서 실행한 조회
+    }
+
+    @Test
+    public void flushDirtyCheckAndCollections() {
+        RequestProfile profile = requestProfiles.begin("/test");
+        RequestProfile previous = RequestProfileContext.bind(profile);
+        try {
+            transactionTemplate.execute(status -> {
+                Member found = memberRepository.findById(member.getId()).get();
+                found.setAge(11);
+                teamRepository.findById(team.getId()).get().getMembers().size();
+                return null;
+            });
+        } finally {
+            RequestProfileContext.restore(previous);
+        }
+        requestProfiles.record(profile, "TEST", 200);
+
+        RouteStats stats = requestProfiles.get("TEST");
+        assertThat(stats.getFlushes()).isGreaterThanOrEqualTo(1);
+        assertThat(stats.getDirtyChecks()).isGreaterThanOrEqualTo(1);
+        assertThat(stats.getCollectionsFetched()).isEqualTo(1);
+        assertThat(stats.getEntitiesLoaded()).isGreaterThanOrEqualTo(3);  // member, team, team.members 의 회원들
+
+        // 요청 밖의 세션은 집계하지 않음
+        memberRepository.findAll();
+        assertThat(requestProfiles.get("TEST").getEntitiesLoaded()).isEqualTo(stats.getEntitiesLoaded());
+    }
+
+    @Test
+    public void batchTaskNotBoundToRequest() {
+        RequestProfileTaskDecorator decorator = new RequestProfileTaskDecorator();
+        Runnable task = () -> {
+        };
+        BatchingLoader.BatchTask batch = () -> {
+        };
+
+        RequestProfile previous = RequestProfileContext.bind(requestProfiles.begin("/test"));
+        try {
+            assertThat(decorator.decorate(task)).isNotSameAs(task);
+            // 여러 요청의 id 를 모은 배치 조회는 배치를 넘긴 요청의 프로파일로 집계하지 않음
+            assertThat(decorator.decorate(batch)).isSameAs(batch);
+        } finally {
+            RequestProfileContext.restore(previous);
+        }
+    }
+}
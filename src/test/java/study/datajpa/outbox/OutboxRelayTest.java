@@ -0,0 +1,181 @@
+package study.datajpa.outbox;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.IsolatedDbTest;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.entity.event.EntityChangedEvent.ChangeType;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+import study.datajpa.service.MemberFileFormat;
+import study.datajpa.service.MemberImportService;
+
+import javax.persistence.EntityManagerFactory;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * outbox 행은 커밋과 함께 생김, 스케줄러 대신 drain() 을 직접 호출 (relay 설정은 application-isolated.yml)
+ */
+@IsolatedDbTest
+class OutboxRelayTest {
+
+    @Autowired
+    OutboxRelay outboxRelay;
+    @Autowired
+    InMemoryOutboxSink sink;
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    TeamRepository teamRepository;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+    @Autowired
+    EntityManagerFactory emf;
+    @Autowired
+    MemberImportService memberImportService;
+
+    @BeforeEach
+    public void setUp() {
+        // 2차 캐시(Caffeine)는 JVM 에 하나라 DB 가 다른 테스트 컨텍스트의 같은 id 엔티티가 남아있을 수 있음
+        emf.getCache().evictAll();
+        // 같은 DB 를 쓰는 다른 테스트가 남긴 outbox 행은 먼저 보내버림
+        while (outboxRelay.drain() > 0) {
+        }
+        sink.clear();
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        sink.clear();
+        memberRepository.deleteAll();
+        teamRepository.deleteAll();
+        while (outboxRelay.drain() > 0) {
+        }
+        sink.clear();
+    }
+
+    @Test
+    public void writtenWithTransaction() {
+        long before = outboxRelay.getPending();
+
+        Team team = teamRepository.save(new Team("outboxTeam"));
+        memberRepository.save(new Member("outbox1", 10, team));
+        assertThat(outboxRelay.getPending()).isEqualTo(before + 2);
+
+        // 롤백되면 outbox 행도 없음
+        transactionTemplate.execute(status -> {
+            memberRepository.saveAndFlush(new Member("rolledBack", 20));
+            status.setRollbackOnly();
+            return null;
+        });
+        assertThat(outboxRelay.getPending()).isEqualTo(before + 2);
+        assertThat(outboxRelay.getOldestPendingAt()).isNotNull();
+    }
+
+    @Test
+    public void deliveredInOrderPerAggregate() {
+        Member member = memberRepository.save(new Member("ordered", 10));
+        for (int age = 11; age <= 13; age++) {
+            int newAge = age;
+            transactionTemplate.execute(status -> {
+                memberRepository.findById(member.getId()).get().setAge(newAge);
+                return null;
+            });
+        }
+        memberRepository.deleteById(member.getId());
+
+        int delivered = 0;
+        int drained;
+        while ((drained = outboxRelay.drain()) > 0) {
+            delivered += drained;
+        }
+
+        assertThat(delivered).isEqualTo(5);
+        assertThat(outboxRelay.getPending()).isZero();
+        List<OutboxMessage> messages = messagesOf(member.getId());
+        assertThat(messages).extracting(OutboxMessage::getChangeType).containsExactly(
+                ChangeType.CREATED, ChangeType.UPDATED, ChangeType.UPDATED, ChangeType.UPDATED, ChangeType.DELETED);
+        assertThat(messages).extracting(OutboxMessage::getAggregateType).containsOnly("Member");
+        assertThat(messages.get(3).getPayload()).contains("\"username\":\"ordered\"", "\"age\":13");
+    }
+
+    @Test
+    public void redeliveredAfterSinkFailure() {
+        memberRepository.save(new Member("retry1", 10));
+        sink.failNext(1);
+
+        assertThat(outboxRelay.drain()).isZero();
+        assertThat(outboxRelay.getPending()).isEqualTo(1);  // 실패한 메시지는 남아있음
+        assertThat(outboxRelay.getFailures()).isPositive();
+
+        assertThat(outboxRelay.drain()).isEqualTo(1);
+        assertThat(outboxRelay.getPending()).isZero();
+        assertThat(sink.getMessages()).extracting(OutboxMessage::getPayload)
+                .anySatisfy(payload -> assertThat(payload).contains("retry1"));
+    }
+
+    @Test
+    public void parkedAfterMaxAttempts() {
+        long parkedBefore = outboxRelay.getParked();
+        sink.rejectWhen(message -> message.getPayload().contains("poison"));
+        Member poison = memberRepository.save(new Member("poison", 10));
+        Member healthy = memberRepository.save(new Member("healthy", 20));
+
+        // 같은 배치/파티션이어도 실패한 메시지만 남고 나머지는 나감
+        assertThat(outboxRelay.drain()).isEqualTo(1);
+        assertThat(messagesOf(healthy.getId())).hasSize(1);
+
+        // 다른 aggregate 의 뒤 메시지는 막히지 않고, 실패한 메시지는 max-attempts(3) 번 뒤에 parked
+        outboxRelay.drain();
+        Member later = memberRepository.save(new Member("later", 30));
+        outboxRelay.drain();
+        assertThat(messagesOf(later.getId())).hasSize(1);
+        assertThat(outboxRelay.getPending()).isZero();
+        assertThat(outboxRelay.getParked()).isEqualTo(parkedBefore + 1);
+        assertThat(messagesOf(poison.getId())).isEmpty();
+
+        assertThat(outboxRelay.drain()).isZero();  // parked 된 행은 다시 읽지 않음
+    }
+
+    @Test
+    public void bulkUpdateWritesMarker() {
+        memberRepository.save(new Member("bulk", 10));
+        transactionTemplate.execute(status -> memberRepository.bulkAgePlus(0));
+        while (outboxRelay.drain() > 0) {
+        }
+
+        assertThat(sink.getMessages()).filteredOn(message -> message.getChangeType() == ChangeType.BULK_UPDATED)
+                .hasSize(1)
+                .allSatisfy(message -> {
+                    assertThat(message.getAggregateType()).isEqualTo("Member");
+                    assertThat(message.getAggregateId()).isNull();
+                });
+    }
+
+    @Test
+    public void importWritesCreatedMessages() throws Exception {
+        String csv = "id,username,age,teamName\n1,importedOutbox1,10,\n2,importedOutbox2,20,\n";
+        memberImportService.importMembers(MemberFileFormat.CSV, new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+        while (outboxRelay.drain() > 0) {
+        }
+
+        Long id = memberRepository.findByUsername("importedOutbox1").get(0).getId();
+        assertThat(messagesOf(id)).extracting(OutboxMessage::getChangeType).containsExactly(ChangeType.CREATED);
+        assertThat(messagesOf(id).get(0).getPayload()).contains("\"username\":\"importedOutbox1\"", "\"age\":10");
+    }
+
+    private List<OutboxMessage> messagesOf(Long memberId) {
+        return sink.getMessages().stream()
+                .filter(message -> memberId.equals(message.getAggregateId()) && message.getAggregateType().equals("Member"))
+                .collect(Collectors.toList());
+    }
+}
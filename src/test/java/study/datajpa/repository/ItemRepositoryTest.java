@@ -1,20 +1,74 @@
 package study.datajpa.repository;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
 import study.datajpa.entity.Item;
 
+import javax.persistence.EntityManager;
+import java.util.Arrays;
+import java.util.UUID;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
+@Transactional
 class ItemRepositoryTest {
     @Autowired
     ItemRepository itemRepository;
+    @Autowired
+    EntityManager em;
 
     @Test
     public void save() {
-        Item item = new Item();
+        Item item = new Item(UUID.randomUUID().toString());
+        assertTrue(item.isNew());
+
+        Statistics statistics = statistics();
         itemRepository.save(item);
+        em.flush();
+
+        // id 가 있어도 merge(select) 없이 insert 한번
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertFalse(item.isNew());
+        assertTrue(em.contains(item));
+    }
+
+    @Test
+    public void saveExisting() {
+        String id = UUID.randomUUID().toString();
+        itemRepository.save(new Item(id));
+        em.flush();
+        em.clear();
+
+        Item found = itemRepository.findById(id).get();
+        assertFalse(found.isNew());
+        em.detach(found);
+
+        // 저장된 엔티티는 merge (준영속이면 select 로 다시 읽어옴)
+        Item merged = itemRepository.save(found);
+        assertNotSame(found, merged);
+        assertNotNull(merged.getCreatedDate());
+    }
+
+    @Test
+    public void persistAll() {
+        Statistics statistics = statistics();
+        itemRepository.persistAll(Arrays.asList(
+                new Item(UUID.randomUUID().toString()),
+                new Item(UUID.randomUUID().toString())));
+        em.flush();
+
+        assertEquals(2, statistics.getEntityInsertCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
     }
-}
\ No newline at end of file
+}
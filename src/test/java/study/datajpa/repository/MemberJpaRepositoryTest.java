@@ -110,6 +110,24 @@ class MemberJpaRepositoryTest {
         assertThat(totalCount).isEqualTo(5);
     }
 
+    @Test
+    @Rollback  // 다른 테스트의 count 검증에 영향 주지 않도록 롤백
+    public void keysetPaging() throws Exception {
+        //given
+        memberJpaRepository.save(new Member("keyset1", 33));
+        memberJpaRepository.save(new Member("keyset2", 33));
+        memberJpaRepository.save(new Member("keyset3", 33));
+
+        //when
+        List<Member> first = memberJpaRepository.findByPageAfter(33, null, null, 2);
+        Member lastOfFirst = first.get(first.size() - 1);
+        List<Member> second = memberJpaRepository.findByPageAfter(33, lastOfFirst.getUsername(), lastOfFirst.getId(), 2);
+
+        //then
+        assertThat(first).extracting("username").containsExactly("keyset3", "keyset2");
+        assertThat(second).extracting("username").containsExactly("keyset1");
+    }
+
     /**
      * 벌크성 쿼리
      *
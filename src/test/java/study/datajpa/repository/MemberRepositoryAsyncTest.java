@@ -0,0 +1,80 @@
+package study.datajpa.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import study.datajpa.config.AsyncConfig;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.entity.Member;
+
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 스레드 하나, 큐 하나짜리 repositoryExecutor 로 backpressure(거절)까지 확인, 다른 테스트와 DB 분리
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:async;DB_CLOSE_DELAY=-1",
+        "repository.async.pool-size=1",
+        "repository.async.queue-capacity=1"
+})
+class MemberRepositoryAsyncTest {
+
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    @Qualifier(AsyncConfig.REPOSITORY_EXECUTOR)
+    ThreadPoolTaskExecutor repositoryExecutor;
+
+    @Test
+    public void asyncQueries() throws Exception {
+        Member saved = memberRepository.save(new Member("async", 10));
+
+        Optional<Member> found = memberRepository.findAsyncById(saved.getId()).get(5, TimeUnit.SECONDS);
+        Page<MemberDto> page = memberRepository.findMemberDtoPageAsync(PageRequest.of(0, 10)).get(5, TimeUnit.SECONDS);
+        Slice<MemberDto> slice = memberRepository.findMemberDtoWithCachedCountAsync(PageRequest.of(0, 10))
+                .get(5, TimeUnit.SECONDS);
+
+        assertThat(found.map(Member::getUsername)).contains("async");
+        assertThat(page.getContent()).extracting(MemberDto::getUsername).contains("async");
+        assertThat(slice.getContent()).extracting(MemberDto::getUsername).contains("async");
+        assertThat(memberRepository.findAsyncById(-1L).get(5, TimeUnit.SECONDS)).isEmpty();
+    }
+
+    @Test
+    public void rejectWhenSaturated() throws Exception {
+        // 스레드 하나는 실행중, 큐 한 칸은 대기중으로 채움
+        CountDownLatch busy = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Runnable blocker = () -> {
+            busy.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        repositoryExecutor.execute(blocker);
+        busy.await();
+        repositoryExecutor.execute(blocker);
+
+        try {
+            assertThatThrownBy(() -> memberRepository.findAsyncById(1L))
+                    .isInstanceOf(TaskRejectedException.class);
+            assertThatThrownBy(() -> memberRepository.findMemberDtoWithCachedCountAsync(PageRequest.of(0, 10)))
+                    .isInstanceOf(TaskRejectedException.class);
+        } finally {
+            release.countDown();
+        }
+    }
+}
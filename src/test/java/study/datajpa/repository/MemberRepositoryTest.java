@@ -1,23 +1,34 @@
 package study.datajpa.repository;
 
 import org.assertj.core.api.Assertions;
+import org.hibernate.Session;
+import org.hibernate.stat.SessionStatistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.test.annotation.Rollback;
 import org.springframework.transaction.annotation.Transactional;
 import study.datajpa.dto.MemberDto;
 import study.datajpa.entity.Member;
 import study.datajpa.entity.Team;
+import study.datajpa.repository.support.InClauseChunker;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import javax.persistence.PersistenceUnitUtil;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.*;
@@ -147,6 +158,32 @@ class MemberRepositoryTest {
 
     }
 
+    /**
+     * in 파라미터가 청크 크기보다 많으면 나눠서 조회 후 합침 (중복/없는 값 포함)
+     */
+    @Test
+    @Rollback
+    public void findByNamesChunked() {
+        int count = InClauseChunker.CHUNK_SIZE * 2 + 10;
+        List<Member> members = IntStream.range(0, count)
+                .mapToObj(i -> new Member("chunk" + i, i))
+                .collect(Collectors.toList());
+        memberRepository.persistAll(members);
+        em.flush();
+        em.clear();
+
+        List<String> names = IntStream.range(0, count + 100)  // 100개는 없는 이름
+                .mapToObj(i -> "chunk" + i)
+                .collect(Collectors.toList());
+        names.addAll(names.subList(0, 50));  // 중복
+
+        assertThat(memberRepository.findByNames(names)).hasSize(count);
+        assertThat(memberRepository.findByNames(Collections.emptyList())).isEmpty();
+
+        List<Long> ids = members.stream().map(Member::getId).collect(Collectors.toList());
+        assertThat(memberRepository.findAllById(ids)).hasSize(count);
+    }
+
     /**
      * 쿼리 반환타입 test
      */
@@ -205,6 +242,189 @@ class MemberRepositoryTest {
         assertThat(page.hasNext()).isTrue(); //다음 페이지가 있는가?
     }
 
+    @Test
+    @Rollback  // 다른 테스트의 count 검증에 영향 주지 않도록 롤백
+    public void keysetPaging() throws Exception {
+        //given
+        memberRepository.save(new Member("keyset1", 33));
+        memberRepository.save(new Member("keyset2", 33));
+        memberRepository.save(new Member("keyset3", 33));
+        memberRepository.save(new Member("keyset4", 33));
+        memberRepository.save(new Member("keyset5", 33));
+
+        PageRequest pageRequest = PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "username"));
+
+        // when  (page 번호 대신 이전 페이지의 nextCursor 로 다음 페이지 조회)
+        KeysetSlice<Member> first = memberRepository.findByAgeByKeyset(33, null, pageRequest);
+        KeysetSlice<Member> second = memberRepository.findByAgeByKeyset(33, first.getNextCursor(), pageRequest);
+        KeysetSlice<Member> last = memberRepository.findByAgeByKeyset(33, second.getNextCursor(), pageRequest);
+
+        //then
+        assertThat(first.getContent()).extracting("username").containsExactly("keyset5", "keyset4");
+        assertThat(second.getContent()).extracting("username").containsExactly("keyset3", "keyset2");
+        assertThat(last.getContent()).extracting("username").containsExactly("keyset1");
+        assertThat(first.isHasNext()).isTrue();
+        assertThat(last.isHasNext()).isFalse();
+        assertThat(last.getNextCursor()).isNull();
+    }
+
+    @Test
+    @Rollback
+    public void keysetPagingWithNullUsername() throws Exception {
+        //given  (username 이 null 인 회원은 방향과 상관없이 맨 뒤)
+        memberRepository.save(new Member("nullKey1", 35));
+        memberRepository.save(new Member("nullKey2", 35));
+        memberRepository.save(new Member(null, 35));
+        memberRepository.save(new Member(null, 35));
+        memberRepository.save(new Member("nullKey3", 35));
+
+        for (Sort.Direction direction : Sort.Direction.values()) {
+            PageRequest pageRequest = PageRequest.of(0, 2, Sort.by(direction, "username"));
+
+            //when
+            List<Member> all = new ArrayList<>();
+            String cursor = null;
+            do {
+                KeysetSlice<Member> slice = memberRepository.findByAgeByKeyset(35, cursor, pageRequest);
+                all.addAll(slice.getContent());
+                cursor = slice.getNextCursor();
+            } while (cursor != null);
+
+            //then
+            assertThat(all).hasSize(5);
+            assertThat(all.subList(3, 5)).extracting("username").containsOnlyNulls();
+        }
+        assertThatThrownBy(() -> memberRepository.findAllByKeyset(null, PageRequest.of(0, 2, Sort.by("team"))))
+                .isInstanceOf(InvalidDataAccessApiUsageException.class);
+    }
+
+    @Test
+    @Rollback
+    public void pagingWithCachedCount() throws Exception {
+        //given
+        for (int i = 1; i <= 5; i++) {
+            memberRepository.save(new Member("cached" + i, 44));
+        }
+        PageRequest firstPage = PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "username"));
+
+        // when: 처음엔 count 쿼리로 갯수를 구해서 캐시
+        Slice<Member> first = memberRepository.findByAgeWithCachedCount(44, firstPage);
+
+        // 쓰기 이후엔 캐시가 stale → 이전 갯수로 추정
+        memberRepository.save(new Member("cached6", 44));
+        Slice<Member> stale = memberRepository.findByAgeWithCachedCount(44, firstPage);
+
+        // 마지막 페이지를 보면 정확한 갯수를 알 수 있으므로 캐시 갱신
+        Slice<Member> last = memberRepository.findByAgeWithCachedCount(44, PageRequest.of(2, 2));
+        Slice<Member> refreshed = memberRepository.findByAgeWithCachedCount(44, firstPage);
+
+        //then
+        assertThat(((Page<Member>) first).getTotalElements()).isEqualTo(5);
+        assertThat(((Page<Member>) stale).getTotalElements()).isEqualTo(5);
+        assertThat(((CachedCountPage<Member>) stale).isApproximate()).isTrue();
+        assertThat(((CachedCountPage<Member>) first).isApproximate()).isFalse();
+        assertThat(stale.hasNext()).isTrue();
+        assertThat(((Page<Member>) last).getTotalElements()).isEqualTo(6);
+        assertThat(((Page<Member>) refreshed).getTotalElements()).isEqualTo(6);
+        assertThat(((CachedCountPage<Member>) refreshed).isApproximate()).isFalse();
+    }
+
+    @Test
+    @Rollback
+    public void saveAllBatched() {
+        // given
+        Team team = teamRepository.save(new Team("batchTeam"));
+        long before = memberRepository.count();
+
+        // when
+        long saved = memberRepository.saveAllBatched(IntStream.range(0, 10)
+                .mapToObj(i -> new Member("batch" + i, 55, team)), 3);
+
+        // then
+        assertThat(saved).isEqualTo(10);
+        assertThat(memberRepository.count()).isEqualTo(before + 10);
+        assertThat(memberRepository.findByAge(55, PageRequest.of(0, 20)).getContent())
+                .allMatch(m -> m.getTeam().getName().equals("batchTeam"));
+        assertThat(team.getMembers()).isEmpty();  // 저장한 Member 가 Team.members 에 쌓이지 않음
+    }
+
+    @Test
+    @Rollback
+    public void saveAllBatchedWithNewTeam() {
+        // given
+        Team team = new Team("batchNewTeam");
+
+        // when: 저장 안 된 Team 도 Member 와 같이 저장
+        long saved = memberRepository.saveAllBatched(IntStream.range(0, 5)
+                .mapToObj(i -> new Member("batchNew" + i, 56, team)), 2);
+
+        // then
+        assertThat(saved).isEqualTo(5);
+        assertThat(team.getId()).isNotNull();
+        assertThat(teamRepository.findById(team.getId())).isPresent();
+        assertThat(memberRepository.findByAge(56, PageRequest.of(0, 20)).getContent())
+                .hasSize(5)
+                .allMatch(m -> m.getTeam().getId().equals(team.getId()));
+        assertThat(team.getMembers()).isEmpty();
+    }
+
+    @Test
+    @Rollback
+    public void streamAll() {
+        // given
+        Team team = teamRepository.save(new Team("streamTeam"));
+        memberRepository.save(new Member("stream1", 10, team));
+        memberRepository.save(new Member("stream2", 20, team));
+        em.flush();
+        em.clear();
+
+        // when
+        List<Member> members;
+        try (Stream<Member> stream = memberRepository.streamAll(1)) {
+            members = stream.filter(m -> m.getUsername().startsWith("stream"))
+                    .collect(Collectors.toList());
+        }
+        List<MemberDto> dtos;
+        try (Stream<MemberDto> stream = memberRepository.streamMemberDto(1)) {
+            dtos = stream.filter(dto -> "streamTeam".equals(dto.getTeamName()))
+                    .collect(Collectors.toList());
+        }
+
+        // then  (꺼낸 Member 는 준영속 상태, team 은 패치조인으로 이미 로딩됨)
+        assertThat(members).hasSize(2);
+        assertThat(members).noneMatch(em::contains);
+        assertThat(members).allMatch(m -> m.getTeam().getName().equals("streamTeam"));
+        assertThat(dtos).extracting("username").containsExactlyInAnyOrder("stream1", "stream2");
+    }
+
+
+    @Test
+    @Rollback
+    public void streamAllKeepsPersistenceContextEmpty() {
+        // given: 팀이 여러 개
+        for (int i = 0; i < 3; i++) {
+            Team team = teamRepository.save(new Team("streamBounded" + i));
+            memberRepository.save(new Member("streamBounded" + i, 10, team));
+        }
+        em.flush();
+        em.clear();
+        SessionStatistics statistics = em.unwrap(Session.class).getStatistics();
+
+        // when
+        List<Integer> entityCounts = new ArrayList<>();
+        List<String> teamNames = new ArrayList<>();
+        try (Stream<Member> stream = memberRepository.streamAll(1)) {
+            stream.filter(m -> m.getUsername().startsWith("streamBounded"))
+                    .forEach(m -> {
+                        entityCounts.add(statistics.getEntityCount());
+                        teamNames.add(m.getTeam().getName());
+                    });
+        }
+
+        // then: 꺼낸 Member 와 패치조인한 Team 모두 영속성 컨텍스트에 남지 않음
+        assertThat(teamNames).containsExactlyInAnyOrder("streamBounded0", "streamBounded1", "streamBounded2");
+        assertThat(entityCounts).containsOnly(0);
+    }
     @Test
     public void bulkUpdate() {
         // given
@@ -255,6 +475,30 @@ class MemberRepositoryTest {
         }
     }
 
+    @Test
+    @Rollback
+    public void fetchPlan() {
+        Team teamA = teamRepository.save(new Team("teamA"));
+        Team teamB = teamRepository.save(new Team("teamB"));
+        memberRepository.save(new Member("member1", 10, teamA));
+        memberRepository.save(new Member("member2", 10, teamB));
+
+        em.flush();
+        em.clear();
+
+        // when
+        List<Member> members = memberRepository.findAllWith(FetchPlan.MEMBER_TEAM);
+        List<Team> teams = teamRepository.findAllWith(FetchPlan.TEAM_MEMBERS);
+
+        // then  (따로 쿼리 날리지 않아도 연관 엔티티/컬렉션이 이미 로딩되어 있음)
+        PersistenceUnitUtil util = em.getEntityManagerFactory().getPersistenceUnitUtil();
+        assertThat(members).allMatch(m -> util.isLoaded(m, "team"));
+        assertThat(teams).allMatch(t -> util.isLoaded(t, "members"));
+        assertThat(teams).doesNotHaveDuplicates();
+        assertThatThrownBy(() -> memberRepository.findAllWith(FetchPlan.TEAM_MEMBERS))
+                .isInstanceOf(InvalidDataAccessApiUsageException.class);  // 스프링 데이터 예외로 변환됨
+    }
+
     /**
      * JPA Query Hint
      *
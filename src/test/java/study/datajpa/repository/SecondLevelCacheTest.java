@@ -0,0 +1,110 @@
+package study.datajpa.repository;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.servlet.MockMvc;
+import study.datajpa.IsolatedDbTest;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasItems;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 2차 캐시는 커밋된 엔티티를 다른 세션(트랜잭션)에서 다시 읽을 때 확인되므로 레포지토리 호출마다 트랜잭션이 따로 열리게 한다.
+ * 통계는 JVM 에서 누적되므로 전후 차이로 비교
+ */
+@IsolatedDbTest
+class SecondLevelCacheTest {
+
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    TeamRepository teamRepository;
+    @Autowired
+    EntityManagerFactory emf;
+    @Autowired
+    MockMvc mockMvc;
+
+    Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        emf.getCache().evictAll();
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        memberRepository.deleteAll();
+        teamRepository.deleteAll();
+    }
+
+    @Test
+    public void entityRegions() {
+        Team team = teamRepository.save(new Team("cachedTeam"));
+        Member member = memberRepository.save(new Member("cached", 10, team));
+        emf.getCache().evictAll();
+
+        CacheRegionStatistics memberRegion = statistics.getDomainDataRegionStatistics("member");
+        CacheRegionStatistics teamRegion = statistics.getDomainDataRegionStatistics("team");
+        long memberHits = memberRegion.getHitCount();
+        long memberMisses = memberRegion.getMissCount();
+        long teamHits = teamRegion.getHitCount();
+
+        // 첫 조회는 DB 에서 읽고 캐시에 넣음, 두번째는 캐시에서
+        memberRepository.findById(member.getId());
+        assertThat(memberRegion.getMissCount()).isEqualTo(memberMisses + 1);
+        memberRepository.findById(member.getId());
+        assertThat(memberRegion.getHitCount()).isEqualTo(memberHits + 1);
+
+        teamRepository.findById(team.getId());
+        teamRepository.findById(team.getId());
+        assertThat(teamRegion.getHitCount()).isEqualTo(teamHits + 1);
+    }
+
+    @Test
+    public void queryRegion() {
+        memberRepository.save(new Member("cachedQuery", 10));
+
+        CacheRegionStatistics queryRegion =
+                statistics.getQueryRegionStatistics(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME);
+        long hits = queryRegion.getHitCount();
+        long puts = queryRegion.getPutCount();
+
+        assertThat(memberRepository.findByUsername("cachedQuery")).hasSize(1);
+        assertThat(queryRegion.getPutCount()).isEqualTo(puts + 1);
+        assertThat(memberRepository.findByUsername("cachedQuery")).hasSize(1);
+        assertThat(queryRegion.getHitCount()).isEqualTo(hits + 1);
+
+        // 회원 테이블이 바뀌면 캐시된 결과를 쓰지 않음
+        memberRepository.save(new Member("cachedQuery", 20));
+        assertThat(memberRepository.findByUsername("cachedQuery")).hasSize(2);
+        assertThat(queryRegion.getHitCount()).isEqualTo(hits + 1);
+    }
+
+    @Test
+    public void metricsEndpointListsRegions() throws Exception {
+        Member member = memberRepository.save(new Member("cachedMetrics", 10));
+        memberRepository.findById(member.getId());
+        memberRepository.findByUsername("cachedMetrics");
+
+        mockMvc.perform(get("/metrics/cache"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].region", hasItems("member", "team",
+                        RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME)))
+                .andExpect(jsonPath("$[?(@.region == 'member')].putCount", hasItems(greaterThan(0))));
+    }
+}
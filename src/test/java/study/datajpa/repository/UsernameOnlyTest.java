@@ -1,10 +1,16 @@
 package study.datajpa.repository;
 
+import org.hibernate.Session;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.annotation.Rollback;
 import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.dto.UsernameOnlyDto;
 import study.datajpa.entity.Member;
 import study.datajpa.entity.Team;
 
@@ -13,6 +19,7 @@ import javax.persistence.PersistenceContext;
 
 import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
@@ -44,4 +51,40 @@ class UsernameOnlyTest {
             System.out.println("usernameOnly = " + usernameOnly);
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    @Rollback
+    public void readOnlyProjections() {
+        Team teamA = new Team("readOnlyTeam");
+        em.persist(teamA);
+        em.persist(new Member("readOnly1", 10, teamA));
+        em.persist(new Member("readOnly2", 20, teamA));
+        em.flush();
+        em.clear();
+
+        Session session = em.unwrap(Session.class);
+
+        // close projection / DTO 는 컬럼만 조회 → 영속성 컨텍스트에 엔티티가 올라오지 않음
+        List<UsernameOnly> projections = memberRepository.findReadOnlyProjectionsByUsername("readOnly1", UsernameOnly.class);
+        assertThat(projections).extracting(UsernameOnly::getUsernameAndAge).containsExactly("readOnly1 10");
+        assertEquals(0, session.getStatistics().getEntityCount());
+
+        List<UsernameOnlyDto> dtos = memberRepository.findReadOnlyProjectionsByUsername("readOnly2", UsernameOnlyDto.class);
+        assertThat(dtos).extracting(UsernameOnlyDto::getUsername).containsExactly("readOnly2");
+        assertEquals(0, session.getStatistics().getEntityCount());
+
+        Slice<MemberDto> page = memberRepository.findMemberDtoWithCachedCount(
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "id")));
+        assertThat(page.getContent()).isNotEmpty();
+        assertEquals(0, session.getStatistics().getEntityCount());
+
+        // 엔티티로 조회해도 읽기 전용이라 변경 감지 X
+        Member member = memberRepository.findReadOnlyProjectionsByUsername("readOnly1", Member.class).get(0);
+        assertTrue(session.isReadOnly(member));
+        member.setUsername("changed");
+        em.flush();
+        em.clear();
+
+        assertEquals("readOnly1", em.find(Member.class, member.getId()).getUsername());
+    }
+}
@@ -0,0 +1,130 @@
+package study.datajpa.repository.support;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 스프링 없이 BatchingLoader 만 확인 (batchLoader 는 요청받은 id 목록을 기록하는 가짜 조회)
+ */
+class BatchingLoaderTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+    private final List<List<Long>> batches = new CopyOnWriteArrayList<>();
+    private final List<BatchingLoader<Long, String>> loaders = new ArrayList<>();
+
+    // 로더마다 window 타이머 스레드가 있으므로 닫아줌 (close 가 남은 요청을 executor 로 보내므로 executor 보다 먼저)
+    @AfterEach
+    public void tearDown() {
+        loaders.forEach(BatchingLoader::close);
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void coalesceWithinWindow() throws Exception {
+        BatchingLoader<Long, String> loader = loader(Duration.ofMillis(200), 100, this::evenOnly);
+
+        List<CompletableFuture<Optional<String>>> futures = new ArrayList<>();
+        for (long id = 1; id <= 5; id++) {
+            futures.add(loader.load(id));
+        }
+
+        assertThat(get(futures.get(1))).contains("v2");
+        assertThat(get(futures.get(0))).isEmpty();  // 없는 id
+        assertThat(batches).hasSize(1);
+        assertThat(batches.get(0)).containsExactlyInAnyOrder(1L, 2L, 3L, 4L, 5L);
+        assertThat(loader.getBatches()).isEqualTo(1);
+    }
+
+    @Test
+    public void deduplicatePendingAndInFlight() throws Exception {
+        BatchingLoader<Long, String> loader = loader(Duration.ofMillis(200), 100, ids -> {
+            sleep(200);  // 조회중(in-flight) 상태를 유지
+            return evenOnly(ids);
+        });
+
+        CompletableFuture<Optional<String>> first = loader.load(2L);
+        CompletableFuture<Optional<String>> samePending = loader.load(2L);
+        loader.flush();
+        CompletableFuture<Optional<String>> sameInFlight = loader.load(2L);
+
+        assertThat(samePending).isSameAs(first);
+        assertThat(sameInFlight).isSameAs(first);
+        assertThat(get(first)).contains("v2");
+        assertThat(batches).hasSize(1);
+        assertThat(loader.getRequests()).isEqualTo(3);
+        assertThat(loader.getCoalesced()).isEqualTo(2);
+
+        // 조회가 끝나면 다시 조회
+        assertThat(get(loader.load(2L))).contains("v2");
+        assertThat(batches).hasSize(2);
+    }
+
+    @Test
+    public void dispatchWhenBatchIsFull() throws Exception {
+        BatchingLoader<Long, String> loader = loader(Duration.ofSeconds(10), 3, this::evenOnly);
+
+        loader.load(1L);
+        loader.load(2L);
+        CompletableFuture<Optional<String>> third = loader.load(4L);
+
+        // window(10초)를 기다리지 않고 바로 조회
+        assertThat(get(third)).contains("v4");
+        assertThat(batches).hasSize(1);
+    }
+
+    @Test
+    public void failAllInBatch() {
+        BatchingLoader<Long, String> loader = loader(Duration.ofMillis(1), 100, ids -> {
+            throw new IllegalStateException("db down");
+        });
+
+        CompletableFuture<Optional<String>> future = loader.load(1L);
+
+        assertThatThrownBy(() -> get(future)).hasRootCauseInstanceOf(IllegalStateException.class);
+    }
+
+    private BatchingLoader<Long, String> loader(Duration window, int maxBatchSize,
+                                                Function<Collection<Long>, Map<Long, String>> batchLoader) {
+        BatchingLoader<Long, String> loader = new BatchingLoader<>("test", ids -> {
+            batches.add(new ArrayList<>(ids));
+            return batchLoader.apply(ids);
+        }, executor, window, maxBatchSize);
+        loaders.add(loader);
+        return loader;
+    }
+
+    private Map<Long, String> evenOnly(Collection<Long> ids) {
+        return ids.stream()
+                .filter(id -> id % 2 == 0)
+                .collect(Collectors.toMap(Function.identity(), id -> "v" + id));
+    }
+
+    private static <T> T get(CompletableFuture<T> future) throws Exception {
+        return future.get(5, TimeUnit.SECONDS);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package study.datajpa.repository.support;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class QueryRegistryTest {
+
+    @Autowired
+    QueryRegistry queryRegistry;
+    @Autowired
+    RepositoryWarmup repositoryWarmup;
+
+    @Test
+    public void namedQueriesCompiledAtStartup() {
+        assertThat(queryRegistry.getPlans())
+                .extracting(QueryRegistry.QueryPlan::getName)
+                .contains("Member.all", "Member.byAgeSeekAfter", "Member.agePlusOneFrom", "Team.countAll");
+
+        QueryRegistry.QueryPlan plan = queryRegistry.get("Member.countByAge");
+        assertThat(plan.getQuery()).isEqualTo("select count(m) from Member m where m.age = :age");
+        assertThat(plan.getPlanNanos()).isPositive();
+    }
+
+    @Test
+    public void warmUpRunsBeforeTests() {
+        assertThat(repositoryWarmup.getSteps()).isNotEmpty();
+        assertThat(repositoryWarmup.getSteps()).allSatisfy(step -> {
+            assertThat(step.getFailure()).isNull();
+            assertThat(step.getCalls()).isEqualTo(10);
+        });
+        assertThat(repositoryWarmup.getTotalNanos()).isPositive();
+    }
+}
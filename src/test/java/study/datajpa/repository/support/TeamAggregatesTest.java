@@ -0,0 +1,143 @@
+package study.datajpa.repository.support;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.IsolatedDbTest;
+import study.datajpa.dto.TeamSummaryDto;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 집계는 커밋 직전에 반영됨
+ */
+@IsolatedDbTest
+class TeamAggregatesTest {
+
+    @Autowired
+    TeamRepository teamRepository;
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+    @Autowired
+    TeamAggregates teamAggregates;
+    @Autowired
+    EntityManagerFactory emf;
+
+    @AfterEach
+    public void cleanUp() {
+        memberRepository.deleteAll();
+        teamRepository.deleteAll();
+    }
+
+    @Test
+    public void maintainedThroughMemberChanges() {
+        Team teamA = teamRepository.save(new Team("aggA"));
+        Team teamB = teamRepository.save(new Team("aggB"));
+        Member member1 = memberRepository.save(new Member("agg1", 10, teamA));
+        Member member2 = memberRepository.save(new Member("agg2", 20, teamA));
+        memberRepository.save(new Member("agg3", 30, teamB));
+        memberRepository.save(new Member("aggNoTeam", 40));
+
+        assertSummary(teamA, 2, 15);
+        assertSummary(teamB, 1, 30);
+
+        // 팀 이동 + 나이 변경
+        transactionTemplate.execute(status -> {
+            Member member = memberRepository.findById(member1.getId()).get();
+            member.changeTeam(teamRepository.findById(teamB.getId()).get());
+            member.setAge(50);
+            return null;
+        });
+        assertSummary(teamA, 1, 20);
+        assertSummary(teamB, 2, 40);
+
+        // 삭제
+        memberRepository.deleteById(member2.getId());
+        assertSummary(teamA, 0, 0);
+
+        // 벌크 연산 후에는 member 테이블과 다른 팀만 재계산
+        memberRepository.bulkAgePlus(0);
+        assertSummary(teamB, 2, 41);
+
+        // 엔티티로 읽어도 커밋 후에는 갱신된 값 (2차 캐시에서 빠짐)
+        Team loaded = teamRepository.findById(teamB.getId()).get();
+        assertThat(loaded.getMemberCount()).isEqualTo(2);
+        assertThat(loaded.getAverageAge()).isEqualTo(41);
+    }
+
+    @Test
+    public void rollbackKeepsAggregates() {
+        Team team = teamRepository.save(new Team("aggRollback"));
+        memberRepository.save(new Member("aggR1", 10, team));
+
+        transactionTemplate.execute(status -> {
+            memberRepository.saveAll(Arrays.asList(new Member("aggR2", 10, team), new Member("aggR3", 10, team)));
+            memberRepository.flush();
+            status.setRollbackOnly();
+            return null;
+        });
+
+        assertSummary(team, 1, 10);
+        assertThat(teamRepository.findSummaries(PageRequest.of(0, 100)).getContent())
+                .extracting(TeamSummaryDto::getName)
+                .contains("aggRollback");
+    }
+
+    @Test
+    public void bulkDeletesRecalculateAffectedTeams() {
+        Team teamA = teamRepository.save(new Team("aggDeleteA"));
+        Team teamB = teamRepository.save(new Team("aggDeleteB"));
+        Member member1 = memberRepository.save(new Member("aggD1", 10, teamA));
+        memberRepository.save(new Member("aggD2", 20, teamA));
+        memberRepository.save(new Member("aggD3", 30, teamB));
+
+        // JPQL delete 라 엔티티 콜백을 타지 않음
+        memberRepository.deleteInBatch(Collections.singletonList(member1));
+        assertSummary(teamA, 1, 20);
+        assertSummary(teamB, 1, 30);
+
+        memberRepository.deleteAllInBatch();
+        assertSummary(teamA, 0, 0);
+        assertSummary(teamB, 0, 0);
+    }
+
+    @Test
+    public void writeOutsideTransactionIsRepaired() {
+        Team team = teamRepository.save(new Team("aggNoTx"));
+        memberRepository.save(new Member("aggN1", 10, team));
+
+        // 스프링 트랜잭션 없이 직접 만든 EntityManager 로 저장해도 예외 없이 커밋됨
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            em.persist(new Member("aggN2", 30, em.find(Team.class, team.getId())));
+            em.getTransaction().commit();
+        } finally {
+            em.close();
+        }
+        assertSummary(team, 1, 10);
+
+        teamAggregates.repairStaleTeams(Long.MAX_VALUE);
+        assertSummary(team, 2, 20);
+        assertThat(teamRepository.findById(team.getId()).get().getMemberCount()).isEqualTo(2);
+    }
+
+    private void assertSummary(Team team, int memberCount, double averageAge) {
+        TeamSummaryDto summary = teamRepository.findSummaryById(team.getId()).get();
+        assertThat(summary.getMemberCount()).isEqualTo(memberCount);
+        assertThat(summary.getAverageAge()).isEqualTo(averageAge);
+    }
+}
@@ -0,0 +1,103 @@
+package study.datajpa.repository.support;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.IsolatedDbTest;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 인덱스는 커밋 후에 갱신됨
+ */
+@IsolatedDbTest
+class UsernameSearchIndexTest {
+
+    @Autowired
+    UsernameSearchIndex usernameSearchIndex;
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    public void cleanUp() {
+        memberRepository.deleteAll();
+    }
+
+    @Test
+    public void searchKeptInSyncWithMemberWrites() {
+        Member alice = memberRepository.save(new Member("Alice", 10));
+        memberRepository.save(new Member("alicia", 20));
+        memberRepository.save(new Member("malice", 30));
+        Member bob = memberRepository.save(new Member("bob", 40));
+
+        assertThat(usernames(memberRepository.searchByUsernamePrefix("ali", 10))).containsExactly("Alice", "alicia");
+        // 앞부분 일치가 먼저, 나머지는 관련도 순
+        assertThat(usernames(memberRepository.searchByUsernameContaining("LIC", 10))).containsExactly("Alice", "alicia", "malice");
+        assertThat(usernames(memberRepository.searchByUsernameContaining("lic", 1))).containsExactly("Alice");
+        assertThat(usernames(memberRepository.searchByUsernameFuzzy("alicd", 10))).first().isEqualTo("Alice");
+        assertThat(memberRepository.searchByUsernameFuzzy("zzz", 10)).isEmpty();
+
+        // 이름 변경, 삭제
+        transactionTemplate.execute(status -> {
+            memberRepository.findById(bob.getId()).get().setUsername("robert");
+            return null;
+        });
+        memberRepository.deleteById(alice.getId());
+
+        assertThat(memberRepository.searchByUsernamePrefix("bob", 10)).isEmpty();
+        assertThat(usernames(memberRepository.searchByUsernameContaining("bert", 10))).containsExactly("robert");
+        assertThat(usernames(memberRepository.searchByUsernamePrefix("ali", 10))).containsExactly("alicia");
+    }
+
+    @Test
+    public void rolledBackWritesNotIndexed() {
+        transactionTemplate.execute(status -> {
+            memberRepository.saveAndFlush(new Member("ghost", 10));
+            status.setRollbackOnly();
+            return null;
+        });
+
+        assertThat(usernameSearchIndex.prefix("ghost", 10)).isEmpty();
+    }
+
+    @Test
+    public void rebuildFromTable() {
+        memberRepository.save(new Member("indexed", 10));
+        // 인덱스를 거치지 않고 들어간 행 (다른 인스턴스나 JDBC 로 저장한 경우)
+        jdbcTemplate.update("insert into member (member_id, username, age, version, created_date) values (1000, 'direct1', 1, 0, current_timestamp)");
+        jdbcTemplate.update("insert into member (member_id, username, age, version, created_date) values (1001, 'direct2', 1, 0, current_timestamp)");
+        assertThat(usernameSearchIndex.prefix("direct", 10)).isEmpty();
+
+        usernameSearchIndex.rebuild();
+
+        assertThat(usernameSearchIndex.prefix("direct", 10))
+                .extracting(UsernameMatch::getId).containsExactly(1000L, 1001L);
+        assertThat(usernameSearchIndex.prefix("indexed", 10)).hasSize(1);
+        assertThat(usernameSearchIndex.size()).isEqualTo(3);
+    }
+
+    @Test
+    public void limitValidated() {
+        memberRepository.save(new Member("limited", 10));
+
+        assertThatThrownBy(() -> usernameSearchIndex.prefix("lim", -1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> usernameSearchIndex.infix("lim", 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(usernames(memberRepository.searchByUsernamePrefix("lim", Integer.MAX_VALUE))).containsExactly("limited");
+    }
+
+    private static List<String> usernames(List<Member> members) {
+        return members.stream().map(Member::getUsername).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,204 @@
+package study.datajpa.repository.support.bulk;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.IsolatedDbTest;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 청크마다 따로 커밋됨
+ */
+@IsolatedDbTest
+class BulkMutationEngineTest {
+
+    @Autowired
+    BulkMutationEngine bulkMutationEngine;
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @PersistenceContext
+    EntityManager em;
+
+    @AfterEach
+    public void cleanUp() {
+        memberRepository.deleteAll();
+    }
+
+    @Test
+    public void chunkedUpdate() {
+        List<Long> ids = saveMembers("chunk", 25);
+        List<BulkProgress> progress = new ArrayList<>();
+
+        BulkMutationResult result = bulkMutationEngine.execute(
+                BulkMutation.of("update versioned Member m set m.age = m.age + 1 where m.username like :prefix and m.age >= :age")
+                        .param("prefix", "chunk%")
+                        .param("age", 10)
+                        .chunkSize(10)
+                        .parallelism(2),
+                progress::add);
+
+        // id 범위는 조건에 맞는 행(age 10 ~ 24)의 min/max 로 잡힘
+        assertThat(result.getTotalChunks()).isEqualTo(2);
+        assertThat(result.getExecutedChunks()).isEqualTo(2);
+        assertThat(result.getAffectedRows()).isEqualTo(15);
+        assertThat(progress).hasSize(2);
+        assertThat(progress).extracting(BulkProgress::getCompletedChunks).containsExactlyInAnyOrder(1, 2);
+        assertThat(memberRepository.findById(ids.get(9)).get().getAge()).isEqualTo(9);
+        assertThat(memberRepository.findById(ids.get(10)).get().getAge()).isEqualTo(11);
+        assertThat(memberRepository.findById(ids.get(24)).get().getAge()).isEqualTo(25);
+    }
+
+    @Test
+    public void resumeAfterFailure() {
+        List<Long> ids = saveMembers("resume", 30);
+        // age 가 13 인 회원에서 0 으로 나누기 → 두번째 청크 실패
+        BulkMutation mutation = BulkMutation.of("update Member m set m.age = m.age + 100 / (m.age - 13) where m.username like :prefix")
+                .param("prefix", "resume%")
+                .name("resume")
+                .chunkSize(10);
+
+        assertThatThrownBy(() -> bulkMutationEngine.execute(mutation))
+                .isInstanceOfSatisfying(BulkMutationException.class, e -> {
+                    assertThat(e.getCheckpoint().getCompletedChunks()).isGreaterThanOrEqualTo(1);
+                    assertThat(e.getCheckpoint().getCompletedChunks()).isLessThan(3);
+                });
+        assertThat(bulkMutationEngine.findCheckpoint("resume")).isNotNull();
+        int completedBefore = bulkMutationEngine.findCheckpoint("resume").getCompletedChunks();
+
+        jdbcTemplate.update("update member set age = 12 where member_id = ?", ids.get(13));
+        BulkMutationResult result = bulkMutationEngine.execute(mutation);
+
+        assertThat(result.getSkippedChunks()).isEqualTo(completedBefore);
+        assertThat(result.getExecutedChunks()).isEqualTo(3 - completedBefore);
+        assertThat(result.getAffectedRows()).isEqualTo(30);
+        assertThat(bulkMutationEngine.findCheckpoint("resume")).isNull();
+        // 첫 청크는 한 번만 실행돼야 함 (age 0 → 0 + 100 / -13 = -7)
+        assertThat(memberRepository.findById(ids.get(0)).get().getAge()).isEqualTo(-7);
+    }
+
+    @Test
+    public void resumeFromStoredCheckpoint() throws Exception {
+        List<Long> ids = saveMembers("stored", 30);
+        BulkMutation mutation = BulkMutation.of("update Member m set m.age = m.age + 100 / (m.age - 13) where m.username like :prefix")
+                .param("prefix", "stored%")
+                .name("stored")
+                .chunkSize(10);
+
+        BulkCheckpoint failed = null;
+        try {
+            bulkMutationEngine.execute(mutation);
+        } catch (BulkMutationException e) {
+            failed = e.getCheckpoint();
+        }
+        assertThat(failed).isNotNull();
+        int completedBefore = failed.getCompletedChunks();
+
+        // 재시작: 저장해둔 체크포인트만 남고 엔진의 메모리는 비어있음
+        BulkCheckpoint stored = copy(failed);
+        bulkMutationEngine.discardCheckpoint("stored");
+        jdbcTemplate.update("update member set age = 12 where member_id = ?", ids.get(13));
+
+        assertThatThrownBy(() -> bulkMutationEngine.execute(mutation.chunkSize(5), stored, BulkProgressListener.NONE))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        BulkMutationResult result = bulkMutationEngine.execute(mutation.chunkSize(10), stored, BulkProgressListener.NONE);
+
+        assertThat(result.getSkippedChunks()).isEqualTo(completedBefore);
+        assertThat(result.getAffectedRows()).isEqualTo(30);
+        assertThat(memberRepository.findById(ids.get(0)).get().getAge()).isEqualTo(-7);
+    }
+
+    @Test
+    public void rejectConcurrentRunWithSameName() throws Exception {
+        saveMembers("concurrent", 20);
+        BulkMutation mutation = BulkMutation.of("update Member m set m.age = m.age + 1 where m.username like :prefix")
+                .param("prefix", "concurrent%")
+                .name("concurrent")
+                .chunkSize(10);
+
+        CountDownLatch chunkDone = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<BulkMutationResult> first = CompletableFuture.supplyAsync(() ->
+                bulkMutationEngine.execute(mutation, progress -> {
+                    chunkDone.countDown();
+                    await(release);
+                }));
+        assertThat(chunkDone.await(10, TimeUnit.SECONDS)).isTrue();
+
+        // 첫 실행이 끝나기 전에 같은 이름으로 실행하면 체크포인트를 같이 쓰지 않고 거절
+        assertThatThrownBy(() -> bulkMutationEngine.execute(mutation))
+                .isInstanceOf(IllegalStateException.class);
+
+        release.countDown();
+        assertThat(first.get(10, TimeUnit.SECONDS).getAffectedRows()).isEqualTo(20);
+        assertThat(bulkMutationEngine.execute(mutation).getAffectedRows()).isEqualTo(20);  // 끝난 뒤에는 다시 실행 가능
+    }
+
+    @Test
+    public void detachOnlyAffectedRange() {
+        List<Long> ids = saveMembers("detach", 10);
+        Member outside = memberRepository.save(new Member("other", 1));
+
+        transactionTemplate.execute(status -> {
+            List<Member> loaded = memberRepository.findAllById(ids);
+            Member other = memberRepository.findById(outside.getId()).get();
+
+            bulkMutationEngine.execute(BulkMutation.of("update Member m set m.age = m.age + 1 where m.username like :prefix")
+                    .param("prefix", "detach%")
+                    .chunkSize(5));
+
+            assertThat(loaded).noneMatch(em::contains);
+            assertThat(em.contains(other)).isTrue();
+            assertThat(memberRepository.findById(ids.get(0)).get().getAge()).isEqualTo(1);
+            return null;
+        });
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private BulkCheckpoint copy(BulkCheckpoint checkpoint) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(checkpoint);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            return (BulkCheckpoint) in.readObject();
+        }
+    }
+
+    private List<Long> saveMembers(String prefix, int count) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ids.add(memberRepository.save(new Member(prefix + i, i)).getId());
+        }
+        return ids;
+    }
+}
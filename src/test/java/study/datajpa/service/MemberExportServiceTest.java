@@ -0,0 +1,136 @@
+package study.datajpa.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 내보내기 결과를 전체 건수로 확인해야 하므로 다른 테스트와 DB 를 분리
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:export;DB_CLOSE_DELAY=-1",
+        "member.export.fetch-size=2"})
+@AutoConfigureMockMvc
+class MemberExportServiceTest {
+
+    @Autowired
+    MemberExportService memberExportService;
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    TeamRepository teamRepository;
+    @Autowired
+    ObjectMapper objectMapper;
+    @Autowired
+    MockMvc mockMvc;
+
+    @BeforeEach
+    public void setUp() {
+        Team team = teamRepository.save(new Team("teamA"));
+        memberRepository.save(new Member("member1", 10, team));
+        memberRepository.save(new Member("kim, \"junior\"", 20, team));
+        memberRepository.save(new Member("noTeam", 30));
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        memberRepository.deleteAll();
+        teamRepository.deleteAll();
+    }
+
+    @Test
+    public void exportCsv() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = memberExportService.export(MemberFileFormat.CSV, out);
+
+        assertThat(rows).isEqualTo(3);
+        List<String> lines = Arrays.asList(out.toString(StandardCharsets.UTF_8.name()).split("\n"));
+        assertThat(lines).hasSize(4);
+        assertThat(lines.get(0)).isEqualTo("id,username,teamName");
+        assertThat(lines).anySatisfy(line -> assertThat(line).endsWith(",member1,teamA"));
+        assertThat(lines).anySatisfy(line -> assertThat(line).endsWith(",\"kim, \"\"junior\"\"\",teamA"));
+        assertThat(lines).anySatisfy(line -> assertThat(line).endsWith(",noTeam,"));
+    }
+
+    @Test
+    public void exportNdjson() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        memberExportService.export(MemberFileFormat.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8.name()).split("\n");
+        assertThat(lines).hasSize(3);
+        for (String line : lines) {
+            JsonNode node = objectMapper.readTree(line);
+            assertThat(node.has("id")).isTrue();
+            assertThat(node.has("username")).isTrue();
+            assertThat(node.has("teamName")).isTrue();
+        }
+    }
+
+    @Test
+    public void exportEndpointGzip() throws Exception {
+        MvcResult result = mockMvc.perform(get("/members/export").param("format", "csv")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"members.csv\""))
+                .andReturn();
+
+        byte[] body = result.getResponse().getContentAsByteArray();
+        StringBuilder csv = new StringBuilder();
+        try (Reader reader = new InputStreamReader(new GZIPInputStream(new ByteArrayInputStream(body)), StandardCharsets.UTF_8)) {
+            char[] buffer = new char[1024];
+            int read;
+            while ((read = reader.read(buffer)) > 0) {
+                csv.append(buffer, 0, read);
+            }
+        }
+        assertThat(csv.toString().split("\n")).hasSize(4);
+    }
+
+    @Test
+    public void exportEndpointGzipRefused() throws Exception {
+        mockMvc.perform(get("/members/export")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+        mockMvc.perform(get("/members/export")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "identity, *;q=0.5"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"));
+    }
+
+    @Test
+    public void exportEndpointUnknownFormat() throws Exception {
+        mockMvc.perform(get("/members/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,131 @@
+package study.datajpa.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.servlet.MockMvc;
+import study.datajpa.IsolatedDbTest;
+import study.datajpa.dto.TeamSummaryDto;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.FetchPlan;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+import study.datajpa.repository.support.UsernameSearchIndex;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 청크마다 커밋 (청크 크기 2, 병렬 2 는 application-isolated.yml)
+ */
+@IsolatedDbTest
+class MemberImportServiceTest {
+
+    @Autowired
+    MemberImportService memberImportService;
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    TeamRepository teamRepository;
+    @Autowired
+    UsernameSearchIndex usernameSearchIndex;
+    @Autowired
+    MockMvc mockMvc;
+
+    @AfterEach
+    public void cleanUp() {
+        memberRepository.deleteAll();
+        teamRepository.deleteAll();
+    }
+
+    @Test
+    public void importCsv() throws Exception {
+        Team teamA = teamRepository.save(new Team("teamA"));
+        String csv = "id,username,age,teamName\n" +    // 1 (내보내기 파일 형식, id 는 무시)
+                "1,imported1,10,teamA\n" +              // 2
+                "2,imported2,20,teamB\n" +              // 3 (없는 팀은 새로 만듦)
+                "3,\"kim, \"\"junior\"\"\n2nd\",30,teamA\n" +  // 4-5 (따옴표 안 쉼표/줄바꿈)
+                "4,badAge,abc,teamA\n" +                // 6
+                "5,,40,teamA\n" +                       // 7
+                "\n" +                                  // 8 (빈 줄)
+                "6,noTeam,50,\n";                       // 9
+
+        MemberImportResult result = memberImportService.importMembers(MemberFileFormat.CSV, stream(csv));
+
+        assertThat(result.getRows()).isEqualTo(6);
+        assertThat(result.getImported()).isEqualTo(4);
+        assertThat(result.getFailed()).isEqualTo(2);
+        assertThat(result.getTeamsCreated()).isEqualTo(1);
+        assertThat(result.getErrors()).extracting(MemberImportError::getLine).containsExactly(6L, 7L);
+
+        assertThat(memberRepository.findByUsername("kim, \"junior\"\n2nd")).hasSize(1);
+        Member member = memberRepository.findByIdWith(memberRepository.findByUsername("imported1").get(0).getId(),
+                FetchPlan.MEMBER_TEAM).get();
+        assertThat(member.getTeam().getName()).isEqualTo("teamA");
+        assertThat(member.getVersion()).isZero();
+        assertThat(member.getCreatedDate()).isNotNull();
+        assertThat(member.isNew()).isFalse();
+
+        TeamSummaryDto summaryA = teamRepository.findSummaryById(teamA.getId()).get();
+        assertThat(summaryA.getMemberCount()).isEqualTo(2);
+        assertThat(summaryA.getAverageAge()).isEqualTo(20.0);
+        assertThat(usernameSearchIndex.prefix("imported", 10)).hasSize(2);
+    }
+
+    @Test
+    public void importNdjson() throws Exception {
+        String ndjson = "{\"username\":\"json1\",\"age\":10,\"teamName\":\"teamJ\"}\n" +
+                "{\"username\":\"json2\",\"age\":\n" +
+                "{\"username\":\"json3\",\"age\":30}\n";
+
+        MemberImportResult result = memberImportService.importMembers(MemberFileFormat.NDJSON, stream(ndjson));
+
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getErrors()).extracting(MemberImportError::getLine).containsExactly(2L);
+        assertThat(memberRepository.findByUsername("json3").get(0).getAge()).isEqualTo(30);
+    }
+
+    @Test
+    public void failedRowsIsolatedFromChunk() throws Exception {
+        String tooLong = String.join("", Collections.nCopies(300, "x"));  // username 컬럼(255) 초과
+        String csv = "username,age\n" +
+                "ok1,1\n" +
+                tooLong + ",2\n" +
+                "ok2,3\n";
+
+        MemberImportResult result = memberImportService.importMembers(MemberFileFormat.CSV, stream(csv));
+
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getFailed()).isEqualTo(1);
+        List<MemberImportError> errors = result.getErrors();
+        assertThat(errors).hasSize(1);
+        assertThat(errors.get(0).getLine()).isEqualTo(3);
+        assertThat(memberRepository.findByUsername("ok1")).hasSize(1);
+        assertThat(memberRepository.findByUsername("ok2")).hasSize(1);
+    }
+
+    @Test
+    public void importEndpointRejectsBadInput() throws Exception {
+        mockMvc.perform(post("/members/import").param("format", "xml").content("username\nx\n"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/members/import").content(""))                  // 헤더 없음
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/members/import").content("name,age\nx,1\n"))  // username 컬럼 없음
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/members/import").content("username,age\nendpoint1,1\n"))
+                .andExpect(status().isOk());
+        assertThat(memberRepository.findByUsername("endpoint1")).hasSize(1);
+    }
+
+    private static InputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,124 @@
+package study.datajpa.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.IsolatedDbTest;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.LockingMode;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.support.RetryingTransactionExecutor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 여러 스레드가 동시에 커밋 (member.locking.max-attempts 는 application-isolated.yml)
+ */
+@IsolatedDbTest
+class MemberUpdateServiceTest {
+
+    private static final int THREADS = 8;
+    private static final int UPDATES_PER_THREAD = 25;
+
+    @Autowired
+    MemberUpdateService memberUpdateService;
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    RetryingTransactionExecutor retryingTransactionExecutor;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    public void cleanUp() {
+        memberRepository.deleteAll();
+    }
+
+    @Test
+    public void staleUpdateFails() {
+        Member saved = memberRepository.save(new Member("stale", 10));
+        Member stale = memberRepository.findById(saved.getId()).get();
+
+        memberUpdateService.update(saved.getId(), LockingMode.OPTIMISTIC, member -> member.setAge(20));
+
+        stale.setAge(30);
+        assertThatThrownBy(() -> memberRepository.save(stale))
+                .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+        assertThat(memberRepository.findById(saved.getId()).get().getAge()).isEqualTo(20);
+    }
+
+    /**
+     * 한 명을 모든 스레드가 동시에 수정해도 (경합 최대) 갱신 손실이 없어야 함
+     */
+    @ParameterizedTest
+    @EnumSource(value = LockingMode.class, names = {"OPTIMISTIC", "PESSIMISTIC_WRITE"})
+    public void hotRowUpdates(LockingMode mode) throws Exception {
+        Long memberId = memberRepository.save(new Member("hot-" + mode, 0)).getId();
+
+        long elapsed = runConcurrently(thread -> memberId, mode);
+
+        assertThat(memberRepository.findById(memberId).get().getAge()).isEqualTo(THREADS * UPDATES_PER_THREAD);
+        report("hot", mode, elapsed);
+    }
+
+    /**
+     * 스레드마다 다른 회원을 수정 (경합 없음) → 낙관적 락은 충돌 없이 락 대기도 없음
+     */
+    @ParameterizedTest
+    @EnumSource(value = LockingMode.class, names = {"OPTIMISTIC", "PESSIMISTIC_WRITE"})
+    public void spreadUpdates(LockingMode mode) throws Exception {
+        List<Long> memberIds = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            memberIds.add(memberRepository.save(new Member("spread-" + mode + i, 0)).getId());
+        }
+
+        long elapsed = runConcurrently(memberIds::get, mode);
+
+        for (Long memberId : memberIds) {
+            assertThat(memberRepository.findById(memberId).get().getAge()).isEqualTo(UPDATES_PER_THREAD);
+        }
+        report("spread", mode, elapsed);
+    }
+
+    private long runConcurrently(java.util.function.IntFunction<Long> memberIdOfThread, LockingMode mode) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                Long memberId = memberIdOfThread.apply(t);
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < UPDATES_PER_THREAD; i++) {
+                        memberUpdateService.update(memberId, mode, member -> member.setAge(member.getAge() + 1));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        return System.nanoTime() - start;
+    }
+
+    private void report(String scenario, LockingMode mode, long elapsedNanos) {
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        System.out.printf("[%s] %s : %.0f updates/s%n", scenario, mode, THREADS * UPDATES_PER_THREAD / seconds);
+        retryingTransactionExecutor.getStats().forEach(stats ->
+                System.out.println("  " + stats.getOperation() + " attempts=" + stats.getAttempts()
+                        + " conflicts=" + stats.getConflicts() + " staleStates=" + stats.getStaleStates() + " exhausted=" + stats.getExhausted()));
+    }
+}